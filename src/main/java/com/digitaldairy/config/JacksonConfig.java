@@ -0,0 +1,24 @@
+package com.digitaldairy.config;
+
+/**
+ * JacksonConfig: Customizes Boot's Jackson builder (shared by the JSON and CBOR mappers).
+ * Registers a default filter provider so @JsonFilter DTOs serialize all fields unless a request
+ * narrows them (see SparseFieldsResponseAdvice).
+ */
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer defaultFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .setFailOnUnknownId(false));
+    }
+}
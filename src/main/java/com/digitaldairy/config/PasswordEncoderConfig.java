@@ -3,19 +3,33 @@ package com.digitaldairy.config;
 /**
  * PasswordEncoderConfig: Dedicated bean for BCrypt password hashing.
  * Used in AuthService for farmer reg (phone + userId + pass) and staff onboarding.
- * Strength=12 for balance (secure, not too slow for H2 dev).
+ * Strength=12 for balance (secure, not too slow for H2 dev); tunable via app.security.password.bcrypt-strength.
+ * Existing hashes keep verifying at the cost they were created with; new hashes use the configured one.
+ * Hashing runs on a bounded pool (BoundedPasswordEncoder) so login storms cannot tie up request threads.
  */
 
+import com.digitaldairy.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class PasswordEncoderConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);  // Default strength=10; 12 for dairy-scale
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password.bcrypt-strength:12}") int strength,  // Default strength=10; 12 for dairy-scale
+            @Value("${app.security.password.hash-threads:0}") int threads,
+            @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password.max-wait:2s}") Duration maxWait,
+            MeterRegistry meterRegistry) {
+        int hashThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), hashThreads, queueCapacity, maxWait,
+                meterRegistry);
     }
-}
\ No newline at end of file
+}
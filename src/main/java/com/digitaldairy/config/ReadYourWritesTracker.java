@@ -0,0 +1,75 @@
+package com.digitaldairy.config;
+
+/**
+ * ReadYourWritesTracker: Remembers when each authenticated user last committed a write, so their reads
+ * stay on the primary for a short window (e.g., staff checking the records they just uploaded).
+ * In-memory per instance; entries expire on lookup and are pruned when the map grows.
+ */
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReadYourWritesTracker {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long windowMillis;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Record the current user's write once the surrounding transaction commits.
+     */
+    public void markOnCommit() {
+        String user = currentUser();
+        if (user == null || windowMillis <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.currentTimeMillis();
+                lastWrites.put(user, now);
+                if (lastWrites.size() > PRUNE_THRESHOLD) {
+                    lastWrites.values().removeIf(at -> now - at > windowMillis);
+                }
+            }
+        });
+    }
+
+    /**
+     * Whether the current user wrote within the window.
+     */
+    public boolean isSticky() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long at = lastWrites.get(user);
+        if (at == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - at > windowMillis) {
+            lastWrites.remove(user, at);
+            return false;
+        }
+        return true;
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
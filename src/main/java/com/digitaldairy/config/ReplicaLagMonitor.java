@@ -0,0 +1,112 @@
+package com.digitaldairy.config;
+
+/**
+ * ReplicaLagMonitor: Measures each replica's replication lag with a heartbeat row.
+ * Every check interval the primary's replication_heartbeat row is stamped with the current time, then each
+ * replica's copy of the row is read; lag = now - stamp seen on the replica. A replica is healthy while its lag
+ * is within app.datasource.replicas.max-lag. Unreachable replicas, and all replicas before the first
+ * successful check, count as unhealthy, so reads fall back to the primary rather than risk stale data.
+ */
+
+import com.digitaldairy.model.ReplicationHeartbeat;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public class ReplicaLagMonitor implements Closeable {
+
+    private static final String UPDATE_BEAT = "UPDATE replication_heartbeat SET beat_millis = ? WHERE id = ?";
+    private static final String INSERT_BEAT = "INSERT INTO replication_heartbeat (id, beat_millis) VALUES (?, ?)";
+    private static final String SELECT_BEAT = "SELECT beat_millis FROM replication_heartbeat WHERE id = ?";
+
+    private final JdbcTemplate primary;
+    private final List<DataSource> pools = new ArrayList<>();
+    private final Map<String, ReplicaState> replicas = new LinkedHashMap<>();
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, long maxLagMillis,
+                             MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.maxLagMillis = maxLagMillis;
+        pools.add(primary);
+        pools.addAll(replicas.values());
+        replicas.forEach((name, dataSource) -> {
+            ReplicaState state = new ReplicaState(new JdbcTemplate(dataSource));
+            this.replicas.put(name, state);
+            Gauge.builder("datasource.replica.lag", state, s -> s.lagMillis)
+                    .description("Replication lag seen through the heartbeat row (ms, -1 when unknown)")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    public boolean isHealthy(String replica) {
+        ReplicaState state = replicas.get(replica);
+        return state != null && state.healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.check-interval:PT1S}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_BEAT, now, ReplicationHeartbeat.ROW_ID) == 0) {
+                primary.update(INSERT_BEAT, ReplicationHeartbeat.ROW_ID, now);
+            }
+        } catch (RuntimeException e) {
+            // Schema not created yet, or primary unavailable; replicas keep their last state
+            log.debug("Heartbeat write failed: {}", e.getMessage());
+            return;
+        }
+
+        replicas.forEach((name, state) -> {
+            boolean wasHealthy = state.healthy;
+            try {
+                Long beat = state.jdbc.queryForObject(SELECT_BEAT, Long.class, ReplicationHeartbeat.ROW_ID);
+                state.lagMillis = beat != null ? Math.max(0, System.currentTimeMillis() - beat) : -1;
+            } catch (RuntimeException e) {
+                state.lagMillis = -1;
+                log.debug("Heartbeat read failed on replica {}: {}", name, e.getMessage());
+            }
+            state.healthy = state.lagMillis >= 0 && state.lagMillis <= maxLagMillis;
+            if (wasHealthy != state.healthy) {
+                log.info("Replica {} is now {} (lag={}ms)", name, state.healthy ? "healthy" : "skipped", state.lagMillis);
+            }
+        });
+    }
+
+    /**
+     * Close the heartbeat connection pools (invoked as the bean's destroy method).
+     */
+    @Override
+    public void close() {
+        for (DataSource pool : pools) {
+            if (pool instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close heartbeat data source: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class ReplicaState {
+        private final JdbcTemplate jdbc;
+        private volatile long lagMillis = -1;
+        private volatile boolean healthy;
+
+        ReplicaState(JdbcTemplate jdbc) {
+            this.jdbc = jdbc;
+        }
+    }
+}
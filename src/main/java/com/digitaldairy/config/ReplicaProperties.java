@@ -0,0 +1,31 @@
+package com.digitaldairy.config;
+
+/**
+ * ReplicaProperties: Settings for read-replica routing (app.datasource.replicas.*).
+ * Replicas share the primary's driver; each needs its own URL and credentials.
+ */
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled;
+    private List<Instance> instances = new ArrayList<>();
+    private Duration maxLag = Duration.ofSeconds(5);                 // Replicas further behind are skipped
+    private Duration checkInterval = Duration.ofSeconds(1);          // Heartbeat write/read period
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);  // Reads stay on the primary after a user's write
+
+    @Data
+    public static class Instance {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
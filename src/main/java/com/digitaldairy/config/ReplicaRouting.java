@@ -0,0 +1,37 @@
+package com.digitaldairy.config;
+
+/**
+ * ReplicaRouting: Per-thread switch read by ReplicaRoutingDataSource, usable whether or not replicas are enabled.
+ * onPrimary() pins reads to the primary, for lazily built in-memory mirrors that are afterwards kept current
+ * by after-commit appends (a build from a lagging replica would miss rows for good). Takes effect for
+ * connections opened inside the call, so run the load in its own transaction.
+ * How far behind a replica read may be is configuration, see ReplicaRoutingConfig.maxStalenessMillis().
+ */
+
+import java.util.function.Supplier;
+
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Integer> primaryPins = ThreadLocal.withInitial(() -> 0);
+
+    private ReplicaRouting() {}
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        primaryPins.set(primaryPins.get() + 1);
+        try {
+            return action.get();
+        } finally {
+            int pins = primaryPins.get() - 1;
+            if (pins == 0) {
+                primaryPins.remove();
+            } else {
+                primaryPins.set(pins);
+            }
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return primaryPins.get() > 0;
+    }
+
+}
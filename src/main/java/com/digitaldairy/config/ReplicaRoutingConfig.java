@@ -0,0 +1,105 @@
+package com.digitaldairy.config;
+
+/**
+ * ReplicaRoutingConfig: Replaces the single DataSource with primary + read replicas when
+ * app.datasource.replicas.enabled=true (off by default; see application-replicas.properties for a local setup).
+ * The primary comes from spring.datasource.*, replicas from app.datasource.replicas.instances[*].
+ * JPA uses the @Primary lazy proxy, which opens the routed connection only at the first statement.
+ * Also exposes maxStalenessMillis() to caches (absent bean = no replicas = 0).
+ */
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    private final long maxStalenessMillis;
+
+    public ReplicaRoutingConfig(ReplicaProperties replicaProperties) {
+        // A replica passes a check with up to maxLag and may fall further behind until the next one
+        this.maxStalenessMillis = replicaProperties.getMaxLag().toMillis() + replicaProperties.getCheckInterval().toMillis();
+    }
+
+    /**
+     * How far behind a replica read may be; caches refuse fills this soon after an invalidation
+     * so they never keep pre-invalidation data.
+     */
+    public long maxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties replicaProperties,
+                                                             ReplicaLagMonitor replicaLagMonitor,
+                                                             MeterRegistry meterRegistry) {
+        ReadYourWritesTracker readYourWrites =
+                new ReadYourWritesTracker(replicaProperties.getReadYourWritesWindow().toMillis());
+        return new ReplicaRoutingDataSource(primary(dataSourceProperties), replicas(dataSourceProperties,
+                replicaProperties), replicaLagMonitor, readYourWrites, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties dataSourceProperties,
+                                               ReplicaProperties replicaProperties,
+                                               MeterRegistry meterRegistry) {
+        long maxLag = replicaProperties.getMaxLag().toMillis();
+        log.info("Read replica routing enabled: replicas={}, maxLag={}ms",
+                replicaProperties.getInstances().size(), maxLag);
+        // Dedicated single-connection pools so the heartbeat never waits behind request traffic
+        Map<String, DataSource> replicas = replicas(dataSourceProperties, replicaProperties);
+        replicas.values().forEach(ReplicaRoutingConfig::singleConnection);
+        return new ReplicaLagMonitor(singleConnection(primary(dataSourceProperties)), replicas, maxLag, meterRegistry);
+    }
+
+    private static DataSource singleConnection(DataSource dataSource) {
+        HikariDataSource pool = (HikariDataSource) dataSource;
+        pool.setMaximumPoolSize(1);
+        pool.setMinimumIdle(0);
+        return pool;
+    }
+
+    private DataSource primary(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    private Map<String, DataSource> replicas(DataSourceProperties primary, ReplicaProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Instance> instances = properties.getInstances();
+        for (int i = 0; i < instances.size(); i++) {
+            ReplicaProperties.Instance instance = instances.get(i);
+            replicas.put("replica-" + i, DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primary.determineDriverClassName())
+                    .url(instance.getUrl())
+                    .username(instance.getUsername())
+                    .password(instance.getPassword())
+                    .build());
+        }
+        return replicas;
+    }
+}
@@ -0,0 +1,109 @@
+package com.digitaldairy.config;
+
+/**
+ * ReplicaRoutingDataSource: Picks the primary or a replica per connection.
+ * Read-only transactions (@Transactional(readOnly = true), Spring Data finders) go round-robin to replicas
+ * that ReplicaLagMonitor reports healthy; everything else uses the primary, as do reads of a user who
+ * committed a write within the read-your-writes window and reads pinned via ReplicaRouting.onPrimary().
+ * Must sit behind a LazyConnectionDataSourceProxy so the transaction's read-only flag is known when
+ * the physical connection is fetched.
+ */
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaNames;
+    private final List<DataSource> pools = new ArrayList<>();
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter pinnedReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites,
+                                    MeterRegistry meterRegistry) {
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        pools.add(primary);
+        pools.addAll(replicas.values());
+
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.stickyReads = readCounter(meterRegistry, "sticky");
+        this.pinnedReads = readCounter(meterRegistry, "pinned");
+        this.fallbackReads = readCounter(meterRegistry, "fallback");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.markOnCommit();  // Write transaction (or no transaction): the primary
+            return PRIMARY;
+        }
+        if (ReplicaRouting.isPinnedToPrimary()) {
+            pinnedReads.increment();
+            return PRIMARY;
+        }
+        if (readYourWrites.isSticky()) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(1, replicaNames.size()));
+        for (int i = 0; i < replicaNames.size(); i++) {
+            String replica = replicaNames.get((start + i) % replicaNames.size());
+            if (lagMonitor.isHealthy(replica)) {
+                replicaReads.increment();
+                return replica;
+            }
+        }
+        fallbackReads.increment();  // No replica within max lag
+        return PRIMARY;
+    }
+
+    /**
+     * Close the connection pools (invoked as the bean's destroy method).
+     */
+    @Override
+    public void close() {
+        for (DataSource pool : pools) {
+            if (pool instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close data source: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.read.routing")
+                .description("Read-only connections by routing decision")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.digitaldairy.config;
+
+/**
+ * SchedulingConfig: Enables @Scheduled background jobs (e.g., nightly archival of closed fiscal years).
+ */
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
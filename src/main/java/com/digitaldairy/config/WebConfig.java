@@ -0,0 +1,30 @@
+package com.digitaldairy.config;
+
+/**
+ * WebConfig: Registers the CBOR message converter so clients can negotiate a compact binary encoding
+ * (Accept: application/cbor) on any endpoint. JSON stays the default.
+ * The CBOR mapper is built from Boot's Jackson builder, so it shares the JSON mapper's modules and settings.
+ */
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class WebConfig {
+
+    /**
+     * Picked up by Boot's HttpMessageConverters; replaces MVC's default CBOR converter in place,
+     * so it stays after the JSON converter (JSON still wins for wildcard Accept headers).
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.createXmlMapper(false)
+                .factory(new CBORFactory())
+                .build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+}
@@ -0,0 +1,44 @@
+package com.digitaldairy.controller;
+
+/**
+ * AuthController: REST controller for session endpoints shared by farmers and staff.
+ * Logins stay under /api/farmer/login and /api/staff/login; both return a refresh token.
+ */
+
+import com.digitaldairy.dto.request.RefreshTokenRequest;
+import com.digitaldairy.dto.response.ApiResponse;
+import com.digitaldairy.dto.response.LoginResponse;
+import com.digitaldairy.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@Tag(name = "Authentication", description = "APIs for keeping farmer and staff sessions alive")
+public class AuthController extends BaseController {
+
+    private final AuthService authService;
+
+    /**
+     * Exchange a refresh token for new access and refresh tokens.
+     * Each refresh token works once; keep the one from this response for the next refresh.
+     *
+     * Request body:
+     * {
+     *   "refreshToken": "eyJhbGciOiJIUzUxMiJ9..."
+     * }
+     */
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Rotate a refresh token into a new access token and refresh token")
+    public ResponseEntity<ApiResponse<LoginResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        LoginResponse response = authService.refresh(request);
+        return ok(response, "Token refreshed");
+    }
+}
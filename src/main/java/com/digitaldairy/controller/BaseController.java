@@ -10,6 +10,7 @@ package com.digitaldairy.controller;
  * - Paginated responses
  * - Created responses (201)
  * - No content responses (204)
+ * - ETag tagging for conditional GET (per negotiated representation: JSON or CBOR)
  *
  * Usage in child controllers:
  * public class FarmerController extends BaseController {
@@ -26,10 +27,16 @@ package com.digitaldairy.controller;
 import com.digitaldairy.dto.response.ApiResponse;
 import com.digitaldairy.dto.response.PagedResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 public abstract class BaseController {
@@ -115,6 +122,68 @@ public abstract class BaseController {
         );
     }
 
+    /**
+     * Attach a strong ETag to a response (pair with WebRequest.checkNotModified for 304s).
+     * Adds Vary: Accept since the same resource can be served as JSON or CBOR.
+     */
+    protected <T> ResponseEntity<T> withETag(ResponseEntity<T> response, String eTag) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response.getBody());
+    }
+
+    /**
+     * Make a data-version ETag representation-specific: JSON and CBOR bodies differ byte-wise,
+     * so a strong validator must differ too (e.g. "12-v3" becomes "12-v3-cbor").
+     */
+    protected String representationETag(String eTag, WebRequest request) {
+        if (!prefersCbor(request.getHeader(HttpHeaders.ACCEPT))) {
+            return eTag;
+        }
+        return eTagVariant(eTag, "cbor");
+    }
+
+    /**
+     * Append a variant suffix inside a (quoted) ETag, e.g. "12-v3" + "s1f" becomes "12-v3-s1f".
+     */
+    protected String eTagVariant(String eTag, String variant) {
+        return eTag.endsWith("\"")
+                ? eTag.substring(0, eTag.length() - 1) + "-" + variant + "\""
+                : eTag + "-" + variant;
+    }
+
+    /**
+     * True if the most preferred acceptable media type in the Accept header is CBOR rather than JSON.
+     * Types are ranked like content negotiation does: by q-value, then specific before wildcard.
+     */
+    private boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            List<MediaType> types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                    .thenComparing(MediaType::isWildcardType)
+                    .thenComparing(MediaType::isWildcardSubtype));
+            for (MediaType type : types) {
+                if (type.getQualityValue() == 0) {
+                    continue;
+                }
+                if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(type)) {
+                    return true;
+                }
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return false;
+    }
+
     /**
      * Simple list response (non-paginated).
      * Automatically handles empty lists.
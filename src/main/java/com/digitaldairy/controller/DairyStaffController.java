@@ -80,12 +80,14 @@ public class DairyStaffController extends BaseController {
 
     /**
      * Staff login.
-     * Uses phone + password (no dairyGivenId like farmers).
+     * Uses phone + password (no dairyGivenId like farmers), plus dairyCenterId when the phone
+     * works at several centers (the first login returns the centers to pick from).
      *
      * Request body:
      * {
      *   "phone": "9841234567",
-     *   "password": "Staff@123"
+     *   "password": "Staff@123",
+     *   "dairyCenterId": 1          // optional
      * }
      */
     @PostMapping("/login")
@@ -8,6 +8,7 @@ import com.digitaldairy.dto.request.FarmerRegistrationRequest;
 import com.digitaldairy.dto.request.LoginRequest;
 import com.digitaldairy.dto.response.ApiResponse;
 import com.digitaldairy.dto.response.FarmerRegistrationResponse;
+import com.digitaldairy.dto.response.FarmerSearchResponse;
 import com.digitaldairy.dto.response.LoginResponse;
 import com.digitaldairy.service.FarmerService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,6 +19,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/farmer")
@@ -58,4 +61,21 @@ public class FarmerController extends BaseController {
 
         return ok(response, "Login successful");
     }
-}
\ No newline at end of file
+
+    /**
+     * Staff lookup by partial name, phone or dairyGivenId (prefix match, in-memory index).
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search farmers", description = "Prefix search by name, phone or dairy given ID within a dairy center")
+    public ResponseEntity<ApiResponse<List<FarmerSearchResponse>>> searchFarmers(
+            @RequestParam("q") String query,
+            @RequestParam Long dairyCenterId,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        log.info("Farmer search: query='{}', dairyCenterId={}, limit={}", query, dairyCenterId, limit);
+
+        List<FarmerSearchResponse> matches = farmerService.searchFarmers(query, dairyCenterId, limit);
+
+        return okList(matches, "Farmer search results");
+    }
+}
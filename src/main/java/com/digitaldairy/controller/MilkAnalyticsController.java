@@ -0,0 +1,101 @@
+package com.digitaldairy.controller;
+
+/**
+ * MilkAnalyticsController: REST controller for milk collection analytics (staff dashboards).
+ * Backed by the per-center columnar store, so range queries don't scan milk_records through JPA.
+ */
+
+import com.digitaldairy.dto.response.ApiResponse;
+import com.digitaldairy.dto.response.CenterAnalyticsResponse;
+import com.digitaldairy.dto.response.QualityAnalyticsResponse;
+import com.digitaldairy.dto.response.VolumeTrendResponse;
+import com.digitaldairy.service.MilkAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/milk/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Milk Analytics", description = "APIs for milk collection analytics")
+public class MilkAnalyticsController extends BaseController {
+
+    private final MilkAnalyticsService milkAnalyticsService;
+
+    /**
+     * Center and per-farmer totals for a Nepali month range.
+     */
+    @GetMapping("/totals")
+    @Operation(
+            summary = "Get center totals",
+            description = "Center totals and farmers ranked by liters for a Nepali month range"
+    )
+    public ResponseEntity<ApiResponse<CenterAnalyticsResponse>> getCenterTotals(
+            @RequestParam String fromMonth,
+            @RequestParam String fromYear,
+            @RequestParam String toMonth,
+            @RequestParam String toYear,
+            @RequestParam Long dairyCenterId) {
+
+        log.info("Fetching center totals: from={}/{}, to={}/{}, dairyCenterId={}",
+                fromMonth, fromYear, toMonth, toYear, dairyCenterId);
+
+        CenterAnalyticsResponse response = milkAnalyticsService.getCenterTotals(
+                fromMonth, fromYear, toMonth, toYear, dairyCenterId);
+
+        return ok(response, String.format("Totals for %d farmers", response.getFarmers().size()));
+    }
+
+    /**
+     * Fat/SNF percentiles, histograms and month-over-month trends (center-wide, or one farmer).
+     */
+    @GetMapping("/quality")
+    @Operation(
+            summary = "Get milk quality analytics",
+            description = "Fat/SNF percentiles, histograms and monthly trends for a center or a farmer"
+    )
+    public ResponseEntity<ApiResponse<QualityAnalyticsResponse>> getQuality(
+            @RequestParam String fromMonth,
+            @RequestParam String fromYear,
+            @RequestParam String toMonth,
+            @RequestParam String toYear,
+            @RequestParam(required = false) String memberCode,
+            @RequestParam(defaultValue = "0.1") double binWidth,
+            @RequestParam Long dairyCenterId) {
+
+        log.info("Fetching quality analytics: from={}/{}, to={}/{}, memberCode={}, dairyCenterId={}",
+                fromMonth, fromYear, toMonth, toYear, memberCode, dairyCenterId);
+
+        QualityAnalyticsResponse response = milkAnalyticsService.getQuality(
+                fromMonth, fromYear, toMonth, toYear, memberCode, binWidth, dairyCenterId);
+
+        return ok(response, String.format("Quality analytics over %d records", response.getRecordCount()));
+    }
+
+    /**
+     * Daily collected liters for a date range.
+     */
+    @GetMapping("/volume-trend")
+    @Operation(
+            summary = "Get daily volume trend",
+            description = "Liters collected per day for a date range"
+    )
+    public ResponseEntity<ApiResponse<VolumeTrendResponse>> getVolumeTrend(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam Long dairyCenterId) {
+
+        log.info("Fetching volume trend: from={}, to={}, dairyCenterId={}", fromDate, toDate, dairyCenterId);
+
+        VolumeTrendResponse response = milkAnalyticsService.getVolumeTrend(fromDate, toDate, dairyCenterId);
+
+        return ok(response, "Volume trend retrieved");
+    }
+}
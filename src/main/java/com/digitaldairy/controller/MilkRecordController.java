@@ -3,22 +3,42 @@ package com.digitaldairy.controller;
 /**
  * MilkRecordController: REST controller for milk record operations.
  * Handles CSV upload (staff) and record queries (staff/farmers).
+ * Read endpoints return JSON by default or CBOR with Accept: application/cbor (see WebConfig).
+ * Record list endpoints accept ?fields= (sparse fieldset, see MilkRecordField) to trim the query and payload.
+ * The dairy month is also downloadable as a streamed XLSX workbook.
  */
 
 import com.digitaldairy.dto.response.ApiResponse;
 import com.digitaldairy.dto.response.CsvUploadResponse;
+import com.digitaldairy.dto.response.DailyCollectionResponse;
+import com.digitaldairy.dto.response.FarmerMonthlySummaryResponse;
+import com.digitaldairy.dto.response.LeaderboardResponse;
+import com.digitaldairy.dto.response.MilkAnomalyResponse;
 import com.digitaldairy.dto.response.MilkRecordResponse;
+import com.digitaldairy.dto.response.PaymentStatementResponse;
+import com.digitaldairy.dto.response.SyncResponse;
 import com.digitaldairy.service.MilkRecordService;
+import com.digitaldairy.util.MilkRecordField;
+import com.digitaldairy.util.NepaliPeriod;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -29,6 +49,8 @@ public class MilkRecordController extends BaseController {
 
     private final MilkRecordService milkRecordService;
 
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     /**
      * Upload CSV file with milk records.
      * Staff only - requires DAIRY_STAFF role.
@@ -74,6 +96,8 @@ public class MilkRecordController extends BaseController {
     /**
      * Get farmer's milk records for a specific Nepali month.
      * For mobile app - farmer views monthly data.
+     * Supports If-None-Match: returns 304 without loading records when the month is unchanged.
+     * Optional fields=collectionDate,shift,volumeLiters,... returns only those properties.
      */
     @GetMapping("/farmer/{memberCode}/month")
     @Operation(
@@ -81,28 +105,118 @@ public class MilkRecordController extends BaseController {
             description = "Retrieve milk records for a farmer for a specific Nepali month"
     )
     public ResponseEntity<ApiResponse<List<MilkRecordResponse>>> getFarmerMonthlyRecords(
+            @PathVariable String memberCode,
+            @RequestParam String nepaliMonth,
+            @RequestParam String nepaliYear,
+            @RequestParam Long dairyCenterId,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+
+        log.info("Fetching farmer monthly records: memberCode={}, month={}, year={}, dairyCenterId={}, fields={}",
+                memberCode, nepaliMonth, nepaliYear, dairyCenterId, fields);
+
+        Set<MilkRecordField> selected = selectFields(fields, webRequest);
+        String eTag = representationETag(fieldsETag(
+                milkRecordService.getFarmerMonthETag(memberCode, nepaliMonth, nepaliYear, dairyCenterId),
+                selected), webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;  // 304 Not Modified, headers already set
+        }
+
+        List<MilkRecordResponse> records = milkRecordService.getFarmerRecordsByNepaliMonth(
+                memberCode, nepaliMonth, nepaliYear, dairyCenterId, selected);
+
+        if (records.isEmpty()) {
+            return withETag(okEmptyList(String.format(
+                    "No records found for farmer %s in %s/%s", memberCode, nepaliMonth, nepaliYear)), eTag);
+        }
+
+        return withETag(okList(records, "Monthly records retrieved"), eTag);
+    }
+
+    /**
+     * Delta sync for the farmer app.
+     * Returns only records created/updated after the cursor; start with cursor=0.
+     * Optional fields= limits each record to the listed properties.
+     */
+    @GetMapping("/farmer/{memberCode}/sync")
+    @Operation(
+            summary = "Sync farmer's records",
+            description = "Records changed since the given cursor, plus the cursor to use next time"
+    )
+    public ResponseEntity<ApiResponse<SyncResponse>> syncFarmerRecords(
+            @PathVariable String memberCode,
+            @RequestParam(defaultValue = "0") long cursor,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam Long dairyCenterId,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+
+        log.info("Syncing farmer records: memberCode={}, cursor={}, limit={}, dairyCenterId={}, fields={}",
+                memberCode, cursor, limit, dairyCenterId, fields);
+
+        Set<MilkRecordField> selected = selectFields(fields, webRequest);
+        SyncResponse response = milkRecordService.syncFarmerRecords(
+                memberCode, cursor, limit, dairyCenterId, selected);
+
+        return ok(response, String.format("%d changed records", response.getRecords().size()));
+    }
+
+    /**
+     * Get farmer's monthly totals for a specific Nepali month.
+     * For mobile app - reads one pre-aggregated summary row.
+     */
+    @GetMapping("/farmer/{memberCode}/month/summary")
+    @Operation(
+            summary = "Get farmer's monthly summary",
+            description = "Total liters, weighted average fat/SNF and total amount for a farmer's Nepali month"
+    )
+    public ResponseEntity<ApiResponse<FarmerMonthlySummaryResponse>> getFarmerMonthlySummary(
             @PathVariable String memberCode,
             @RequestParam String nepaliMonth,
             @RequestParam String nepaliYear,
             @RequestParam Long dairyCenterId) {
 
-        log.info("Fetching farmer monthly records: memberCode={}, month={}, year={}, dairyCenterId={}",
+        log.info("Fetching farmer monthly summary: memberCode={}, month={}, year={}, dairyCenterId={}",
                 memberCode, nepaliMonth, nepaliYear, dairyCenterId);
 
-        List<MilkRecordResponse> records = milkRecordService.getFarmerRecordsByNepaliMonth(
+        FarmerMonthlySummaryResponse summary = milkRecordService.getFarmerMonthlySummary(
                 memberCode, nepaliMonth, nepaliYear, dairyCenterId);
 
-        if (records.isEmpty()) {
-            return okEmptyList(String.format(
+        if (summary == null) {
+            return okEmpty(String.format(
                     "No records found for farmer %s in %s/%s", memberCode, nepaliMonth, nepaliYear));
         }
 
-        return okList(records, "Monthly records retrieved");
+        return ok(summary, "Monthly summary retrieved");
+    }
+
+    /**
+     * Rebuild farmer monthly summaries of a dairy center from raw records.
+     * Staff only - repair tool if summaries drift (e.g., after manual DB edits).
+     */
+    @PostMapping("/dairy/month/summary/rebuild")
+    @Operation(
+            summary = "Rebuild monthly summaries",
+            description = "Recompute all farmer monthly summaries of a dairy center from milk records (staff only)"
+    )
+    public ResponseEntity<ApiResponse<Integer>> rebuildMonthlySummaries(
+            @RequestParam String nepaliMonth,
+            @RequestParam String nepaliYear,
+            @RequestParam Long dairyCenterId) {
+
+        log.info("Rebuilding monthly summaries: month={}, year={}, dairyCenterId={}",
+                nepaliMonth, nepaliYear, dairyCenterId);
+
+        int rebuilt = milkRecordService.rebuildMonthlySummaries(nepaliMonth, nepaliYear, dairyCenterId);
+
+        return ok(rebuilt, String.format("Rebuilt %d farmer summaries for %s/%s", rebuilt, nepaliMonth, nepaliYear));
     }
 
     /**
      * Get all milk records for a dairy center by Nepali month.
      * Staff only - for generating monthly reports.
+     * Supports If-None-Match (ETag from the center month's version counter) and fields=.
      */
     @GetMapping("/dairy/month")
     @Operation(
@@ -112,19 +226,188 @@ public class MilkRecordController extends BaseController {
     public ResponseEntity<ApiResponse<List<MilkRecordResponse>>> getDairyMonthlyRecords(
             @RequestParam String nepaliMonth,
             @RequestParam String nepaliYear,
+            @RequestParam Long dairyCenterId,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+
+        log.info("Fetching dairy monthly records: month={}, year={}, dairyCenterId={}, fields={}",
+                nepaliMonth, nepaliYear, dairyCenterId, fields);
+
+        Set<MilkRecordField> selected = selectFields(fields, webRequest);
+        String eTag = representationETag(fieldsETag(
+                milkRecordService.getDairyMonthETag(nepaliMonth, nepaliYear, dairyCenterId), selected), webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;  // 304 Not Modified, headers already set
+        }
+
+        List<MilkRecordResponse> records = milkRecordService.getDairyRecordsByNepaliMonth(
+                nepaliMonth, nepaliYear, dairyCenterId, selected);
+
+        if (records.isEmpty()) {
+            return withETag(okEmptyList(String.format(
+                    "No records found for %s/%s", nepaliMonth, nepaliYear)), eTag);
+        }
+
+        return withETag(okList(records, "Dairy monthly records retrieved"), eTag);
+    }
+
+    /**
+     * Download a dairy center's records for a Nepali month as an Excel workbook.
+     * Staff only - rows are grouped by farmer with subtotals, plus a center total row.
+     * Written straight to the response while the database cursor is read (nothing buffered per month).
+     */
+    @GetMapping("/dairy/month/export")
+    @Operation(
+            summary = "Export dairy monthly records (XLSX)",
+            description = "Excel workbook of a dairy center's records for a Nepali month with per-farmer subtotals (staff only)"
+    )
+    public void exportDairyMonthlyRecords(
+            @RequestParam String nepaliMonth,
+            @RequestParam String nepaliYear,
+            @RequestParam Long dairyCenterId,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Exporting dairy monthly records: month={}, year={}, dairyCenterId={}",
+                nepaliMonth, nepaliYear, dairyCenterId);
+
+        // Validate before any download headers are set, so a bad period still gets the JSON error response
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        String filename = String.format("milk-records-%d-%d.xlsx", dairyCenterId, nepaliPeriod);
+
+        response.setContentType(XLSX_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        milkRecordService.exportDairyRecordsXlsx(nepaliMonth, nepaliYear, dairyCenterId, response.getOutputStream());
+    }
+
+    /**
+     * Rebuild a dairy center's daily shift rollups for one date from raw milk records.
+     * Staff only - repairs the daily dashboard for a day.
+     */
+    @PostMapping("/dairy/daily/rebuild")
+    @Operation(
+            summary = "Rebuild daily shift rollups",
+            description = "Recompute morning/evening totals of a collection date from milk records (staff only)"
+    )
+    public ResponseEntity<ApiResponse<Integer>> rebuildShiftRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate collectionDate,
             @RequestParam Long dairyCenterId) {
 
-        log.info("Fetching dairy monthly records: month={}, year={}, dairyCenterId={}",
+        log.info("Rebuilding shift rollups: date={}, dairyCenterId={}", collectionDate, dairyCenterId);
+
+        int rebuilt = milkRecordService.rebuildShiftRollups(collectionDate, dairyCenterId);
+
+        return ok(rebuilt, String.format("Rebuilt %d shift rollups for %s", rebuilt, collectionDate));
+    }
+
+    /**
+     * Get a dairy center's daily collection totals per shift.
+     * Staff only - daily dashboard, served from shift rollups.
+     */
+    @GetMapping("/dairy/daily")
+    @Operation(
+            summary = "Get daily collection dashboard",
+            description = "Morning/evening totals (volume, weighted fat/SNF, amount) for a collection date (staff only)"
+    )
+    public ResponseEntity<ApiResponse<DailyCollectionResponse>> getDailyCollection(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate collectionDate,
+            @RequestParam Long dairyCenterId) {
+
+        log.info("Fetching daily collection: date={}, dairyCenterId={}", collectionDate, dairyCenterId);
+
+        DailyCollectionResponse response = milkRecordService.getDailyCollection(collectionDate, dairyCenterId);
+
+        return ok(response, "Daily collection retrieved");
+    }
+
+    /**
+     * Top producers of a dairy center for a Nepali month range.
+     * Ranked by metric: VOLUME (default), FAT, SNF or AMOUNT.
+     */
+    @GetMapping("/dairy/leaderboard")
+    @Operation(
+            summary = "Get producer leaderboard",
+            description = "Top-k farmers by volume, weighted fat/SNF or amount for a Nepali month range"
+    )
+    public ResponseEntity<ApiResponse<LeaderboardResponse>> getLeaderboard(
+            @RequestParam String fromMonth,
+            @RequestParam String fromYear,
+            @RequestParam String toMonth,
+            @RequestParam String toYear,
+            @RequestParam(defaultValue = "VOLUME") String metric,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0") double minLiters,
+            @RequestParam Long dairyCenterId) {
+
+        log.info("Fetching leaderboard: from={}/{}, to={}/{}, metric={}, limit={}, dairyCenterId={}",
+                fromMonth, fromYear, toMonth, toYear, metric, limit, dairyCenterId);
+
+        LeaderboardResponse response = milkRecordService.getLeaderboard(
+                fromMonth, fromYear, toMonth, toYear, metric, limit, minLiters, dairyCenterId);
+
+        return ok(response, String.format("Top %d farmers by %s", response.getEntries().size(), response.getMetric()));
+    }
+
+    /**
+     * List values flagged by the ingest-time anomaly detector.
+     * Staff only - review possible adulteration or analyzer faults.
+     */
+    @GetMapping("/dairy/anomalies")
+    @Operation(
+            summary = "Get flagged milk anomalies",
+            description = "Volume/fat/SNF values far from each farmer's recent pattern, for a date range (staff only)"
+    )
+    public ResponseEntity<ApiResponse<List<MilkAnomalyResponse>>> getAnomalies(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam Long dairyCenterId) {
+
+        log.info("Fetching anomalies: from={}, to={}, dairyCenterId={}", fromDate, toDate, dairyCenterId);
+
+        List<MilkAnomalyResponse> anomalies = milkRecordService.getAnomalies(fromDate, toDate, dairyCenterId);
+
+        return okList(anomalies, "Anomalies retrieved");
+    }
+
+    /**
+     * Compute payment statements for all farmers of a dairy center.
+     * Staff only - end of payment cycle.
+     */
+    @GetMapping("/dairy/statements")
+    @Operation(
+            summary = "Get payment statements",
+            description = "Per-farmer totals, deductions and weighted quality for a Nepali month (staff only)"
+    )
+    public ResponseEntity<ApiResponse<PaymentStatementResponse>> getPaymentStatements(
+            @RequestParam String nepaliMonth,
+            @RequestParam String nepaliYear,
+            @RequestParam Long dairyCenterId) {
+
+        log.info("Fetching payment statements: month={}, year={}, dairyCenterId={}",
                 nepaliMonth, nepaliYear, dairyCenterId);
 
-        List<MilkRecordResponse> records = milkRecordService.getDairyRecordsByNepaliMonth(
+        PaymentStatementResponse response = milkRecordService.getPaymentStatements(
                 nepaliMonth, nepaliYear, dairyCenterId);
 
-        if (records.isEmpty()) {
-            return okEmptyList(String.format(
-                    "No records found for %s/%s", nepaliMonth, nepaliYear));
+        return ok(response, String.format("Payment statements computed for %d farmers", response.getFarmerCount()));
+    }
+
+    /**
+     * Parse ?fields= and hand the selection to SparseFieldsResponseAdvice for serialization.
+     * @return selected fields, or null for all
+     */
+    private Set<MilkRecordField> selectFields(String fields, WebRequest webRequest) {
+        Set<MilkRecordField> selected = MilkRecordField.parse(fields);
+        if (selected != null) {
+            webRequest.setAttribute(MilkRecordField.REQUEST_ATTRIBUTE, selected, RequestAttributes.SCOPE_REQUEST);
         }
+        return selected;
+    }
 
-        return okList(records, "Dairy monthly records retrieved");
+    /**
+     * Distinct validator per fieldset, since a sparse body differs from the full one.
+     */
+    private String fieldsETag(String eTag, Set<MilkRecordField> selected) {
+        return selected == null ? eTag : eTagVariant(eTag, "s" + Long.toHexString(MilkRecordField.mask(selected)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.digitaldairy.controller;
+
+/**
+ * RateChartController: REST controller for per-center fat × SNF rate charts.
+ * Staff define the chart; CSV uploads verify or recompute Rate/Amount against it.
+ */
+
+import com.digitaldairy.dto.request.RateChartRequest;
+import com.digitaldairy.dto.response.ApiResponse;
+import com.digitaldairy.dto.response.RateChartResponse;
+import com.digitaldairy.service.RateChartService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/milk/rate-chart")
+@RequiredArgsConstructor
+@Tag(name = "Rate Chart Management", description = "APIs for dairy center fat/SNF rate charts")
+public class RateChartController extends BaseController {
+
+    private final RateChartService rateChartService;
+
+    /**
+     * Create or replace a dairy center's rate chart.
+     *
+     * Request body:
+     * {
+     *   "dairyCenterId": 1,
+     *   "mode": "VERIFY",
+     *   "points": [
+     *     { "fatPercentage": 3.0, "snf": 8.0, "rate": 52.0 },
+     *     { "fatPercentage": 3.0, "snf": 9.0, "rate": 56.0 },
+     *     { "fatPercentage": 6.0, "snf": 8.0, "rate": 70.0 },
+     *     { "fatPercentage": 6.0, "snf": 9.0, "rate": 75.0 }
+     *   ]
+     * }
+     */
+    @PutMapping
+    @Operation(
+            summary = "Save rate chart",
+            description = "Create or replace the fat × SNF rate chart used to verify CSV uploads (staff only)"
+    )
+    public ResponseEntity<ApiResponse<RateChartResponse>> saveRateChart(
+            @Valid @RequestBody RateChartRequest request) {
+
+        log.info("Saving rate chart: dairyCenterId={}, points={}",
+                request.getDairyCenterId(), request.getPoints().size());
+
+        RateChartResponse response = rateChartService.saveRateChart(request);
+
+        return ok(response, "Rate chart saved");
+    }
+
+    @GetMapping
+    @Operation(summary = "Get rate chart", description = "Retrieve a dairy center's rate chart")
+    public ResponseEntity<ApiResponse<RateChartResponse>> getRateChart(@RequestParam Long dairyCenterId) {
+
+        log.info("Fetching rate chart: dairyCenterId={}", dairyCenterId);
+
+        RateChartResponse response = rateChartService.getRateChart(dairyCenterId);
+        if (response == null) {
+            return okEmpty("No rate chart defined for dairy center " + dairyCenterId);
+        }
+
+        return ok(response, "Rate chart retrieved");
+    }
+}
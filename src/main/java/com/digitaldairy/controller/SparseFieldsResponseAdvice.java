@@ -0,0 +1,47 @@
+package com.digitaldairy.controller;
+
+/**
+ * SparseFieldsResponseAdvice: Applies a ?fields= selection to MilkRecordResponse serialization.
+ * MilkRecordController stores the parsed selection as a request attribute; this advice turns it into
+ * a per-response Jackson filter, so only the requested properties are written (JSON and CBOR).
+ */
+
+import com.digitaldairy.util.MilkRecordField;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestControllerAdvice(assignableTypes = MilkRecordController.class)
+public class SparseFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        Object selected = servletRequest.getServletRequest().getAttribute(MilkRecordField.REQUEST_ATTRIBUTE);
+        if (!(selected instanceof Set<?> fields)) {
+            return;
+        }
+
+        Set<String> properties = fields.stream()
+                .map(field -> ((MilkRecordField) field).getProperty())
+                .collect(Collectors.toSet());
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(MilkRecordField.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(properties))
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .setFailOnUnknownId(false));
+    }
+}
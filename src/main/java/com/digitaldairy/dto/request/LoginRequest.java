@@ -4,6 +4,7 @@ package com.digitaldairy.dto.request;
  * LoginRequest: DTO for /api/auth/login POST.
  * For farmers: phone + dairyGivenId + password (composite key).
  * For staff: phone + password (dairyGivenId ignored/null).
+ * dairyCenterId: optional hint; picks the dairy when the same farmer (phone + ID) or staff phone is registered at several.
  * Validation: @NotBlank on required fields; phone regex for Nepal format if needed.
  */
 
@@ -18,6 +19,8 @@ public class LoginRequest {
 
     private String dairyGivenId;  // Required for farmers, optional for staff
 
+    private Long dairyCenterId;  // Optional center hint (farmers and staff)
+
     @NotBlank(message = "Password is required")
     private String password;
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.digitaldairy.dto.request;
+
+/**
+ * RateChartRequest: DTO for creating/replacing a dairy center's rate chart.
+ * Used in PUT /api/milk/rate-chart (staff).
+ *
+ * Validation:
+ * - points: Required; fat and SNF within 0-15; must form a complete fat × SNF grid (checked when compiled)
+ * - mode: VERIFY (flag mismatches) or RECOMPUTE (replace Rate/Amount); defaults to VERIFY
+ * - tolerances: Optional, non-negative
+ */
+
+import com.digitaldairy.model.RateChartMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RateChartRequest {
+
+    @NotNull(message = "Dairy Center ID is required")
+    private Long dairyCenterId;
+
+    private RateChartMode mode = RateChartMode.VERIFY;
+
+    @PositiveOrZero(message = "Rate tolerance must not be negative")
+    private Double rateTolerance;
+
+    @PositiveOrZero(message = "Amount tolerance must not be negative")
+    private Double amountTolerance;
+
+    @NotEmpty(message = "Rate chart points are required")
+    @Valid
+    private List<Point> points;
+
+    @Data
+    public static class Point {
+
+        @NotNull(message = "Fat percentage is required")
+        @PositiveOrZero
+        @DecimalMax(value = "15.0", message = "Fat percentage must be at most 15")
+        private Double fatPercentage;
+
+        @NotNull(message = "SNF is required")
+        @PositiveOrZero
+        @DecimalMax(value = "15.0", message = "SNF must be at most 15")
+        private Double snf;
+
+        @NotNull(message = "Rate is required")
+        @PositiveOrZero
+        private Double rate;
+    }
+}
@@ -0,0 +1,16 @@
+package com.digitaldairy.dto.request;
+
+/**
+ * RefreshTokenRequest: DTO for /api/auth/refresh POST.
+ * The refresh token from the last login or refresh; each one is accepted once.
+ */
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+}
@@ -0,0 +1,40 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * CenterAnalyticsResponse: DTO for center-wide analytics over a Nepali period range.
+ * Center totals plus per-farmer totals ranked by liters (highest first); averages are volume-weighted.
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CenterAnalyticsResponse {
+
+    private Long dairyCenterId;
+    private String fromPeriod;   // e.g., "2082-01"
+    private String toPeriod;
+    private long recordCount;
+    private double totalLiters;
+    private double averageFat;
+    private double averageSnf;
+    private double totalAmount;
+    private List<FarmerTotals> farmers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FarmerTotals {
+        private String memberCode;
+        private long recordCount;
+        private double totalLiters;
+        private double averageFat;
+        private double averageSnf;
+        private double totalAmount;
+    }
+}
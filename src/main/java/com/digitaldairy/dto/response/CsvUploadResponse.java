@@ -3,6 +3,8 @@ package com.digitaldairy.dto.response;
 /**
  * CsvUploadResponse: DTO for CSV upload operation results.
  * Returns summary of processing: success count, failure count, error details.
+ * rateMismatches lists rows whose Rate/Amount disagree with the center's rate chart.
+ * anomalies lists rows whose volume/fat/SNF jump away from the farmer's recent pattern.
  */
 
 import lombok.AllArgsConstructor;
@@ -21,6 +23,8 @@ public class CsvUploadResponse {
     private int successfulRecords;   // Successfully saved
     private int failedRecords;       // Failed to save
     private List<ErrorDetail> errors; // List of errors with row numbers
+    private List<RateMismatch> rateMismatches = new ArrayList<>(); // Rows flagged by the rate chart
+    private List<Anomaly> anomalies = new ArrayList<>();           // Rows flagged by the anomaly detector
 
     public CsvUploadResponse(int totalRecords, int successfulRecords, int failedRecords) {
         this.totalRecords = totalRecords;
@@ -29,6 +33,13 @@ public class CsvUploadResponse {
         this.errors = new ArrayList<>();
     }
 
+    public CsvUploadResponse(int totalRecords, int successfulRecords, int failedRecords, List<ErrorDetail> errors) {
+        this.totalRecords = totalRecords;
+        this.successfulRecords = successfulRecords;
+        this.failedRecords = failedRecords;
+        this.errors = errors;
+    }
+
     public void addError(int rowNumber, String error) {
         if (this.errors == null) {
             this.errors = new ArrayList<>();
@@ -43,4 +54,40 @@ public class CsvUploadResponse {
         private int rowNumber;
         private String error;
     }
+
+    /**
+     * Row whose analyzer Rate/Amount disagrees with the rate chart.
+     * chartRate is null when fat/SNF fall outside the chart.
+     * recomputed=true when the stored Rate/Amount were replaced by chart values.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RateMismatch {
+        private int rowNumber;
+        private String memberCode;
+        private double fatPercentage;
+        private double snf;
+        private double csvRate;
+        private Double chartRate;
+        private double csvAmount;
+        private Double expectedAmount;
+        private boolean recomputed;
+    }
+
+    /**
+     * Row value far from the farmer's per-shift running mean.
+     * deviation is in standard deviations (negative = drop).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Anomaly {
+        private int rowNumber;
+        private String memberCode;
+        private String metric;
+        private double value;
+        private double expected;
+        private double deviation;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * DailyCollectionResponse: DTO for the staff daily dashboard.
+ * Per-shift totals (morning/evening) plus the day total; averages are volume-weighted.
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCollectionResponse {
+
+    private LocalDate collectionDate;
+    private Long dairyCenterId;
+    private List<ShiftTotals> shifts;  // One entry per shift that had collections
+    private ShiftTotals dayTotal;      // shift = null
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShiftTotals {
+        private String shift;
+        private long recordCount;
+        private double totalLiters;
+        private double averageFat;
+        private double averageSnf;
+        private double totalAmount;
+    }
+}
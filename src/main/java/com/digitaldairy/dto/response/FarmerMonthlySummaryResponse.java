@@ -0,0 +1,29 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * FarmerMonthlySummaryResponse: DTO for a farmer's monthly collection totals.
+ * averageFat/averageSnf are volume-weighted.
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FarmerMonthlySummaryResponse {
+
+    private String memberCode;
+    private String nepaliMonth;
+    private String nepaliYear;
+    private long recordCount;
+    private double totalLiters;
+    private double averageFat;
+    private double averageSnf;
+    private double totalAmount;
+    private Long dairyCenterId;
+    private LocalDateTime updatedAt;
+}
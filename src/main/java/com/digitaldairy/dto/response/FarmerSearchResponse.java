@@ -0,0 +1,20 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * FarmerSearchResponse: DTO for a farmer search match (staff lookup by partial name, phone or ID).
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FarmerSearchResponse {
+
+    private Long id;
+    private String name;
+    private String phone;
+    private String dairyGivenId;
+}
@@ -0,0 +1,38 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * LeaderboardResponse: DTO for a center's top producers over a Nepali period range.
+ * Entries are ranked by the requested metric (VOLUME, FAT, SNF or AMOUNT); averages are volume-weighted.
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardResponse {
+
+    private Long dairyCenterId;
+    private String fromPeriod;   // e.g., "2082-01"
+    private String toPeriod;
+    private String metric;
+    private List<Entry> entries;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private int rank;
+        private String memberCode;
+        private String farmerName;
+        private long recordCount;
+        private double totalLiters;
+        private double averageFat;
+        private double averageSnf;
+        private double totalAmount;
+    }
+}
@@ -4,17 +4,25 @@ package com.digitaldairy.dto.response;
  * LoginResponse: DTO for /api/auth/login success.
  * Common fields for both farmer/staff: token, username (phone), dairyId (dairyCenterId), dairyName.
  * Farmer-only: dairyGivenId (null for staff).
+ * Staff at several centers logging in without dairyCenterId: requiresCenterSelection + centers and no
+ * token; log in again with the chosen dairyCenterId.
  * Fetched via DairyCenter join in AuthService for dairyName.
  * Mobile app uses role (from token claims) to handle conditional fields.
  */
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
 
 @Data
 public class LoginResponse {
 
     private String token;  // JWT access token
 
+    private String refreshToken;  // One-time refresh token for /api/auth/refresh
+
     private String username;  // Phone as username
 
     private Long dairyId;  // dairyCenterId
@@ -25,6 +33,10 @@ public class LoginResponse {
 
     private String message;  // e.g., "Login successful"
 
+    private boolean requiresCenterSelection;  // Staff account exists at several centers
+
+    private List<CenterOption> centers;  // Centers to pick from (null unless requiresCenterSelection)
+
     // Default constructor for JSON mapping
     public LoginResponse() {}
 
@@ -38,4 +50,12 @@ public class LoginResponse {
         this.dairyGivenId = dairyGivenId;
         this.message = message;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CenterOption {
+        private Long dairyId;
+        private String dairyName;
+    }
 }
\ No newline at end of file
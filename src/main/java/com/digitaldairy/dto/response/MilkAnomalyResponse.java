@@ -0,0 +1,31 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * MilkAnomalyResponse: DTO for a flagged milk record value (staff review list).
+ * deviation: distance from the farmer's expected value in standard deviations (negative = drop).
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MilkAnomalyResponse {
+
+    private Long id;
+    private String memberCode;
+    private LocalDate collectionDate;
+    private LocalTime collectionTime;
+    private String shift;
+    private String metric;
+    private double observedValue;
+    private double expectedValue;
+    private double deviation;
+    private LocalDateTime createdAt;
+}
@@ -3,8 +3,11 @@ package com.digitaldairy.dto.response;
 /**
  * MilkRecordResponse: DTO for returning milk record details.
  * Used in API responses when querying milk records.
+ * Serialized through the "milkRecordFields" filter so ?fields= can trim it (all fields by default).
  */
 
+import com.digitaldairy.util.MilkRecordField;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,6 +19,7 @@ import java.time.LocalTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(MilkRecordField.FILTER_ID)
 public class MilkRecordResponse {
 
     private Long id;
@@ -24,6 +28,7 @@ public class MilkRecordResponse {
     private String nepaliMonth;
     private String nepaliYear;
     private LocalTime collectionTime;
+    private String shift;
     private String memberCode;
     private String farmerName;
     private Double volumeLiters;
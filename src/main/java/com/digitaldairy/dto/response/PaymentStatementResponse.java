@@ -0,0 +1,44 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * PaymentStatementResponse: DTO for a dairy center's payment cycle (one Nepali month).
+ * Center totals plus one statement per farmer; averages are volume-weighted.
+ * netPayable = grossAmount - deductions.
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatementResponse {
+
+    private Long dairyCenterId;
+    private String nepaliMonth;
+    private String nepaliYear;
+    private int farmerCount;
+    private double totalLiters;
+    private double grossAmount;
+    private double totalDeductions;
+    private double netPayable;
+    private List<FarmerStatement> statements;  // Sorted by memberCode
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FarmerStatement {
+        private String memberCode;
+        private String farmerName;
+        private long recordCount;
+        private double totalLiters;
+        private double averageFat;
+        private double averageSnf;
+        private double grossAmount;
+        private double deductions;
+        private double netPayable;
+    }
+}
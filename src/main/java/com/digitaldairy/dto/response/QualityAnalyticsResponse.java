@@ -0,0 +1,64 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * QualityAnalyticsResponse: DTO for fat/SNF quality analytics over a Nepali period range.
+ * Covers a whole center or one farmer (memberCode set). Percentiles are per record, at 0.01 resolution;
+ * monthly averages are volume-weighted, with changes versus the previous month (null for the first month
+ * or when the previous month had no collection).
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QualityAnalyticsResponse {
+
+    private Long dairyCenterId;
+    private String memberCode;   // null for center-wide
+    private String fromPeriod;   // e.g., "2082-01"
+    private String toPeriod;
+    private long recordCount;
+    private Distribution fat;
+    private Distribution snf;
+    private List<MonthTrend> monthly;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Distribution {
+        private Double p10;
+        private Double p25;
+        private Double median;
+        private Double p75;
+        private Double p90;
+        private List<HistogramBin> histogram;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HistogramBin {
+        private double from;   // inclusive
+        private double to;     // exclusive
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthTrend {
+        private String period;
+        private long recordCount;
+        private double totalLiters;
+        private double averageFat;
+        private double averageSnf;
+        private Double litersChangePercent;
+        private Double fatChange;     // percentage points
+        private Double snfChange;
+    }
+}
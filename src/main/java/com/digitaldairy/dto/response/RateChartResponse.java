@@ -0,0 +1,27 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * RateChartResponse: DTO for a dairy center's rate chart (anchor points and ingestion settings).
+ */
+
+import com.digitaldairy.model.RateChartPoint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateChartResponse {
+
+    private Long id;
+    private Long dairyCenterId;
+    private String mode;
+    private double rateTolerance;
+    private double amountTolerance;
+    private List<RateChartPoint> points;
+    private LocalDateTime updatedAt;
+}
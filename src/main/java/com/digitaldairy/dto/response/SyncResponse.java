@@ -0,0 +1,23 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * SyncResponse: DTO for farmer app delta sync.
+ * records: rows created/updated after the request cursor (ascending change order).
+ * nextCursor: pass back on the next sync; hasMore=true means call again immediately.
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+
+    private List<MilkRecordResponse> records;
+    private long nextCursor;
+    private boolean hasMore;
+}
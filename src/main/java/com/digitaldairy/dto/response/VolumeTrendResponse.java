@@ -0,0 +1,33 @@
+package com.digitaldairy.dto.response;
+
+/**
+ * VolumeTrendResponse: DTO for a center's daily collected liters over a date range.
+ * One entry per day in the range (0 liters on days without collection).
+ */
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VolumeTrendResponse {
+
+    private Long dairyCenterId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private double totalLiters;
+    private List<DailyVolume> days;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyVolume {
+        private LocalDate date;
+        private double liters;
+    }
+}
@@ -0,0 +1,20 @@
+package com.digitaldairy.exception;
+
+/**
+ * InvalidRequestException: A request value that fails business validation (e.g., malformed Nepali
+ * month/year, reversed period range, unknown leaderboard metric, incomplete rate chart grid).
+ * Returns 400 with the message, so messages must be safe to show to API clients.
+ * Extends IllegalArgumentException so internal callers that skip bad values (CSV parsing, backfill)
+ * keep catching it; other IllegalArgumentExceptions are treated as server errors.
+ */
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
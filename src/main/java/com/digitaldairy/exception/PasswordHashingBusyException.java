@@ -0,0 +1,24 @@
+package com.digitaldairy.exception;
+
+/**
+ * PasswordHashingBusyException: Thrown when the password-hashing executor is saturated (login storm).
+ * Returns 503 with a Retry-After header so clients back off instead of piling up on request threads.
+ */
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,125 @@
+package com.digitaldairy.job;
+
+/**
+ * MilkArchiveJob: Nightly archival of closed fiscal years out of milk_records.
+ * A fiscal year (Shrawan..Asar) is archived once it is older than the current one plus
+ * app.archive.keep-closed-fiscal-years, so day-to-day reads only touch the hot, small table.
+ *
+ * Per (dairy center, fiscal year), in one transaction: stream the rows into a MilkArchiveFile, write it
+ * (atomic rename), register it in milk_archives and bulk-delete the rows. If the transaction fails the rows
+ * stay hot and the next run rewrites the file. Summaries and shift rollups are kept, so monthly summaries,
+ * leaderboards and dashboards are unaffected; record reads fall back to the archive (see MilkArchiveStore).
+ * After commit the center's columnar analytics copy is dropped, so it reloads without the archived rows.
+ *
+ * Off unless app.archive.enabled=true; enable it on one node only. Every node serves archived periods from
+ * app.archive.dir, so with several instances it must be storage they all mount, not a node-local directory.
+ */
+
+import com.digitaldairy.model.MilkArchive;
+import com.digitaldairy.repository.MilkArchiveRepository;
+import com.digitaldairy.repository.MilkRecordRepository;
+import com.digitaldairy.service.support.ColumnarMilkStore;
+import com.digitaldairy.service.support.MilkArchiveStore;
+import com.digitaldairy.util.AfterCommit;
+import com.digitaldairy.util.BikramSambat;
+import com.digitaldairy.util.MilkArchiveFile;
+import com.digitaldairy.util.MilkArchiveRow;
+import com.digitaldairy.util.NepaliPeriod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MilkArchiveJob {
+
+    private final MilkRecordRepository milkRecordRepository;
+    private final MilkArchiveRepository milkArchiveRepository;
+    private final MilkArchiveStore milkArchiveStore;
+    private final ColumnarMilkStore columnarMilkStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.archive.keep-closed-fiscal-years:1}")
+    private int keepClosedFiscalYears;
+
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public void archiveClosedFiscalYears() {
+        if (!enabled || !BikramSambat.supports(LocalDate.now())) {
+            return;
+        }
+        int currentFiscalYear = NepaliPeriod.fiscalYear(BikramSambat.toBs(LocalDate.now()).period());
+        int lastArchivable = currentFiscalYear - 1 - Math.max(0, keepClosedFiscalYears);
+        int cutoff = NepaliPeriod.fiscalYearStart(lastArchivable + 1);
+
+        for (Long dairyCenterId : milkRecordRepository.findDairyCenterIdsWithPeriodBefore(cutoff)) {
+            Integer oldest = milkRecordRepository.findMinPeriodBefore(dairyCenterId, cutoff);
+            if (oldest == null) {
+                continue;
+            }
+            for (int fiscalYear = NepaliPeriod.fiscalYear(oldest); fiscalYear <= lastArchivable; fiscalYear++) {
+                try {
+                    final int year = fiscalYear;
+                    Long archived = transactionTemplate.execute(status -> archiveFiscalYear(dairyCenterId, year));
+                    if (archived != null && archived > 0) {
+                        log.info("Archived milk records: dairyCenterId={}, fiscalYear={}, rows={}",
+                                dairyCenterId, NepaliPeriod.fiscalYearLabel(year), archived);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Milk archival failed: dairyCenterId={}, fiscalYear={}",
+                            dairyCenterId, NepaliPeriod.fiscalYearLabel(fiscalYear), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Archive one center's fiscal year.
+     * @return rows archived (0 when the year has no hot rows or is already archived)
+     */
+    private long archiveFiscalYear(Long dairyCenterId, int fiscalYear) {
+        if (milkArchiveRepository.existsByDairyCenterIdAndFiscalYear(dairyCenterId, fiscalYear)) {
+            // Uploads into archived years are rejected, so hot rows here mean a manual insert; leave them be
+            log.warn("Fiscal year {} of dairy center {} is already archived; hot rows left in place",
+                    NepaliPeriod.fiscalYearLabel(fiscalYear), dairyCenterId);
+            return 0;
+        }
+        int fromPeriod = NepaliPeriod.fiscalYearStart(fiscalYear);
+        int toPeriod = NepaliPeriod.fiscalYearEnd(fiscalYear);
+
+        MilkArchiveFile.Builder builder = new MilkArchiveFile.Builder();
+        try (Stream<MilkArchiveRow> rows = milkRecordRepository.streamArchiveRows(dairyCenterId, fromPeriod, toPeriod)) {
+            rows.forEach(builder::add);
+        }
+        if (builder.size() == 0) {
+            return 0;
+        }
+
+        MilkArchive archive;
+        try {
+            archive = milkArchiveStore.write(dairyCenterId, fiscalYear, builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write milk archive", e);
+        }
+        milkArchiveRepository.save(archive);
+        int deleted = milkRecordRepository.deleteByDairyCenterIdAndPeriodRange(dairyCenterId, fromPeriod, toPeriod);
+        if (deleted != builder.size()) {
+            // Rows arrived between the scan and the delete; roll back so the next run archives them all
+            throw new IllegalStateException("Archived " + builder.size() + " rows but " + deleted + " matched delete");
+        }
+        // The center's analytics columns still hold the deleted rows; reload them once the delete is visible
+        AfterCommit.run(() -> columnarMilkStore.invalidate(dairyCenterId));
+        return deleted;
+    }
+}
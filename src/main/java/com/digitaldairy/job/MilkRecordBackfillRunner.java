@@ -0,0 +1,272 @@
+package com.digitaldairy.job;
+
+/**
+ * MilkRecordBackfillRunner: One-off startup backfill for milk records written before newer columns existed.
+ * Computes nepali_period (yyyymm) from the stored nepali_month/nepali_year strings and normalizes them,
+ * classifies the collection shift from collection_time, and assigns delta-sync change_seq values.
+ * Runs in small chunks (one transaction each) and is a no-op once every row is populated.
+ * collection_date is the month basis (month reads select by its BS range): nepali_period is derived from it
+ * whenever it is inside the BS table, and rows filed under another month are moved, with their center's
+ * monthly summaries rebuilt for both months. Rows outside the BS table fall back to the stored Nepali
+ * date strings; malformed ones are logged and left null (skipped via id cursor).
+ * Finally, months whose rows are not all counted in farmer_monthly_summaries (rows ingested before the
+ * summaries existed) get their summaries rebuilt, so ETags, leaderboards and statements cover history;
+ * days missing from daily_shift_rollups are rebuilt the same way for the daily dashboard.
+ * The realignment and derived-table rebuilds scan all of milk_records, so they are a one-off migration behind
+ * app.backfill.derived-tables.enabled (off by default; turn on for one start, then off). Each rebuild holds the
+ * center's sync sequence lock (see ChangeSequenceAllocator), so uploads accepted meanwhile wait rather than
+ * interleave with it.
+ */
+
+import com.digitaldairy.model.MilkRecord;
+import com.digitaldairy.model.MilkShift;
+import com.digitaldairy.repository.MilkRecordRepository;
+import com.digitaldairy.service.support.ChangeSequenceAllocator;
+import com.digitaldairy.service.support.MilkArchiveStore;
+import com.digitaldairy.service.support.MonthlySummaryUpdater;
+import com.digitaldairy.service.support.ShiftRollupUpdater;
+import com.digitaldairy.util.BikramSambat;
+import com.digitaldairy.util.NepaliPeriod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MilkRecordBackfillRunner implements ApplicationRunner {
+
+    private final MilkRecordRepository milkRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeSequenceAllocator changeSequenceAllocator;
+    private final MonthlySummaryUpdater monthlySummaryUpdater;
+    private final ShiftRollupUpdater shiftRollupUpdater;
+    private final MilkArchiveStore milkArchiveStore;
+
+    @Value("${app.backfill.derived-tables.enabled:false}")
+    private boolean derivedTablesEnabled;
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long afterId = 0L;
+        long processed = 0;
+        long malformed = 0;
+
+        while (true) {
+            final long cursor = afterId;
+            long[] result = transactionTemplate.execute(status -> backfillChunk(cursor));
+            if (result == null || result[0] == 0) {
+                break;
+            }
+            processed += result[0];
+            malformed += result[1];
+            afterId = result[2];
+        }
+
+        if (processed > 0) {
+            log.info("Milk record backfill complete: processed={}, malformed Nepali date={}", processed, malformed);
+        }
+
+        if (!derivedTablesEnabled) {
+            return;
+        }
+        realignPeriods();
+        buildMissingSummaries();
+        buildMissingRollups();
+    }
+
+    /**
+     * Rebuild the shift rollups of every (center, day) whose record count differs from its rollups' count.
+     */
+    private void buildMissingRollups() {
+        List<MilkRecordRepository.CenterDateRow> days = transactionTemplate.execute(status ->
+                milkRecordRepository.findDaysWithUnrolledRecords());
+        if (days == null || days.isEmpty()) {
+            return;
+        }
+        for (MilkRecordRepository.CenterDateRow row : days) {
+            transactionTemplate.executeWithoutResult(status -> {
+                changeSequenceAllocator.lock(row.getDairyCenterId());
+                shiftRollupUpdater.rebuild(row.getDairyCenterId(), row.getCollectionDate());
+            });
+        }
+        log.info("Shift rollup backfill complete: days rebuilt={}", days.size());
+    }
+
+    /**
+     * Rebuild the summaries of every (center, month) whose record count differs from its summaries' count.
+     */
+    private void buildMissingSummaries() {
+        List<MilkRecordRepository.CenterPeriodRow> periods = transactionTemplate.execute(status ->
+                milkRecordRepository.findPeriodsWithUnsummarizedRecords());
+        if (periods == null || periods.isEmpty()) {
+            return;
+        }
+        for (MilkRecordRepository.CenterPeriodRow row : periods) {
+            transactionTemplate.executeWithoutResult(status -> {
+                changeSequenceAllocator.lock(row.getDairyCenterId());
+                monthlySummaryUpdater.rebuild(row.getDairyCenterId(), row.getNepaliPeriod());
+            });
+        }
+        log.info("Monthly summary backfill complete: months rebuilt={}", periods.size());
+    }
+
+    /**
+     * Move rows whose nepali_period disagrees with their collection_date (written before the date became
+     * the month basis) and rebuild the monthly summaries of every month they left or joined.
+     */
+    private void realignPeriods() {
+        List<MilkRecordRepository.PeriodSpanRow> spans = transactionTemplate.execute(status ->
+                milkRecordRepository.findPeriodSpans());
+        if (spans == null) {
+            return;
+        }
+        long moved = 0;
+        for (MilkRecordRepository.PeriodSpanRow span : spans) {
+            int period = span.getNepaliPeriod();
+            if (!BikramSambat.supports(period)) {
+                continue;
+            }
+            BikramSambat.DateRange range = BikramSambat.periodRange(period);
+            if (!span.getFirstDate().isBefore(range.start()) && !span.getLastDate().isAfter(range.end())) {
+                continue;  // Every row of this month was collected inside it
+            }
+            Long count = transactionTemplate.execute(status -> realign(span.getDairyCenterId(), period, range));
+            moved += count != null ? count : 0;
+        }
+        if (moved > 0) {
+            log.info("Milk record month realignment complete: moved={}", moved);
+        }
+    }
+
+    private long realign(Long dairyCenterId, int period, BikramSambat.DateRange range) {
+        changeSequenceAllocator.lock(dairyCenterId);
+        Set<Integer> archivedFiscalYears = milkArchiveStore.archivedFiscalYears(dairyCenterId);
+        Set<Integer> touchedPeriods = new TreeSet<>();
+        List<MilkRecord> changed = new ArrayList<>();
+        for (MilkRecord record : milkRecordRepository.findOutsidePeriodRange(
+                dairyCenterId, period, range.start(), range.end())) {
+            if (!BikramSambat.supports(record.getCollectionDate())) {
+                continue;
+            }
+            BikramSambat.BsDate derived = BikramSambat.toBs(record.getCollectionDate());
+            if (archivedFiscalYears.contains(NepaliPeriod.fiscalYear(derived.period()))
+                    || archivedFiscalYears.contains(NepaliPeriod.fiscalYear(period))) {
+                // Summaries of archived months can no longer be rebuilt from raw rows
+                log.warn("Skipping month realignment for record {}: fiscal year archived", record.getId());
+                continue;
+            }
+            setNepaliDate(record, derived);
+            touchedPeriods.add(derived.period());
+            changed.add(record);
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        touchedPeriods.add(period);
+        assignChangeSequences(changed);
+        milkRecordRepository.saveAllAndFlush(changed);
+        for (int touched : touchedPeriods) {
+            monthlySummaryUpdater.rebuild(dairyCenterId, touched);
+        }
+        log.info("Realigned {} records of dairyCenterId={} filed under period {}; rebuilt periods {}",
+                changed.size(), dairyCenterId, period, touchedPeriods);
+        return changed.size();
+    }
+
+    private static void setNepaliDate(MilkRecord record, BikramSambat.BsDate date) {
+        record.setNepaliDate(date.format());
+        record.setNepaliPeriod(date.period());
+        record.setNepaliMonth(NepaliPeriod.monthString(date.period()));
+        record.setNepaliYear(NepaliPeriod.yearString(date.period()));
+    }
+
+    /**
+     * Backfill one chunk of rows after the given id.
+     * @return {rows processed, rows with malformed Nepali date, last id processed}
+     */
+    private long[] backfillChunk(long afterId) {
+        List<MilkRecord> chunk = milkRecordRepository.findBackfillChunk(afterId, PageRequest.of(0, CHUNK_SIZE));
+        if (chunk.isEmpty()) {
+            return new long[]{0, 0, afterId};
+        }
+
+        long malformed = 0;
+        List<MilkRecord> changed = new ArrayList<>();
+        for (MilkRecord record : chunk) {
+            boolean modified = record.getChangeSeq() == null;
+            if (record.getShift() == null) {
+                record.setShift(MilkShift.fromCollectionTime(record.getCollectionTime()));
+                modified = true;
+            }
+            if (record.getNepaliPeriod() == null) {
+                if (BikramSambat.supports(record.getCollectionDate())) {
+                    BikramSambat.BsDate derived = BikramSambat.toBs(record.getCollectionDate());
+                    if (!isSamePeriod(record, derived.period())) {
+                        record.setNepaliDate(derived.format());  // Stored month disagrees with the collection date
+                    }
+                    record.setNepaliPeriod(derived.period());
+                    record.setNepaliMonth(NepaliPeriod.monthString(derived.period()));
+                    record.setNepaliYear(NepaliPeriod.yearString(derived.period()));
+                    modified = true;
+                } else {
+                    try {
+                        int period = NepaliPeriod.parse(record.getNepaliMonth(), record.getNepaliYear());
+                        record.setNepaliPeriod(period);
+                        record.setNepaliMonth(NepaliPeriod.monthString(period));
+                        record.setNepaliYear(NepaliPeriod.yearString(period));
+                        modified = true;
+                    } catch (IllegalArgumentException e) {
+                        log.warn("Skipping nepali period backfill for record {}: {}", record.getId(), e.getMessage());
+                        malformed++;
+                    }
+                }
+            }
+            if (modified) {
+                changed.add(record);
+            }
+        }
+        // Only rows actually touched get a new change_seq, so malformed rows don't churn on every restart
+        assignChangeSequences(changed);
+        milkRecordRepository.saveAll(changed);
+
+        long lastId = chunk.get(chunk.size() - 1).getId();
+        return new long[]{chunk.size(), malformed, lastId};
+    }
+
+    private static boolean isSamePeriod(MilkRecord record, int period) {
+        try {
+            return NepaliPeriod.parse(record.getNepaliMonth(), record.getNepaliYear()) == period;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Give every changed row a fresh change_seq so synced clients pick up the backfilled values.
+     */
+    private void assignChangeSequences(List<MilkRecord> chunk) {
+        Map<Long, List<MilkRecord>> byCenter = chunk.stream()
+                .collect(Collectors.groupingBy(MilkRecord::getDairyCenterId));
+        byCenter.forEach((dairyCenterId, records) -> {
+            long next = changeSequenceAllocator.reserve(dairyCenterId, records.size());
+            for (MilkRecord record : records) {
+                record.setChangeSeq(next++);
+            }
+        });
+    }
+}
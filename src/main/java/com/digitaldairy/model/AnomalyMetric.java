@@ -0,0 +1,10 @@
+package com.digitaldairy.model;
+
+/**
+ * AnomalyMetric: Measured value an ingest-time anomaly was flagged on.
+ */
+public enum AnomalyMetric {
+    VOLUME,
+    FAT,
+    SNF
+}
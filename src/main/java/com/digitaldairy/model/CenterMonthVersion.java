@@ -0,0 +1,44 @@
+package com.digitaldairy.model;
+
+/**
+ * CenterMonthVersion: Monotonic change counter per (dairy center, Nepali month), the source of the
+ * center-month records ETag. Bumped in the same transaction as every change to the month's records or
+ * summaries; never reset, so an ETag is never handed out twice for different content.
+ */
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+@Entity
+@Table(name = "center_month_versions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_center_month_version", columnNames = {"dairy_center_id", "nepali_period"})
+})
+@Data
+public class CenterMonthVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "dairy_center_id", nullable = false)
+    private Long dairyCenterId;
+
+    @Column(name = "nepali_period", nullable = false)
+    private Integer nepaliPeriod;  // yyyymm (BS)
+
+    @Column(nullable = false)
+    private long version = 1;
+
+    public CenterMonthVersion() {}
+
+    public CenterMonthVersion(Long dairyCenterId, Integer nepaliPeriod) {
+        this.dairyCenterId = dairyCenterId;
+        this.nepaliPeriod = nepaliPeriod;
+    }
+}
@@ -0,0 +1,77 @@
+package com.digitaldairy.model;
+
+/**
+ * DailyShiftRollup: Per-(dairy center, collection date, shift) totals maintained at CSV ingestion.
+ * Serves the staff daily dashboard from at most two rows instead of scanning the day's records.
+ * Fat/SNF stored as volume-weighted sums; averages derived on read.
+ */
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "daily_shift_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_center_date_shift",
+                columnNames = {"dairy_center_id", "collection_date", "shift"})
+})
+@Data
+@EntityListeners(AuditingEntityListener.class)
+public class DailyShiftRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "dairy_center_id", nullable = false)
+    private Long dairyCenterId;
+
+    @Column(name = "collection_date", nullable = false)
+    private LocalDate collectionDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private MilkShift shift;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    @Column(name = "total_liters", nullable = false)
+    private double totalLiters;
+
+    @Column(name = "weighted_fat", nullable = false)
+    private double weightedFat;  // Σ fat% × liters
+
+    @Column(name = "weighted_snf", nullable = false)
+    private double weightedSnf;  // Σ snf × liters
+
+    @Column(name = "total_amount", nullable = false)
+    private double totalAmount;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public DailyShiftRollup() {}
+
+    public DailyShiftRollup(Long dairyCenterId, LocalDate collectionDate, MilkShift shift,
+                            long recordCount, double totalLiters, double weightedFat,
+                            double weightedSnf, double totalAmount) {
+        this.dairyCenterId = dairyCenterId;
+        this.collectionDate = collectionDate;
+        this.shift = shift;
+        this.recordCount = recordCount;
+        this.totalLiters = totalLiters;
+        this.weightedFat = weightedFat;
+        this.weightedSnf = weightedSnf;
+        this.totalAmount = totalAmount;
+    }
+}
@@ -4,6 +4,7 @@ package com.digitaldairy.model;
  * DairyStaff: Separate JPA entity for dairy center staff/admins (no farmer-specific fields).
  * Fields: name, phone (login key), password (hashed), dairyCenterId (FK to DairyCenter for tenancy).
  * Auditing for timestamps. Manual creation via Postman/DB.
+ * Unique (phone, dairyCenterId); its phone prefix serves login across centers.
  */
 
 import jakarta.persistence.*;
@@ -15,7 +16,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "dairy_staff")
+@Table(name = "dairy_staff", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_staff_phone_center", columnNames = {"phone", "dairy_center_id"})
+})
 @Data
 @EntityListeners(AuditingEntityListener.class)
 public class DairyStaff {
@@ -27,7 +30,7 @@ public class DairyStaff {
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = false)  // Unique per tenant via service
+    @Column(nullable = false, unique = false)  // Unique per tenant (uk_staff_phone_center)
     private String phone;
 
     @Column(nullable = false)
@@ -5,6 +5,7 @@ package com.digitaldairy.model;
  * Fields: name, phone (login key), password (hashed), dairyGivenId (composite with phone for uniqueness),
  * fcmToken (for pushes), dairyCenterId (FK to DairyCenter for tenancy).
  * Auditing for timestamps. Self-reg via service.
+ * Unique (phone, dairyGivenId, dairyCenterId); its (phone, dairyGivenId) prefix serves cross-tenant login.
  */
 
 import jakarta.persistence.*;
@@ -16,7 +17,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "farmers")
+@Table(name = "farmers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_farmer_phone_given_id_center",
+                columnNames = {"phone", "dairy_given_id", "dairy_center_id"})
+})
 @Data
 @EntityListeners(AuditingEntityListener.class)
 public class Farmer {
@@ -28,7 +32,7 @@ public class Farmer {
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = false)  // Unique composite with dairyGivenId via service
+    @Column(nullable = false, unique = false)  // Unique composite with dairyGivenId + tenant (uk_farmer_phone_given_id_center)
     private String phone;
 
     @Column(nullable = false)
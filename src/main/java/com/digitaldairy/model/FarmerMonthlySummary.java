@@ -0,0 +1,80 @@
+package com.digitaldairy.model;
+
+/**
+ * FarmerMonthlySummary: Per-(dairy center, farmer, Nepali month) totals maintained at CSV ingestion.
+ * Lets the farmer app read one row instead of summing every MilkRecord of the month.
+ * Fat/SNF stored as volume-weighted sums; averages derived on read.
+ * Rebuildable from milk_records via MilkRecordService.rebuildMonthlySummaries.
+ * dataVersion is bumped on every change to the farmer's month and backs the records ETag.
+ */
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "farmer_monthly_summaries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_summary_center_member_period",
+                columnNames = {"dairy_center_id", "member_code", "nepali_period"})
+})
+@Data
+@EntityListeners(AuditingEntityListener.class)
+public class FarmerMonthlySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "dairy_center_id", nullable = false)
+    private Long dairyCenterId;
+
+    @Column(name = "member_code", nullable = false)
+    private String memberCode;  // Farmer's dairyGivenId
+
+    @Column(name = "nepali_period", nullable = false)
+    private Integer nepaliPeriod;  // yyyymm (BS)
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+
+    @Column(name = "total_liters", nullable = false)
+    private double totalLiters;
+
+    @Column(name = "weighted_fat", nullable = false)
+    private double weightedFat;  // Σ fat% × liters
+
+    @Column(name = "weighted_snf", nullable = false)
+    private double weightedSnf;  // Σ snf × liters
+
+    @Column(name = "total_amount", nullable = false)
+    private double totalAmount;
+
+    @Column(name = "data_version", nullable = false)
+    private long dataVersion = 1;  // Monotonic change counter (ETag source)
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public FarmerMonthlySummary() {}
+
+    public FarmerMonthlySummary(Long dairyCenterId, String memberCode, Integer nepaliPeriod,
+                                long recordCount, double totalLiters, double weightedFat,
+                                double weightedSnf, double totalAmount) {
+        this.dairyCenterId = dairyCenterId;
+        this.memberCode = memberCode;
+        this.nepaliPeriod = nepaliPeriod;
+        this.recordCount = recordCount;
+        this.totalLiters = totalLiters;
+        this.weightedFat = weightedFat;
+        this.weightedSnf = weightedSnf;
+        this.totalAmount = totalAmount;
+    }
+}
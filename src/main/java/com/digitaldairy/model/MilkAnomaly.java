@@ -0,0 +1,78 @@
+package com.digitaldairy.model;
+
+/**
+ * MilkAnomaly: A milk record value flagged at CSV ingestion as far outside the farmer's recent pattern.
+ * expectedValue/zScore come from the farmer's per-shift exponentially weighted mean and variance.
+ * Possible adulteration or analyzer faults for staff to review.
+ */
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Entity
+@Table(name = "milk_anomalies", indexes = {
+        @Index(name = "idx_anomaly_center_date", columnList = "dairy_center_id, collection_date")
+})
+@Data
+@EntityListeners(AuditingEntityListener.class)
+public class MilkAnomaly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "dairy_center_id", nullable = false)
+    private Long dairyCenterId;
+
+    @Column(name = "member_code", nullable = false)
+    private String memberCode;
+
+    @Column(name = "collection_date", nullable = false)
+    private LocalDate collectionDate;
+
+    @Column(name = "collection_time")
+    private LocalTime collectionTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private MilkShift shift;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private AnomalyMetric metric;
+
+    @Column(name = "observed_value", nullable = false)
+    private double observedValue;
+
+    @Column(name = "expected_value", nullable = false)
+    private double expectedValue;
+
+    @Column(name = "z_score", nullable = false)
+    private double zScore;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    public MilkAnomaly() {}
+
+    public MilkAnomaly(Long dairyCenterId, String memberCode, LocalDate collectionDate, LocalTime collectionTime,
+                       MilkShift shift, AnomalyMetric metric, double observedValue, double expectedValue,
+                       double zScore) {
+        this.dairyCenterId = dairyCenterId;
+        this.memberCode = memberCode;
+        this.collectionDate = collectionDate;
+        this.collectionTime = collectionTime;
+        this.shift = shift;
+        this.metric = metric;
+        this.observedValue = observedValue;
+        this.expectedValue = expectedValue;
+        this.zScore = zScore;
+    }
+}
@@ -0,0 +1,65 @@
+package com.digitaldairy.model;
+
+/**
+ * MilkArchive: Registry row for one dairy center's closed fiscal year moved out of milk_records
+ * into a compressed columnar file (see MilkArchiveFile). Reads of its periods are served from the file.
+ * The row is written in the same transaction that deletes the archived milk records.
+ */
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "milk_archives", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_archive_center_fiscal_year", columnNames = {"dairy_center_id", "fiscal_year"})
+})
+@Data
+@NoArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class MilkArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "dairy_center_id", nullable = false)
+    private Long dairyCenterId;
+
+    @Column(name = "fiscal_year", nullable = false)
+    private Integer fiscalYear;  // Starting BS year, e.g. 2081 for FY 2081/82
+
+    @Column(name = "from_period", nullable = false)
+    private Integer fromPeriod;  // yyyymm, Shrawan of fiscalYear
+
+    @Column(name = "to_period", nullable = false)
+    private Integer toPeriod;  // yyyymm, Asar of fiscalYear + 1
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "record_count", nullable = false)
+    private Long recordCount;
+
+    @Column(name = "file_bytes", nullable = false)
+    private Long fileBytes;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public MilkArchive(Long dairyCenterId, Integer fiscalYear, Integer fromPeriod, Integer toPeriod,
+                       String filePath, Long recordCount, Long fileBytes) {
+        this.dairyCenterId = dairyCenterId;
+        this.fiscalYear = fiscalYear;
+        this.fromPeriod = fromPeriod;
+        this.toPeriod = toPeriod;
+        this.filePath = filePath;
+        this.recordCount = recordCount;
+        this.fileBytes = fileBytes;
+    }
+}
@@ -4,6 +4,10 @@ package com.digitaldairy.model;
  * MilkRecord: JPA entity for milk collection records.
  * Stores daily milk collection data from CSV uploads.
  * Uses memberCode (dairyGivenId) to link to Farmer - no direct FK needed.
+ * nepaliPeriod is the normalized BS month key (yyyymm); month reads scan collection_date over the
+ * period's Gregorian range (BikramSambat), summaries and payments group by nepaliPeriod.
+ * shift is classified from collectionTime at ingestion (morning/evening).
+ * changeSeq is the per-center change sequence backing delta sync (assigned on every write).
  */
 
 import jakarta.persistence.*;
@@ -17,7 +21,12 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "milk_records")
+@Table(name = "milk_records", indexes = {
+        @Index(name = "idx_milk_center_member_date", columnList = "dairy_center_id, member_code, collection_date"),
+        @Index(name = "idx_milk_center_date", columnList = "dairy_center_id, collection_date"),
+        @Index(name = "idx_milk_center_period", columnList = "dairy_center_id, nepali_period"),
+        @Index(name = "idx_milk_center_member_seq", columnList = "dairy_center_id, member_code, change_seq")
+})
 @Data
 @EntityListeners(AuditingEntityListener.class)
 public class MilkRecord {
@@ -38,9 +47,16 @@ public class MilkRecord {
     @Column(name = "nepali_year")
     private String nepaliYear;
 
+    @Column(name = "nepali_period")
+    private Integer nepaliPeriod;  // yyyymm in Bikram Sambat, e.g. 208207 (see NepaliPeriod)
+
     @Column(name = "collection_time", nullable = false)
     private LocalTime collectionTime;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private MilkShift shift;
+
     @Column(name = "member_code", nullable = false)
     private String memberCode;  // Maps to Farmer's dairyGivenId
 
@@ -62,6 +78,9 @@ public class MilkRecord {
     @Column(length = 500)
     private String remarks;
 
+    @Column(name = "change_seq")
+    private Long changeSeq;  // Per-center monotonic change sequence (delta sync cursor)
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "dairy_center_id", nullable = false)
     private DairyCenter dairyCenter;
@@ -0,0 +1,19 @@
+package com.digitaldairy.model;
+
+/**
+ * MilkShift: Collection shift of a milk record, classified from Coll_time at ingestion.
+ * Analyzer uploads carry both shifts per day; anything before noon is the morning shift.
+ */
+
+import java.time.LocalTime;
+
+public enum MilkShift {
+    MORNING,
+    EVENING;
+
+    private static final LocalTime EVENING_START = LocalTime.NOON;
+
+    public static MilkShift fromCollectionTime(LocalTime collectionTime) {
+        return collectionTime.isBefore(EVENING_START) ? MORNING : EVENING;
+    }
+}
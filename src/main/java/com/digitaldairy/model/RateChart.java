@@ -0,0 +1,58 @@
+package com.digitaldairy.model;
+
+/**
+ * RateChart: Per-dairy-center milk price chart (fat × SNF grid of rates per liter).
+ * One chart per center; anchors must form a complete grid over their fat and SNF axes.
+ * Compiled into a flat lookup table by RateChartEngine and applied during CSV ingestion.
+ */
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "rate_charts")
+@Data
+@EntityListeners(AuditingEntityListener.class)
+public class RateChart {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "dairy_center_id", nullable = false, unique = true)
+    private Long dairyCenterId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RateChartMode mode = RateChartMode.VERIFY;
+
+    @Column(name = "rate_tolerance", nullable = false)
+    private double rateTolerance = 0.01;  // Allowed |csv rate - chart rate|
+
+    @Column(name = "amount_tolerance", nullable = false)
+    private double amountTolerance = 0.5;  // Allowed |csv amount - liters × chart rate|
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "rate_chart_points", joinColumns = @JoinColumn(name = "rate_chart_id"))
+    private List<RateChartPoint> points = new ArrayList<>();
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public RateChart() {}
+
+    public RateChart(Long dairyCenterId) {
+        this.dairyCenterId = dairyCenterId;
+    }
+}
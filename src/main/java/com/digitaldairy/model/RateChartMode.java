@@ -0,0 +1,11 @@
+package com.digitaldairy.model;
+
+/**
+ * RateChartMode: How CSV ingestion applies a dairy center's rate chart.
+ * VERIFY - keep analyzer Rate/Amount, flag rows that disagree with the chart.
+ * RECOMPUTE - replace Rate/Amount with chart values, flag rows that were changed.
+ */
+public enum RateChartMode {
+    VERIFY,
+    RECOMPUTE
+}
@@ -0,0 +1,28 @@
+package com.digitaldairy.model;
+
+/**
+ * RateChartPoint: One anchor of a rate chart grid (fat %, SNF → rate per liter).
+ * Rates between anchors are bilinearly interpolated when the chart is compiled.
+ */
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateChartPoint {
+
+    @Column(name = "fat_percentage", nullable = false)
+    private double fatPercentage;
+
+    @Column(nullable = false)
+    private double snf;
+
+    @Column(nullable = false)
+    private double rate;
+}
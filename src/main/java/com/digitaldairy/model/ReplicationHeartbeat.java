@@ -0,0 +1,26 @@
+package com.digitaldairy.model;
+
+/**
+ * ReplicationHeartbeat: Single-row table the primary stamps every check interval (ReplicaLagMonitor).
+ * Reading the stamp on a replica gives its replication lag. Unused when replicas are disabled.
+ */
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Table(name = "replication_heartbeat")
+@Data
+public class ReplicationHeartbeat {
+
+    public static final long ROW_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "beat_millis", nullable = false)
+    private Long beatMillis;  // Primary's wall clock at the last beat (epoch millis)
+}
@@ -0,0 +1,32 @@
+package com.digitaldairy.model;
+
+/**
+ * SyncSequence: Per-dairy-center change sequence for milk record delta sync.
+ * Ingestion reserves a block of sequence numbers under a row lock held until the upload commits,
+ * so change_seq values become visible in increasing order and a sync cursor never skips rows.
+ */
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Table(name = "sync_sequences")
+@Data
+public class SyncSequence {
+
+    @Id
+    @Column(name = "dairy_center_id")
+    private Long dairyCenterId;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    public SyncSequence() {}
+
+    public SyncSequence(Long dairyCenterId) {
+        this.dairyCenterId = dairyCenterId;
+    }
+}
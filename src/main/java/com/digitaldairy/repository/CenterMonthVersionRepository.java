@@ -0,0 +1,39 @@
+package com.digitaldairy.repository;
+
+/**
+ * CenterMonthVersionRepository: Spring Data JPA repo for center-month change counters (ETag source).
+ * bump() returns the number of rows updated; months without a row yet are inserted by the caller.
+ */
+
+import com.digitaldairy.model.CenterMonthVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CenterMonthVersionRepository extends JpaRepository<CenterMonthVersion, Long> {
+
+    // ETag: version of a whole center month (unique-index probe)
+    @Query("SELECT v.version FROM CenterMonthVersion v " +
+            "WHERE v.dairyCenterId = :dairyCenterId AND v.nepaliPeriod = :nepaliPeriod")
+    Optional<Long> findVersion(@Param("dairyCenterId") Long dairyCenterId,
+                               @Param("nepaliPeriod") Integer nepaliPeriod);
+
+    // Months of a center that already have a counter
+    @Query("SELECT v.nepaliPeriod FROM CenterMonthVersion v " +
+            "WHERE v.dairyCenterId = :dairyCenterId AND v.nepaliPeriod IN :nepaliPeriods")
+    List<Integer> findExistingPeriods(@Param("dairyCenterId") Long dairyCenterId,
+                                      @Param("nepaliPeriods") Collection<Integer> nepaliPeriods);
+
+    // Increment the counters of existing months
+    @Modifying
+    @Query("UPDATE CenterMonthVersion v SET v.version = v.version + 1 " +
+            "WHERE v.dairyCenterId = :dairyCenterId AND v.nepaliPeriod IN :nepaliPeriods")
+    int bump(@Param("dairyCenterId") Long dairyCenterId, @Param("nepaliPeriods") Collection<Integer> nepaliPeriods);
+}
@@ -0,0 +1,49 @@
+package com.digitaldairy.repository;
+
+/**
+ * DailyShiftRollupRepository: Spring Data JPA repo for per-shift daily collection totals.
+ * accumulate() adds a batch delta in one UPDATE; returns 0 when the row does not exist yet
+ * (caller inserts it instead). Rebuilds delete a day's rows and re-derive them from milk_records.
+ */
+
+import com.digitaldairy.model.DailyShiftRollup;
+import com.digitaldairy.model.MilkShift;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyShiftRollupRepository extends JpaRepository<DailyShiftRollup, Long> {
+
+    // Daily dashboard: at most one row per shift
+    List<DailyShiftRollup> findByDairyCenterIdAndCollectionDateOrderByShiftAsc(Long dairyCenterId, LocalDate collectionDate);
+
+    // Drop a day's rollups before rebuilding them from raw records
+    @Modifying
+    @Query("DELETE FROM DailyShiftRollup r WHERE r.dairyCenterId = :dairyCenterId AND r.collectionDate = :collectionDate")
+    int deleteByDairyCenterIdAndCollectionDate(@Param("dairyCenterId") Long dairyCenterId,
+                                               @Param("collectionDate") LocalDate collectionDate);
+
+    // Add batch delta to an existing rollup row
+    @Modifying
+    @Query("UPDATE DailyShiftRollup r SET r.recordCount = r.recordCount + :recordCount, " +
+            "r.totalLiters = r.totalLiters + :totalLiters, r.weightedFat = r.weightedFat + :weightedFat, " +
+            "r.weightedSnf = r.weightedSnf + :weightedSnf, r.totalAmount = r.totalAmount + :totalAmount, " +
+            "r.updatedAt = :now " +
+            "WHERE r.dairyCenterId = :dairyCenterId AND r.collectionDate = :collectionDate AND r.shift = :shift")
+    int accumulate(@Param("dairyCenterId") Long dairyCenterId,
+                   @Param("collectionDate") LocalDate collectionDate,
+                   @Param("shift") MilkShift shift,
+                   @Param("recordCount") long recordCount,
+                   @Param("totalLiters") double totalLiters,
+                   @Param("weightedFat") double weightedFat,
+                   @Param("weightedSnf") double weightedSnf,
+                   @Param("totalAmount") double totalAmount,
+                   @Param("now") LocalDateTime now);
+}
@@ -12,8 +12,11 @@ import com.digitaldairy.model.DairyStaff;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -22,6 +25,14 @@ public interface DairyStaffRepository extends JpaRepository<DairyStaff, Long> {
     // For login: Phone + tenant
     Optional<DairyStaff> findByPhoneAndDairyCenterId(String phone, Long dairyCenterId);
 
+    // Login with a center hint: one unique-index probe, dairy center fetched in the same query
+    @Query("SELECT s FROM DairyStaff s JOIN FETCH s.dairyCenter WHERE s.phone = :phone AND s.dairyCenterId = :dairyCenterId")
+    Optional<DairyStaff> findLoginStaff(@Param("phone") String phone, @Param("dairyCenterId") Long dairyCenterId);
+
+    // Login without a hint: every center account of the phone (index range on the phone prefix), oldest first
+    @Query("SELECT s FROM DairyStaff s JOIN FETCH s.dairyCenter WHERE s.phone = :phone ORDER BY s.id")
+    List<DairyStaff> findLoginCandidates(@Param("phone") String phone);
+
     // For onboarding validation: Unique phone per tenant
     boolean existsByPhoneAndDairyCenterId(String phone, Long dairyCenterId);
 
@@ -0,0 +1,80 @@
+package com.digitaldairy.repository;
+
+/**
+ * FarmerMonthlySummaryRepository: Spring Data JPA repo for per-farmer monthly totals.
+ * accumulate() adds a batch delta in one UPDATE; returns 0 when the row does not exist yet
+ * (caller inserts it instead). Every change bumps dataVersion, which backs the farmer-month ETag
+ * (center-month ETags come from CenterMonthVersionRepository).
+ */
+
+import com.digitaldairy.model.FarmerMonthlySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FarmerMonthlySummaryRepository extends JpaRepository<FarmerMonthlySummary, Long> {
+
+    // Single-row read for the farmer app's monthly view
+    Optional<FarmerMonthlySummary> findByDairyCenterIdAndMemberCodeAndNepaliPeriod(
+            Long dairyCenterId, String memberCode, Integer nepaliPeriod);
+
+    // All farmer summaries of a center for one month
+    List<FarmerMonthlySummary> findByDairyCenterIdAndNepaliPeriod(Long dairyCenterId, Integer nepaliPeriod);
+
+    // Add batch delta to an existing summary row
+    @Modifying
+    @Query("UPDATE FarmerMonthlySummary s SET s.recordCount = s.recordCount + :recordCount, " +
+            "s.totalLiters = s.totalLiters + :totalLiters, s.weightedFat = s.weightedFat + :weightedFat, " +
+            "s.weightedSnf = s.weightedSnf + :weightedSnf, s.totalAmount = s.totalAmount + :totalAmount, " +
+            "s.dataVersion = s.dataVersion + 1, s.updatedAt = :now " +
+            "WHERE s.dairyCenterId = :dairyCenterId AND s.memberCode = :memberCode AND s.nepaliPeriod = :nepaliPeriod")
+    int accumulate(@Param("dairyCenterId") Long dairyCenterId,
+                   @Param("memberCode") String memberCode,
+                   @Param("nepaliPeriod") Integer nepaliPeriod,
+                   @Param("recordCount") long recordCount,
+                   @Param("totalLiters") double totalLiters,
+                   @Param("weightedFat") double weightedFat,
+                   @Param("weightedSnf") double weightedSnf,
+                   @Param("totalAmount") double totalAmount,
+                   @Param("now") LocalDateTime now);
+
+    // ETag: version of one farmer's month (cheap unique-index probe, no milk_records access)
+    @Query("SELECT s.dataVersion FROM FarmerMonthlySummary s " +
+            "WHERE s.dairyCenterId = :dairyCenterId AND s.memberCode = :memberCode AND s.nepaliPeriod = :nepaliPeriod")
+    Optional<Long> findDataVersion(@Param("dairyCenterId") Long dairyCenterId,
+                                   @Param("memberCode") String memberCode,
+                                   @Param("nepaliPeriod") Integer nepaliPeriod);
+
+    // Farmer registration changes the farmer name shown in responses: bump all of the member's months
+    @Modifying
+    @Query("UPDATE FarmerMonthlySummary s SET s.dataVersion = s.dataVersion + 1 " +
+            "WHERE s.dairyCenterId = :dairyCenterId AND s.memberCode = :memberCode")
+    int bumpMemberVersions(@Param("dairyCenterId") Long dairyCenterId, @Param("memberCode") String memberCode);
+
+    // Months in which a member has records (to bump their center-month versions as well)
+    @Query("SELECT s.nepaliPeriod FROM FarmerMonthlySummary s " +
+            "WHERE s.dairyCenterId = :dairyCenterId AND s.memberCode = :memberCode")
+    List<Integer> findMemberPeriods(@Param("dairyCenterId") Long dairyCenterId, @Param("memberCode") String memberCode);
+
+    // Per-farmer totals over a period range, summed from monthly summaries (leaderboards)
+    @Query("SELECT s.memberCode AS memberCode, SUM(s.recordCount) AS recordCount, SUM(s.totalLiters) AS totalLiters, " +
+            "SUM(s.weightedFat) AS weightedFat, SUM(s.weightedSnf) AS weightedSnf, SUM(s.totalAmount) AS totalAmount " +
+            "FROM FarmerMonthlySummary s WHERE s.dairyCenterId = :dairyCenterId " +
+            "AND s.nepaliPeriod BETWEEN :fromPeriod AND :toPeriod GROUP BY s.memberCode")
+    List<MilkRecordRepository.MemberTotalsRow> sumByMemberForPeriodRange(@Param("dairyCenterId") Long dairyCenterId,
+                                                                         @Param("fromPeriod") Integer fromPeriod,
+                                                                         @Param("toPeriod") Integer toPeriod);
+
+    // Rebuild: drop a center's summaries for one month
+    @Modifying
+    @Query("DELETE FROM FarmerMonthlySummary s WHERE s.dairyCenterId = :dairyCenterId AND s.nepaliPeriod = :nepaliPeriod")
+    int deleteByDairyCenterIdAndNepaliPeriod(@Param("dairyCenterId") Long dairyCenterId,
+                                             @Param("nepaliPeriod") Integer nepaliPeriod);
+}
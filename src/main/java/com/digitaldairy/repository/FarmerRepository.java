@@ -22,9 +22,24 @@ public interface FarmerRepository extends JpaRepository<Farmer, Long> {
     // For login: Composite phone + dairyGivenId + tenant
     Optional<Farmer> findByPhoneAndDairyGivenIdAndDairyCenterId(String phone, String dairyGivenId, Long dairyCenterId);
 
+    // Login with a center hint: one unique-index probe, dairy center fetched in the same query
+    @Query("SELECT f FROM Farmer f JOIN FETCH f.dairyCenter " +
+            "WHERE f.phone = :phone AND f.dairyGivenId = :dairyGivenId AND f.dairyCenterId = :dairyCenterId")
+    Optional<Farmer> findLoginFarmer(@Param("phone") String phone,
+                                     @Param("dairyGivenId") String dairyGivenId,
+                                     @Param("dairyCenterId") Long dairyCenterId);
+
+    // Login without a hint: index range on the (phone, dairy_given_id) prefix, usually one row; oldest first
+    @Query("SELECT f FROM Farmer f JOIN FETCH f.dairyCenter " +
+            "WHERE f.phone = :phone AND f.dairyGivenId = :dairyGivenId ORDER BY f.id")
+    List<Farmer> findLoginCandidates(@Param("phone") String phone, @Param("dairyGivenId") String dairyGivenId);
+
     // For reg validation: Check unique phone + dairyGivenId per tenant
     boolean existsByPhoneAndDairyGivenIdAndDairyCenterId(String phone, String dairyGivenId, Long dairyCenterId);
 
+    // For claims-based auth: account still exists at the token's dairy (AccountStatusCache)
+    boolean existsByPhoneAndDairyCenterId(String phone, Long dairyCenterId);
+
     // For quick lookup by dairyGivenId + tenant (e.g., milk records)
     Optional<Farmer> findByDairyGivenIdAndDairyCenterId(String dairyGivenId, Long dairyCenterId);
 
@@ -0,0 +1,20 @@
+package com.digitaldairy.repository;
+
+/**
+ * MilkAnomalyRepository: Spring Data JPA repo for ingest-time milk anomalies (staff review list).
+ */
+
+import com.digitaldairy.model.MilkAnomaly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MilkAnomalyRepository extends JpaRepository<MilkAnomaly, Long> {
+
+    // Anomalies for a center within a collection date range, newest first
+    List<MilkAnomaly> findByDairyCenterIdAndCollectionDateBetweenOrderByCollectionDateDescCollectionTimeDesc(
+            Long dairyCenterId, LocalDate fromDate, LocalDate toDate);
+}
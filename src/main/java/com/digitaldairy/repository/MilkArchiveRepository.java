@@ -0,0 +1,24 @@
+package com.digitaldairy.repository;
+
+/**
+ * MilkArchiveRepository: Spring Data JPA repo for the registry of archived fiscal years (one file each).
+ */
+
+import com.digitaldairy.model.MilkArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MilkArchiveRepository extends JpaRepository<MilkArchive, Long> {
+
+    // Archive covering a period (fromPeriod <= period <= toPeriod)
+    Optional<MilkArchive> findFirstByDairyCenterIdAndFromPeriodLessThanEqualAndToPeriodGreaterThanEqual(
+            Long dairyCenterId, Integer fromPeriod, Integer toPeriod);
+
+    List<MilkArchive> findByDairyCenterId(Long dairyCenterId);
+
+    boolean existsByDairyCenterIdAndFiscalYear(Long dairyCenterId, Integer fiscalYear);
+}
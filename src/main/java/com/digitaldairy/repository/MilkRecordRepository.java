@@ -2,31 +2,59 @@ package com.digitaldairy.repository;
 
 /**
  * MilkRecordRepository: Spring Data JPA repository for MilkRecord.
- * Query methods for finding records by farmer, Nepali month/year, dairy center.
+ * Query methods for finding records by farmer, Nepali period (yyyymm), dairy center.
+ * Month reads scan collection_date over the period's Gregorian range (see BikramSambat);
+ * per-month aggregates use the integer nepali_period key, which is derived from collection_date, so both
+ * select the same rows. Both are indexed.
+ * Sparse-fieldset projections live in MilkRecordRepositoryCustom.
+ * Closed fiscal years are streamed out and bulk-deleted by MilkArchiveJob.
  * Tenant isolation auto-applied via TenantConfig AOP.
  */
 
 import com.digitaldairy.model.MilkRecord;
+import com.digitaldairy.model.MilkShift;
+import com.digitaldairy.util.MilkArchiveRow;
+import com.digitaldairy.util.MilkColumnRow;
+import com.digitaldairy.util.MilkExportRow;
+import com.digitaldairy.util.MilkValues;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface MilkRecordRepository extends JpaRepository<MilkRecord, Long> {
+public interface MilkRecordRepository extends JpaRepository<MilkRecord, Long>, MilkRecordRepositoryCustom {
 
     // Find records by member code and dairy center (all records for a farmer)
     List<MilkRecord> findByMemberCodeAndDairyCenterId(String memberCode, Long dairyCenterId);
 
-    // Find records by member code, dairy center, and Nepali month/year (for mobile app)
-    List<MilkRecord> findByMemberCodeAndDairyCenterIdAndNepaliMonthAndNepaliYear(
-            String memberCode, Long dairyCenterId, String nepaliMonth, String nepaliYear);
+    // Find records by member code, dairy center, and Nepali period (fallback for periods outside the BS table)
+    List<MilkRecord> findByMemberCodeAndDairyCenterIdAndNepaliPeriod(
+            String memberCode, Long dairyCenterId, Integer nepaliPeriod);
 
-    // Find records by dairy center and Nepali month/year (for staff reports)
-    List<MilkRecord> findByDairyCenterIdAndNepaliMonthAndNepaliYear(
-            Long dairyCenterId, String nepaliMonth, String nepaliYear);
+    // Find records by dairy center and Nepali period (fallback for periods outside the BS table)
+    List<MilkRecord> findByDairyCenterIdAndNepaliPeriod(Long dairyCenterId, Integer nepaliPeriod);
+
+    // A farmer's records in a collection date range, i.e. one BS month (for mobile app)
+    List<MilkRecord> findByMemberCodeAndDairyCenterIdAndCollectionDateBetween(
+            String memberCode, Long dairyCenterId, LocalDate from, LocalDate to);
+
+    // A center's records in a collection date range, i.e. one BS month (for staff reports)
+    List<MilkRecord> findByDairyCenterIdAndCollectionDateBetween(Long dairyCenterId, LocalDate from, LocalDate to);
+
+    // Delta sync: a farmer's rows changed after the cursor, in change order (limit via Pageable)
+    List<MilkRecord> findByDairyCenterIdAndMemberCodeAndChangeSeqGreaterThanOrderByChangeSeqAsc(
+            Long dairyCenterId, String memberCode, Long changeSeq, Pageable pageable);
 
     // Find records by dairy center and date (for daily reports)
     List<MilkRecord> findByDairyCenterIdAndCollectionDate(Long dairyCenterId, LocalDate collectionDate);
@@ -34,4 +62,167 @@ public interface MilkRecordRepository extends JpaRepository<MilkRecord, Long> {
     // Check if record exists (for duplicate prevention during CSV upload)
     boolean existsByMemberCodeAndCollectionDateAndCollectionTimeAndDairyCenterId(
             String memberCode, LocalDate collectionDate, LocalTime collectionTime, Long dairyCenterId);
-}
\ No newline at end of file
+
+    // Per-farmer totals for one month, computed in the database (for summary rebuilds)
+    @Query("SELECT m.memberCode AS memberCode, COUNT(m) AS recordCount, SUM(m.volumeLiters) AS totalLiters, " +
+            "SUM(m.fatPercentage * m.volumeLiters) AS weightedFat, SUM(m.snf * m.volumeLiters) AS weightedSnf, " +
+            "SUM(m.amount) AS totalAmount " +
+            "FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId AND m.nepaliPeriod = :nepaliPeriod " +
+            "GROUP BY m.memberCode")
+    List<MemberTotalsRow> sumByMemberForPeriod(@Param("dairyCenterId") Long dairyCenterId,
+                                               @Param("nepaliPeriod") Integer nepaliPeriod);
+
+    // Per-shift totals for one collection date, computed in the database (for shift rollup rebuilds)
+    @Query("SELECT m.shift AS shift, COUNT(m) AS recordCount, SUM(m.volumeLiters) AS totalLiters, " +
+            "SUM(m.fatPercentage * m.volumeLiters) AS weightedFat, SUM(m.snf * m.volumeLiters) AS weightedSnf, " +
+            "SUM(m.amount) AS totalAmount " +
+            "FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId AND m.collectionDate = :collectionDate " +
+            "AND m.shift IS NOT NULL GROUP BY m.shift")
+    List<ShiftTotalsRow> sumByShiftForDate(@Param("dairyCenterId") Long dairyCenterId,
+                                           @Param("collectionDate") LocalDate collectionDate);
+
+    // Measured values only (no entity hydration) for bulk aggregation, e.g. payment statements
+    @Query("SELECT new com.digitaldairy.util.MilkValues(m.memberCode, m.volumeLiters, m.fatPercentage, m.snf, m.amount) " +
+            "FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId AND m.nepaliPeriod = :nepaliPeriod")
+    List<MilkValues> findValuesByDairyCenterIdAndNepaliPeriod(@Param("dairyCenterId") Long dairyCenterId,
+                                                             @Param("nepaliPeriod") Integer nepaliPeriod);
+
+    // All of a center's rows as flat column values in collection order, streamed (caller must be in a transaction and close it)
+    @Query("SELECT new com.digitaldairy.util.MilkColumnRow(m.memberCode, m.collectionDate, m.nepaliPeriod, " +
+            "m.shift, m.changeSeq, m.volumeLiters, m.fatPercentage, m.snf, m.rate, m.amount) " +
+            "FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId " +
+            "ORDER BY m.collectionDate, m.collectionTime, m.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<MilkColumnRow> streamColumnRows(@Param("dairyCenterId") Long dairyCenterId);
+
+    // Export rows for a collection date range grouped by farmer, streamed (caller must be in a transaction and close it)
+    @Query("SELECT new com.digitaldairy.util.MilkExportRow(m.memberCode, m.collectionDate, m.nepaliDate, " +
+            "m.collectionTime, m.shift, m.volumeLiters, m.fatPercentage, m.snf, m.rate, m.amount) " +
+            "FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId AND m.collectionDate BETWEEN :from AND :to " +
+            "ORDER BY m.memberCode, m.collectionDate, m.collectionTime")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<MilkExportRow> streamExportRows(@Param("dairyCenterId") Long dairyCenterId,
+                                           @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Export rows for a Nepali period (fallback for periods outside the BS table), streamed
+    @Query("SELECT new com.digitaldairy.util.MilkExportRow(m.memberCode, m.collectionDate, m.nepaliDate, " +
+            "m.collectionTime, m.shift, m.volumeLiters, m.fatPercentage, m.snf, m.rate, m.amount) " +
+            "FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId AND m.nepaliPeriod = :nepaliPeriod " +
+            "ORDER BY m.memberCode, m.collectionDate, m.collectionTime")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<MilkExportRow> streamExportRowsByPeriod(@Param("dairyCenterId") Long dairyCenterId,
+                                                   @Param("nepaliPeriod") Integer nepaliPeriod);
+
+    // Archival: centers holding rows older than a period
+    @Query("SELECT DISTINCT m.dairyCenterId FROM MilkRecord m WHERE m.nepaliPeriod < :beforePeriod")
+    List<Long> findDairyCenterIdsWithPeriodBefore(@Param("beforePeriod") Integer beforePeriod);
+
+    // Archival: a center's oldest period before a cutoff (null when none)
+    @Query("SELECT MIN(m.nepaliPeriod) FROM MilkRecord m " +
+            "WHERE m.dairyCenterId = :dairyCenterId AND m.nepaliPeriod < :beforePeriod")
+    Integer findMinPeriodBefore(@Param("dairyCenterId") Long dairyCenterId, @Param("beforePeriod") Integer beforePeriod);
+
+    // Archival: every column of a center's rows in a period range grouped by farmer, streamed
+    @Query("SELECT new com.digitaldairy.util.MilkArchiveRow(m.id, m.memberCode, m.collectionDate, m.nepaliDate, " +
+            "m.nepaliPeriod, m.collectionTime, m.shift, m.changeSeq, m.volumeLiters, m.fatPercentage, m.snf, " +
+            "m.rate, m.amount, m.remarks, m.createdAt) " +
+            "FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId " +
+            "AND m.nepaliPeriod BETWEEN :fromPeriod AND :toPeriod " +
+            "ORDER BY m.memberCode, m.collectionDate, m.collectionTime")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<MilkArchiveRow> streamArchiveRows(@Param("dairyCenterId") Long dairyCenterId,
+                                             @Param("fromPeriod") Integer fromPeriod,
+                                             @Param("toPeriod") Integer toPeriod);
+
+    // Archival: drop a center's rows in a period range once they are in an archive file
+    @Modifying
+    @Query("DELETE FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId " +
+            "AND m.nepaliPeriod BETWEEN :fromPeriod AND :toPeriod")
+    int deleteByDairyCenterIdAndPeriodRange(@Param("dairyCenterId") Long dairyCenterId,
+                                            @Param("fromPeriod") Integer fromPeriod,
+                                            @Param("toPeriod") Integer toPeriod);
+
+    // Backfill: next chunk of rows written before nepali_period/shift/change_seq existed
+    // (id cursor skips rows whose Nepali date is malformed)
+    @Query("SELECT m FROM MilkRecord m WHERE m.id > :afterId " +
+            "AND (m.nepaliPeriod IS NULL OR m.shift IS NULL OR m.changeSeq IS NULL) ORDER BY m.id ASC")
+    List<MilkRecord> findBackfillChunk(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Month-basis check: collection date span of each (center, period)
+    @Query("SELECT m.dairyCenterId AS dairyCenterId, m.nepaliPeriod AS nepaliPeriod, " +
+            "MIN(m.collectionDate) AS firstDate, MAX(m.collectionDate) AS lastDate " +
+            "FROM MilkRecord m WHERE m.nepaliPeriod IS NOT NULL GROUP BY m.dairyCenterId, m.nepaliPeriod")
+    List<PeriodSpanRow> findPeriodSpans();
+
+    // Month-basis fix: a center's rows filed under a period but collected outside its date range
+    @Query("SELECT m FROM MilkRecord m WHERE m.dairyCenterId = :dairyCenterId AND m.nepaliPeriod = :nepaliPeriod " +
+            "AND (m.collectionDate < :from OR m.collectionDate > :to)")
+    List<MilkRecord> findOutsidePeriodRange(@Param("dairyCenterId") Long dairyCenterId,
+                                            @Param("nepaliPeriod") Integer nepaliPeriod,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Summary backfill: (center, period) pairs whose rows are not all counted in farmer_monthly_summaries
+    // (rows written before the summaries existed)
+    @Query("SELECT m.dairyCenterId AS dairyCenterId, m.nepaliPeriod AS nepaliPeriod FROM MilkRecord m " +
+            "WHERE m.nepaliPeriod IS NOT NULL GROUP BY m.dairyCenterId, m.nepaliPeriod " +
+            "HAVING COUNT(m) <> (SELECT COALESCE(SUM(s.recordCount), 0) FROM FarmerMonthlySummary s " +
+            "WHERE s.dairyCenterId = m.dairyCenterId AND s.nepaliPeriod = m.nepaliPeriod)")
+    List<CenterPeriodRow> findPeriodsWithUnsummarizedRecords();
+
+    // (center, date) pairs whose record count differs from their shift rollups' (rollup backfill)
+    @Query("SELECT m.dairyCenterId AS dairyCenterId, m.collectionDate AS collectionDate FROM MilkRecord m " +
+            "WHERE m.shift IS NOT NULL GROUP BY m.dairyCenterId, m.collectionDate " +
+            "HAVING COUNT(m) <> (SELECT COALESCE(SUM(r.recordCount), 0) FROM DailyShiftRollup r " +
+            "WHERE r.dairyCenterId = m.dairyCenterId AND r.collectionDate = m.collectionDate)")
+    List<CenterDateRow> findDaysWithUnrolledRecords();
+
+    /**
+     * Projection for a (center, period) pair.
+     */
+    interface CenterPeriodRow {
+        Long getDairyCenterId();
+        Integer getNepaliPeriod();
+    }
+
+    /**
+     * Projection for a (center, collection date) pair.
+     */
+    interface CenterDateRow {
+        Long getDairyCenterId();
+        LocalDate getCollectionDate();
+    }
+
+    /**
+     * Projection for the per-(center, period) collection date span.
+     */
+    interface PeriodSpanRow {
+        Long getDairyCenterId();
+        Integer getNepaliPeriod();
+        LocalDate getFirstDate();
+        LocalDate getLastDate();
+    }
+
+    /**
+     * Projection for per-member aggregate queries.
+     */
+    interface MemberTotalsRow {
+        String getMemberCode();
+        Long getRecordCount();
+        Double getTotalLiters();
+        Double getWeightedFat();
+        Double getWeightedSnf();
+        Double getTotalAmount();
+    }
+
+    /**
+     * Projection for per-shift totals of one day.
+     */
+    interface ShiftTotalsRow {
+        MilkShift getShift();
+        Long getRecordCount();
+        Double getTotalLiters();
+        Double getWeightedFat();
+        Double getWeightedSnf();
+        Double getTotalAmount();
+    }
+}
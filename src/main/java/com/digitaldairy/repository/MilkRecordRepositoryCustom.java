@@ -0,0 +1,28 @@
+package com.digitaldairy.repository;
+
+/**
+ * MilkRecordRepositoryCustom: Hand-written queries mixed into MilkRecordRepository.
+ * Sparse-fieldset reads select only the requested columns as tuples (aliased by JSON property name).
+ */
+
+import com.digitaldairy.util.MilkRecordField;
+import jakarta.persistence.Tuple;
+
+import java.util.List;
+import java.util.Set;
+
+public interface MilkRecordRepositoryCustom {
+
+    /**
+     * Select only the given fields' columns for a center's records.
+     * @param fields Requested fields (looked-up fields add the columns they are resolved from)
+     * @param dairyCenterId Dairy center ID (required)
+     * @param memberCode Farmer's member code, or null for the whole center
+     * @param nepaliPeriod Period key (yyyymm), or null when syncing by change sequence (scanned as a date range)
+     * @param afterChangeSeq Delta sync cursor, or null; when set, rows come in change order with changeSeq selected
+     * @param limit Max rows, or 0 for no limit
+     * @return Tuples aliased by MilkRecordField property name (plus "changeSeq" when syncing)
+     */
+    List<Tuple> findProjected(Set<MilkRecordField> fields, Long dairyCenterId, String memberCode,
+                              Integer nepaliPeriod, Long afterChangeSeq, int limit);
+}
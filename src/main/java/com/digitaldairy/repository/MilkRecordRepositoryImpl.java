@@ -0,0 +1,86 @@
+package com.digitaldairy.repository;
+
+/**
+ * MilkRecordRepositoryImpl: Criteria API implementation of MilkRecordRepositoryCustom.
+ * Builds a multiselect of just the requested attributes, so sparse reads skip unused columns
+ * and never hydrate MilkRecord entities or their dairy center association.
+ * A period filter becomes a collection_date range scan when the period is inside the BS table.
+ */
+
+import com.digitaldairy.model.MilkRecord;
+import com.digitaldairy.util.BikramSambat;
+import com.digitaldairy.util.MilkRecordField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public class MilkRecordRepositoryImpl implements MilkRecordRepositoryCustom {
+
+    public static final String CHANGE_SEQ_ALIAS = "changeSeq";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findProjected(Set<MilkRecordField> fields, Long dairyCenterId, String memberCode,
+                                     Integer nepaliPeriod, Long afterChangeSeq, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<MilkRecord> root = query.from(MilkRecord.class);
+
+        // Looked-up fields need the key they are resolved from
+        EnumSet<MilkRecordField> columns = EnumSet.copyOf(fields);
+        if (columns.contains(MilkRecordField.FARMER_NAME)) {
+            columns.add(MilkRecordField.MEMBER_CODE);
+        }
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (MilkRecordField field : columns) {
+            if (field.getAttribute() != null) {
+                selections.add(root.get(field.getAttribute()).alias(field.getProperty()));
+            }
+        }
+        if (afterChangeSeq != null) {
+            selections.add(root.get("changeSeq").alias(CHANGE_SEQ_ALIAS));
+        }
+        if (selections.isEmpty()) {
+            // Only looked-up fields requested: select the id so row count is preserved
+            selections.add(root.get("id").alias(MilkRecordField.ID.getProperty()));
+        }
+        query.multiselect(selections);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("dairyCenterId"), dairyCenterId));
+        if (memberCode != null) {
+            predicates.add(cb.equal(root.get("memberCode"), memberCode));
+        }
+        if (nepaliPeriod != null && BikramSambat.supports(nepaliPeriod)) {
+            BikramSambat.DateRange range = BikramSambat.periodRange(nepaliPeriod);
+            predicates.add(cb.between(root.get("collectionDate"), range.start(), range.end()));
+        } else if (nepaliPeriod != null) {
+            predicates.add(cb.equal(root.get("nepaliPeriod"), nepaliPeriod));
+        }
+        if (afterChangeSeq != null) {
+            predicates.add(cb.greaterThan(root.get("changeSeq"), afterChangeSeq));
+            query.orderBy(cb.asc(root.get("changeSeq")));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.digitaldairy.repository;
+
+/**
+ * RateChartRepository: Spring Data JPA repo for per-center rate charts.
+ */
+
+import com.digitaldairy.model.RateChart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RateChartRepository extends JpaRepository<RateChart, Long> {
+
+    Optional<RateChart> findByDairyCenterId(Long dairyCenterId);
+}
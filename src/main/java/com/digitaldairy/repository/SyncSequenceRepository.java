@@ -0,0 +1,31 @@
+package com.digitaldairy.repository;
+
+/**
+ * SyncSequenceRepository: Spring Data JPA repo for per-center change sequences.
+ * findForUpdate() takes a row lock (SELECT ... FOR UPDATE) held until the transaction ends;
+ * insert() fails with a duplicate key if the center's row already exists.
+ */
+
+import com.digitaldairy.model.SyncSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SyncSequenceRepository extends JpaRepository<SyncSequence, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SyncSequence s WHERE s.dairyCenterId = :dairyCenterId")
+    Optional<SyncSequence> findForUpdate(@Param("dairyCenterId") Long dairyCenterId);
+
+    // Plain INSERT (save() would merge and could overwrite a concurrently created row)
+    @Modifying
+    @Query(value = "INSERT INTO sync_sequences (dairy_center_id, last_seq) VALUES (:dairyCenterId, 0)", nativeQuery = true)
+    int insert(@Param("dairyCenterId") Long dairyCenterId);
+}
@@ -0,0 +1,93 @@
+package com.digitaldairy.security;
+
+/**
+ * AccountStatusCache: Optional short-TTL check that the account behind a claims-authenticated token still exists
+ * (farmer or staff phone at the token's dairy center). A removed account loses access within the TTL instead of
+ * at token expiry, at the cost of one indexed exists-query per account per TTL rather than per request.
+ * Disabled (every token accepted on its claims alone) when app.jwt.account-status-ttl is 0.
+ */
+
+import com.digitaldairy.repository.DairyStaffRepository;
+import com.digitaldairy.repository.FarmerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class AccountStatusCache {
+
+    public static final String ROLE_FARMER = "ROLE_FARMER";
+    public static final String ROLE_DAIRY_STAFF = "ROLE_DAIRY_STAFF";
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final FarmerRepository farmerRepository;
+    private final DairyStaffRepository dairyStaffRepository;
+    private final long ttlMillis;
+
+    private final Map<Key, Status> statuses = new ConcurrentHashMap<>();
+
+    public AccountStatusCache(FarmerRepository farmerRepository,
+                              DairyStaffRepository dairyStaffRepository,
+                              @Value("${app.jwt.account-status-ttl:0s}") Duration ttl) {
+        this.farmerRepository = farmerRepository;
+        this.dairyStaffRepository = dairyStaffRepository;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    /**
+     * Whether the account may still use its token. Always true when the cache is disabled.
+     */
+    public boolean isActive(String role, String phone, Long dairyCenterId) {
+        if (!isEnabled()) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Key key = new Key(role, phone, dairyCenterId);
+        Status cached = statuses.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.active();
+        }
+
+        boolean active = lookup(role, phone, dairyCenterId);
+        if (statuses.size() > PRUNE_THRESHOLD) {
+            statuses.values().removeIf(status -> status.expiresAt() <= now);
+        }
+        statuses.put(key, new Status(active, now + ttlMillis));
+        if (!active) {
+            log.warn("Rejecting token of inactive account: role={}, phone={}, dairyCenterId={}", role, phone, dairyCenterId);
+        }
+        return active;
+    }
+
+    /**
+     * Uncached check, for rare events such as token refresh.
+     */
+    public boolean isRegistered(String role, String phone, Long dairyCenterId) {
+        return lookup(role, phone, dairyCenterId);
+    }
+
+    private boolean lookup(String role, String phone, Long dairyCenterId) {
+        if (dairyCenterId == null) {
+            return false;
+        }
+        return switch (role) {
+            case ROLE_FARMER -> farmerRepository.existsByPhoneAndDairyCenterId(phone, dairyCenterId);
+            case ROLE_DAIRY_STAFF -> dairyStaffRepository.existsByPhoneAndDairyCenterId(phone, dairyCenterId);
+            default -> false;
+        };
+    }
+
+    private record Key(String role, String phone, Long dairyCenterId) {}
+
+    private record Status(boolean active, long expiresAt) {}
+}
@@ -4,58 +4,99 @@ package com.digitaldairy.security;
  * JwtAuthenticationFilter: Custom filter to validate JWT from Authorization header on each request.
  * Extracts token, sets auth context with UserDetails (including dairyCenterId for tenancy).
  * Chains to TenantConfig for isolation; skips public endpoints.
+ * Mode app.jwt.authentication:
+ * - claims (default): principal built from the verified token (subject, dairyCenterId, roles), no DB query;
+ *   AccountStatusCache optionally re-checks the account every few seconds
+ * - database: principal loaded through UserDetailsService on every request
  */
 
 import com.digitaldairy.config.TenantConfig;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String CLAIMS_MODE = "claims";
+
     private final JwtUtil jwtUtil;
 
     private final UserDetailsService userDetailsService;
 
+    private final AccountStatusCache accountStatusCache;
+
+    @Value("${app.jwt.authentication:claims}")
+    private String authenticationMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-        Long dairyCenterId = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
-            dairyCenterId = jwtUtil.extractDairyCenterId(jwt);
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                TenantConfig.setCurrentTenant(dairyCenterId);  // Inject for multi-tenancy
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            try {
+                // One verification (cached per token); everything below reads the verified claims
+                VerifiedToken token = jwtUtil.verify(jwt);
+                UserDetails userDetails = CLAIMS_MODE.equals(authenticationMode)
+                        ? fromClaims(token)
+                        : fromDatabase(token);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    TenantConfig.setCurrentTenant(token.dairyCenterId());  // Inject for multi-tenancy
+                }
+            } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+                // Invalid, expired or orphaned token: continue unauthenticated, protected endpoints answer 401/403
+                log.debug("JWT rejected: {}", e.getMessage());
             }
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Principal from verified claims alone. Tokens without roles (refresh tokens) do not authenticate.
+     */
+    private UserDetails fromClaims(VerifiedToken token) {
+        if (!token.isAccessToken()) {
+            return null;
+        }
+        if (accountStatusCache.isEnabled() && token.roles().stream()
+                .noneMatch(role -> accountStatusCache.isActive(role, token.subject(), token.dairyCenterId()))) {
+            return null;
+        }
+        return User.withUsername(token.subject())
+                .password("")  // Never checked: the token is the credential
+                .authorities(token.roles().stream().map(SimpleGrantedAuthority::new).toList())
+                .build();
+    }
+
+    private UserDetails fromDatabase(VerifiedToken token) {
+        TenantConfig.setCurrentTenant(token.dairyCenterId());  // Repository lookups are tenant-scoped
+        return userDetailsService.loadUserByUsername(token.subject());
+    }
+}
@@ -6,13 +6,15 @@ package com.digitaldairy.security;
  * Embeds userId, dairyCenterId, and roles in claims for multi-tenant auth.
  * Uses HS512 signing; handles expiration and invalid tokens.
  * Updated for JJWT 0.12.6+ syntax (parserBuilder).
+ * Tokens are parsed and verified once (verify) into an immutable VerifiedToken, cached until expiry;
+ * the extract/validate helpers all read from it.
  */
 
 import com.digitaldairy.config.JwtConfig;
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,7 +24,7 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -31,40 +33,50 @@ public class JwtUtil {
     @Autowired
     private JwtConfig jwtConfig;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private volatile JwtParser parser;  // Immutable and thread-safe, built once
+
     private SecretKey getSigningKey() {
         return jwtConfig.jwtSecretKey();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Long extractDairyCenterId(String token) {
-        return extractClaim(token, claims -> {
-            Object id = claims.get("dairyCenterId");
-            return id instanceof Long ? (Long) id : Long.valueOf(id.toString());
-        });
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser().setSigningKey(getSigningKey()).build();
+            parser = current;
+        }
+        return current;
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Verify signature and expiry once and return the token's claims.
+     * Repeated calls with the same token are answered from VerifiedTokenCache until it expires.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = VerifiedTokenCache.keyOf(token);
+        VerifiedToken cached = verifiedTokenCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        VerifiedToken verified = VerifiedToken.from(parser().parseClaimsJws(token).getBody());
+        verifiedTokenCache.put(key, verified);
+        return verified;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String extractUsername(String token) {
+        return verify(token).subject();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Long extractDairyCenterId(String token) {
+        return verify(token).dairyCenterId();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return new Date(verify(token).expiresAtMillis());
     }
 
     /**
@@ -80,12 +92,18 @@ public class JwtUtil {
     }
 
     /**
-     * Generate refresh token (long-lived, minimal claims for security).
+     * Generate refresh token (long-lived, one-time use via its unique jti; roles let /api/auth/refresh
+     * issue the next access token without a user lookup, the typ claim keeps it from authenticating requests).
      */
     public String generateRefreshToken(UserDetails userDetails, Long dairyCenterId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("dairyCenterId", dairyCenterId);
-        claims.put("sub", userDetails.getUsername());  // Minimal: just subject for refresh
+        claims.put("sub", userDetails.getUsername());
+        claims.put("roles", userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
+        claims.put(VerifiedToken.TYPE_CLAIM, VerifiedToken.REFRESH_TYPE);
+        claims.put("jti", UUID.randomUUID().toString());
         return createToken(claims, userDetails.getUsername(), jwtConfig.getRefreshTokenExpiration());
     }
 
@@ -100,15 +118,22 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isValidFor(token, userDetails.getUsername());
     }
 
     /**
      * Validate refresh token (checks expiration and subject only).
      */
     public Boolean validateRefreshToken(String token, String expectedUsername) {
-        final String username = extractUsername(token);
-        return (username.equals(expectedUsername) && !isTokenExpired(token));
+        return isValidFor(token, expectedUsername);
+    }
+
+    private boolean isValidFor(String token, String expectedUsername) {
+        try {
+            VerifiedToken verified = verify(token);
+            return verified.subject().equals(expectedUsername) && !verified.isExpired(System.currentTimeMillis());
+        } catch (ExpiredJwtException e) {
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
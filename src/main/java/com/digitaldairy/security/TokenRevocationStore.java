@@ -0,0 +1,54 @@
+package com.digitaldairy.security;
+
+/**
+ * TokenRevocationStore: Ids (jti) of refresh tokens that were already used or revoked.
+ * Ids are grouped into time buckets by their token's expiry; an id only matters until its token expires,
+ * so whole buckets are dropped once their last token has expired, keeping the store as small as the set of
+ * still-valid used tokens. In-memory per instance (a shared store would be needed behind a load balancer).
+ */
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Component
+public class TokenRevocationStore {
+
+    private final long bucketMillis;
+    private final ConcurrentNavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();  // Expiry bucket → ids
+
+    public TokenRevocationStore(MeterRegistry meterRegistry,
+                                @Value("${app.jwt.revocation.bucket:1h}") Duration bucket) {
+        this.bucketMillis = Math.max(1, bucket.toMillis());
+        Gauge.builder("jwt.revoked.ids", this, TokenRevocationStore::size)
+                .description("Revoked refresh token ids kept until their tokens expire")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revoke a token id until its expiry.
+     * @return true if this call revoked it, false if it was already revoked (i.e., the token is being reused)
+     */
+    public boolean revoke(String tokenId, long expiresAtMillis) {
+        dropExpired(System.currentTimeMillis());
+        return buckets.computeIfAbsent(expiresAtMillis / bucketMillis, b -> ConcurrentHashMap.newKeySet()).add(tokenId);
+    }
+
+    /**
+     * Drop buckets whose every token has expired (bucket b holds expiries in [b, b + 1) × bucketMillis).
+     */
+    private void dropExpired(long nowMillis) {
+        buckets.headMap(nowMillis / bucketMillis).clear();
+    }
+
+    private double size() {
+        return buckets.values().stream().mapToInt(Set::size).sum();
+    }
+}
@@ -0,0 +1,63 @@
+package com.digitaldairy.security;
+
+/**
+ * VerifiedToken: Immutable view of a JWT whose signature and expiry have been checked (JwtUtil.verify).
+ * Built once per distinct token, so request handling reads plain fields instead of re-parsing claims.
+ * Refresh tokens carry type "refresh" and a unique tokenId (jti) for one-time use.
+ */
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collection;
+import java.util.List;
+
+public record VerifiedToken(String subject, Long dairyCenterId, List<String> roles, String type, String tokenId,
+                            long expiresAtMillis) {
+
+    public static final String TYPE_CLAIM = "typ";
+    public static final String REFRESH_TYPE = "refresh";
+
+    public VerifiedToken {
+        roles = List.copyOf(roles);
+    }
+
+    static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                dairyCenterId(claims.get("dairyCenterId")),
+                roles(claims.get("roles")),
+                claims.get(TYPE_CLAIM, String.class),
+                claims.getId(),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE
+        );
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    /**
+     * Access tokens carry roles and no refresh type (older refresh tokens carry neither).
+     */
+    public boolean isAccessToken() {
+        return !REFRESH_TYPE.equals(type) && !roles.isEmpty();
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH_TYPE.equals(type) && tokenId != null;
+    }
+
+    private static Long dairyCenterId(Object id) {
+        if (id == null) {
+            return null;
+        }
+        return id instanceof Long ? (Long) id : Long.valueOf(id.toString());
+    }
+
+    private static List<String> roles(Object roles) {
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream().map(Object::toString).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.digitaldairy.security;
+
+/**
+ * VerifiedTokenCache: Bounded cache of recently verified tokens, keyed by the SHA-256 of the token string.
+ * A hot client's bearer token is HMAC-verified once and then served from memory until it expires;
+ * only identical token bytes can hit, and the tokens themselves are never held.
+ * Reads and writes go straight to a ConcurrentHashMap (no global lock on the request path). The bound is
+ * approximate: once a put takes the map over max-entries, one thread sweeps out expired tokens and then
+ * the least recently read ones, down to 90% of the bound; concurrent puts may overshoot briefly meanwhile.
+ */
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified";
+
+    private final int maxEntries;
+    private final int sweepTarget;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${app.jwt.verified-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.sweepTarget = maxEntries - Math.max(1, maxEntries / 10);
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size)
+                .tags("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    /**
+     * Cached token for this exact token string, or null if unknown or expired.
+     */
+    public VerifiedToken get(String key) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry != null && entry.token.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        entry.lastReadNanos = System.nanoTime();
+        hits.increment();
+        return entry.token;
+    }
+
+    public void put(String key, VerifiedToken token) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        entries.put(key, new Entry(token));
+        if (entries.size() > maxEntries && sweepLock.tryLock()) {
+            try {
+                sweep();
+            } finally {
+                sweepLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Cache key of a token string: Base64 SHA-256.
+     */
+    public static String keyOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);  // Mandatory in every JRE
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop expired tokens, then the least recently read ones until the map is back under the sweep target.
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.token.isExpired(now));
+        int excess = entries.size() - sweepTarget;
+        if (excess <= 0) {
+            return;
+        }
+        long[] lastReads = entries.values().stream().mapToLong(entry -> entry.lastReadNanos).toArray();
+        if (lastReads.length == 0) {
+            return;
+        }
+        Arrays.sort(lastReads);
+        long cutoff = lastReads[Math.min(excess, lastReads.length) - 1];
+        entries.values().removeIf(entry -> entry.lastReadNanos - cutoff <= 0);
+    }
+
+    private static final class Entry {
+        final VerifiedToken token;
+        volatile long lastReadNanos = System.nanoTime();  // Written on every hit; a stale value only skews eviction order
+
+        Entry(VerifiedToken token) {
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.digitaldairy.service;
+
+/**
+ * AuthService: Interface for session operations shared by farmers and staff.
+ */
+
+import com.digitaldairy.dto.request.RefreshTokenRequest;
+import com.digitaldairy.dto.response.LoginResponse;
+
+public interface AuthService {
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token (the old one is revoked).
+     */
+    LoginResponse refresh(RefreshTokenRequest request);
+}
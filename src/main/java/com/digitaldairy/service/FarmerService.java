@@ -7,11 +7,19 @@ package com.digitaldairy.service;
 import com.digitaldairy.dto.request.FarmerRegistrationRequest;
 import com.digitaldairy.dto.request.LoginRequest;
 import com.digitaldairy.dto.response.FarmerRegistrationResponse;
+import com.digitaldairy.dto.response.FarmerSearchResponse;
 import com.digitaldairy.dto.response.LoginResponse;
 
+import java.util.List;
+
 public interface FarmerService {
 
     FarmerRegistrationResponse registerFarmer(FarmerRegistrationRequest request);
 
     LoginResponse farmerLogin(LoginRequest request);
+
+    /**
+     * Prefix search over a center's farmers by name, phone or dairyGivenId (in-memory index).
+     */
+    List<FarmerSearchResponse> searchFarmers(String query, Long dairyCenterId, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.digitaldairy.service;
+
+/**
+ * MilkAnalyticsService: Service interface for milk collection analytics.
+ * Answers aggregate questions from the in-memory columnar store instead of scanning milk_records via JPA.
+ */
+
+import com.digitaldairy.dto.response.CenterAnalyticsResponse;
+import com.digitaldairy.dto.response.QualityAnalyticsResponse;
+import com.digitaldairy.dto.response.VolumeTrendResponse;
+
+import java.time.LocalDate;
+
+public interface MilkAnalyticsService {
+
+    /**
+     * Center and per-farmer totals for a Nepali period range (inclusive).
+     * @param fromMonth First Nepali month (e.g., "01")
+     * @param fromYear First Nepali year (e.g., "2082")
+     * @param toMonth Last Nepali month
+     * @param toYear Last Nepali year
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Totals with farmers ranked by liters
+     */
+    CenterAnalyticsResponse getCenterTotals(String fromMonth, String fromYear, String toMonth, String toYear,
+                                            Long dairyCenterId);
+
+    /**
+     * Daily collected liters for a date range (inclusive).
+     * @param fromDate First collection date (AD)
+     * @param toDate Last collection date (AD)
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return One entry per day
+     */
+    VolumeTrendResponse getVolumeTrend(LocalDate fromDate, LocalDate toDate, Long dairyCenterId);
+
+    /**
+     * Fat/SNF percentiles, histograms and month-over-month trends for a center or one farmer.
+     * @param memberCode Farmer's dairy given ID, or null for the whole center
+     * @param binWidth Histogram bucket width (e.g., 0.1 or 0.5)
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Quality distribution and monthly trend
+     */
+    QualityAnalyticsResponse getQuality(String fromMonth, String fromYear, String toMonth, String toYear,
+                                        String memberCode, double binWidth, Long dairyCenterId);
+}
@@ -5,10 +5,21 @@ package com.digitaldairy.service;
  */
 
 import com.digitaldairy.dto.response.CsvUploadResponse;
+import com.digitaldairy.dto.response.DailyCollectionResponse;
+import com.digitaldairy.dto.response.FarmerMonthlySummaryResponse;
+import com.digitaldairy.dto.response.LeaderboardResponse;
+import com.digitaldairy.dto.response.MilkAnomalyResponse;
 import com.digitaldairy.dto.response.MilkRecordResponse;
+import com.digitaldairy.dto.response.PaymentStatementResponse;
+import com.digitaldairy.dto.response.SyncResponse;
+import com.digitaldairy.util.MilkRecordField;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 public interface MilkRecordService {
 
@@ -31,21 +42,129 @@ public interface MilkRecordService {
     /**
      * Get farmer's milk records for a specific Nepali month.
      * @param memberCode Farmer's dairy given ID
-     * @param nepaliMonth Nepali month (e.g., "07")
+     * @param nepaliMonth Nepali month (e.g., "07" or "7" - normalized to a yyyymm period key)
      * @param nepaliYear Nepali year (e.g., "2082")
      * @param dairyCenterId Dairy center ID from JWT
+     * @param fields Sparse fieldset (only these columns are selected and populated), or null for all
      * @return List of milk records
      */
     List<MilkRecordResponse> getFarmerRecordsByNepaliMonth(
-            String memberCode, String nepaliMonth, String nepaliYear, Long dairyCenterId);
+            String memberCode, String nepaliMonth, String nepaliYear, Long dairyCenterId,
+            Set<MilkRecordField> fields);
+
+    /**
+     * Delta sync for the farmer app: records created/updated after the cursor.
+     * @param memberCode Farmer's dairy given ID
+     * @param cursor Last cursor received (0 for a full initial sync)
+     * @param limit Max records to return
+     * @param dairyCenterId Dairy center ID from JWT
+     * @param fields Sparse fieldset, or null for all
+     * @return Changed records plus the next cursor
+     */
+    SyncResponse syncFarmerRecords(String memberCode, long cursor, int limit, Long dairyCenterId,
+                                   Set<MilkRecordField> fields);
+
+    /**
+     * Strong ETag for a farmer's monthly records, derived from the month's version counter.
+     * Reads one summary row - never touches milk_records.
+     * @return ETag value (quoted)
+     */
+    String getFarmerMonthETag(String memberCode, String nepaliMonth, String nepaliYear, Long dairyCenterId);
+
+    /**
+     * Strong ETag for a dairy center's monthly records, derived from the center month's version counter.
+     * @return ETag value (quoted)
+     */
+    String getDairyMonthETag(String nepaliMonth, String nepaliYear, Long dairyCenterId);
 
     /**
      * Get all milk records for a dairy center by Nepali month.
      * @param nepaliMonth Nepali month
      * @param nepaliYear Nepali year
      * @param dairyCenterId Dairy center ID from JWT
+     * @param fields Sparse fieldset, or null for all
      * @return List of milk records
      */
     List<MilkRecordResponse> getDairyRecordsByNepaliMonth(
-            String nepaliMonth, String nepaliYear, Long dairyCenterId);
-}
\ No newline at end of file
+            String nepaliMonth, String nepaliYear, Long dairyCenterId, Set<MilkRecordField> fields);
+
+    /**
+     * Stream a dairy center's records for one Nepali month into an XLSX workbook,
+     * grouped by farmer with per-farmer subtotals and a center total.
+     * Rows go from a database cursor to a windowed sheet writer (constant heap per export).
+     * @param nepaliMonth Nepali month
+     * @param nepaliYear Nepali year
+     * @param dairyCenterId Dairy center ID from JWT
+     * @param out Destination, e.g. the servlet response (not closed)
+     * @return Number of record rows exported
+     */
+    long exportDairyRecordsXlsx(String nepaliMonth, String nepaliYear, Long dairyCenterId, OutputStream out)
+            throws IOException;
+
+    /**
+     * Get farmer's monthly totals (liters, weighted fat/SNF, amount) from the summary table.
+     * @param memberCode Farmer's dairy given ID
+     * @param nepaliMonth Nepali month
+     * @param nepaliYear Nepali year
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Summary, or null if the farmer has no records in that month
+     */
+    FarmerMonthlySummaryResponse getFarmerMonthlySummary(
+            String memberCode, String nepaliMonth, String nepaliYear, Long dairyCenterId);
+
+    /**
+     * Rebuild all farmer monthly summaries of a dairy center from raw milk records.
+     * @param nepaliMonth Nepali month
+     * @param nepaliYear Nepali year
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Number of farmer summaries rebuilt
+     */
+    int rebuildMonthlySummaries(String nepaliMonth, String nepaliYear, Long dairyCenterId);
+
+    /**
+     * Rebuild a dairy center's daily shift rollups for one collection date from raw milk records.
+     * @param collectionDate Collection date (AD)
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Number of shift rollups rebuilt
+     */
+    int rebuildShiftRollups(LocalDate collectionDate, Long dairyCenterId);
+
+    /**
+     * Get a dairy center's collection totals for one day, per shift and overall.
+     * Served from per-shift rollups (no scan of the day's raw records).
+     * @param collectionDate Collection date (AD)
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Daily totals (empty shift list if nothing was collected)
+     */
+    DailyCollectionResponse getDailyCollection(LocalDate collectionDate, Long dairyCenterId);
+
+    /**
+     * Top-k producers of a center over a Nepali period range.
+     * @param metric VOLUME, FAT, SNF or AMOUNT
+     * @param limit Number of farmers to return (k)
+     * @param minLiters Minimum liters over the period to be ranked (keeps tiny suppliers off quality boards)
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Ranked entries, best first
+     */
+    LeaderboardResponse getLeaderboard(String fromMonth, String fromYear, String toMonth, String toYear,
+                                       String metric, int limit, double minLiters, Long dairyCenterId);
+
+    /**
+     * Anomalies flagged at ingestion for a collection date range (newest first).
+     * @param fromDate First collection date
+     * @param toDate Last collection date
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Flagged values for staff review
+     */
+    List<MilkAnomalyResponse> getAnomalies(LocalDate fromDate, LocalDate toDate, Long dairyCenterId);
+
+    /**
+     * Compute payment statements for every farmer of a dairy center for one Nepali month.
+     * Single parallel pass over the month's records (server-side, no per-farmer queries).
+     * @param nepaliMonth Nepali month
+     * @param nepaliYear Nepali year
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Center totals with one statement per farmer
+     */
+    PaymentStatementResponse getPaymentStatements(String nepaliMonth, String nepaliYear, Long dairyCenterId);
+}
@@ -0,0 +1,25 @@
+package com.digitaldairy.service;
+
+/**
+ * RateChartService: Interface for per-center fat × SNF rate chart operations.
+ */
+
+import com.digitaldairy.dto.request.RateChartRequest;
+import com.digitaldairy.dto.response.RateChartResponse;
+
+public interface RateChartService {
+
+    /**
+     * Create or replace a dairy center's rate chart.
+     * @param request Chart anchors and ingestion settings
+     * @return Saved chart
+     */
+    RateChartResponse saveRateChart(RateChartRequest request);
+
+    /**
+     * Get a dairy center's rate chart.
+     * @param dairyCenterId Dairy center ID from JWT
+     * @return Chart, or null if the center has none
+     */
+    RateChartResponse getRateChart(Long dairyCenterId);
+}
@@ -0,0 +1,87 @@
+package com.digitaldairy.service.impl;
+
+/**
+ * AuthServiceImpl: Implements refresh-token rotation.
+ * A refresh token is verified (signature, expiry, type), then revoked before new tokens are issued,
+ * so each one works exactly once; presenting a used token is rejected and logged as possible theft.
+ * Roles and tenant come from the token's claims: no password check and no user query beyond an
+ * indexed existence check, so keeping a session alive costs far less than a login.
+ */
+
+import com.digitaldairy.dto.request.RefreshTokenRequest;
+import com.digitaldairy.dto.response.LoginResponse;
+import com.digitaldairy.model.DairyCenter;
+import com.digitaldairy.repository.DairyCenterRepository;
+import com.digitaldairy.security.AccountStatusCache;
+import com.digitaldairy.security.JwtUtil;
+import com.digitaldairy.security.TokenRevocationStore;
+import com.digitaldairy.security.VerifiedToken;
+import com.digitaldairy.service.AuthService;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class AuthServiceImpl implements AuthService {
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final AccountStatusCache accountStatusCache;
+    private final DairyCenterRepository dairyCenterRepository;
+
+    @Override
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        VerifiedToken token;
+        try {
+            token = jwtUtil.verify(request.getRefreshToken());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid or expired refresh token");
+        }
+        if (!token.isRefreshToken() || token.dairyCenterId() == null) {
+            throw new BadCredentialsException("Not a refresh token");
+        }
+
+        // Rotation: revoke first, so two concurrent uses of the same token cannot both succeed
+        if (!tokenRevocationStore.revoke(token.tokenId(), token.expiresAtMillis())) {
+            log.warn("Refresh token reuse rejected: username={}, dairyCenterId={}, jti={}",
+                    token.subject(), token.dairyCenterId(), token.tokenId());
+            throw new BadCredentialsException("Refresh token already used");
+        }
+
+        if (token.roles().stream().noneMatch(role ->
+                accountStatusCache.isRegistered(role, token.subject(), token.dairyCenterId()))) {
+            log.warn("Refresh rejected - account no longer exists: username={}, dairyCenterId={}",
+                    token.subject(), token.dairyCenterId());
+            throw new BadCredentialsException("Account no longer active");
+        }
+        DairyCenter dairyCenter = dairyCenterRepository.findById(token.dairyCenterId())
+                .orElseThrow(() -> new BadCredentialsException("Account no longer active"));
+
+        UserDetails userDetails = User.withUsername(token.subject())
+                .password("")  // Not used for token generation
+                .authorities(token.roles().stream().map(SimpleGrantedAuthority::new).toList())
+                .build();
+
+        LoginResponse response = new LoginResponse(
+                jwtUtil.generateAccessToken(userDetails, dairyCenter.getId()),
+                token.subject(),
+                dairyCenter.getId(),
+                dairyCenter.getName(),
+                null,  // Not in the token; unchanged since login
+                "Token refreshed"
+        );
+        response.setRefreshToken(jwtUtil.generateRefreshToken(userDetails, dairyCenter.getId()));
+
+        log.debug("Token refreshed: username={}, dairyCenterId={}", token.subject(), dairyCenter.getId());
+        return response;
+    }
+}
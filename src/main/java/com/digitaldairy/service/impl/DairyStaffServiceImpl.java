@@ -6,7 +6,7 @@ package com.digitaldairy.service.impl;
  * Business Logic:
  * - Creates staff accounts with BCrypt password hashing
  * - Validates phone uniqueness per dairy center
- * - Authenticates staff login (phone + password only, no dairyGivenId)
+ * - Authenticates staff login (phone + password, optional dairyCenterId hint; one BCrypt check per login)
  * - Generates JWT tokens with dairyCenterId for multi-tenancy
  * - Returns staff details with dairy center name
  *
@@ -34,11 +34,11 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -95,7 +95,7 @@ public class DairyStaffServiceImpl implements DairyStaffService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)  // Lookup in its own short transaction: no connection held during BCrypt
     public LoginResponse staffLogin(LoginRequest request) {
         log.info("Staff login attempt: phone={}", request.getPhone());
 
@@ -107,27 +107,24 @@ public class DairyStaffServiceImpl implements DairyStaffService {
             throw new BadCredentialsException("Password is required");
         }
 
-        // Find all staff with this phone (could be in multiple dairies)
-        // We'll try to match by phone first, then validate password
-        List<DairyStaff> staffList = dairyStaffRepository.findAll().stream()
-                .filter(s -> s.getPhone().equals(request.getPhone()))
-                .collect(Collectors.toList());
+        // Indexed lookup: the hinted center's account, else every center account of this phone
+        List<DairyStaff> staffList = request.getDairyCenterId() != null
+                ? dairyStaffRepository.findLoginStaff(request.getPhone(), request.getDairyCenterId()).stream().toList()
+                : dairyStaffRepository.findLoginCandidates(request.getPhone());
 
         if (staffList.isEmpty()) {
             log.warn("Staff login failed - phone not found: {}", request.getPhone());
             throw new BadCredentialsException("Invalid phone or password");
         }
 
-        // Try to find staff with matching password
-        DairyStaff authenticatedStaff = null;
-        for (DairyStaff staff : staffList) {
-            if (passwordEncoder.matches(request.getPassword(), staff.getPassword())) {
-                authenticatedStaff = staff;
-                break;
-            }
+        // Several centers and no hint: passwords may differ per center, so no token until a center is chosen
+        if (staffList.size() > 1) {
+            return centerSelection(request, staffList);
         }
 
-        if (authenticatedStaff == null) {
+        // One BCrypt check against the (hinted or only) account
+        DairyStaff authenticatedStaff = staffList.get(0);
+        if (!passwordEncoder.matches(request.getPassword(), authenticatedStaff.getPassword())) {
             log.warn("Staff login failed - invalid password: phone={}", request.getPhone());
             throw new BadCredentialsException("Invalid phone or password");
         }
@@ -143,12 +140,13 @@ public class DairyStaffServiceImpl implements DairyStaffService {
                 .build();
 
         String token = jwtUtil.generateAccessToken(userDetails, dairyCenter.getId());
+        String refreshToken = jwtUtil.generateRefreshToken(userDetails, dairyCenter.getId());
 
         log.info("Staff login successful: phone={}, staffId={}, dairy='{}'",
                 request.getPhone(), authenticatedStaff.getId(), dairyCenter.getName());
 
         // Build login response
-        return new LoginResponse(
+        LoginResponse response = new LoginResponse(
                 token,
                 authenticatedStaff.getPhone(),
                 dairyCenter.getId(),
@@ -156,6 +154,31 @@ public class DairyStaffServiceImpl implements DairyStaffService {
                 null,  // No dairyGivenId for staff
                 "Login successful"
         );
+        response.setRefreshToken(refreshToken);
+        return response;
+    }
+
+    /**
+     * Login without a center hint for a phone that works at several centers.
+     * One BCrypt check against the earliest account; on a match the centers are listed (no token) and the
+     * app logs in again with the chosen dairyCenterId. A mismatch may only mean that center's password
+     * differs, so the error says to choose a center.
+     */
+    private LoginResponse centerSelection(LoginRequest request, List<DairyStaff> staffList) {
+        if (!passwordEncoder.matches(request.getPassword(), staffList.get(0).getPassword())) {
+            log.warn("Staff login failed - no center chosen for multi-center phone: phone={}", request.getPhone());
+            throw new BadCredentialsException(
+                    "Invalid phone or password. This phone works at several dairy centers - choose a dairy center and log in again");
+        }
+
+        log.info("Staff login needs center selection: phone={}, centers={}", request.getPhone(), staffList.size());
+        LoginResponse response = new LoginResponse(null, request.getPhone(), null, null, null,
+                "Choose a dairy center and log in again with its dairyCenterId");
+        response.setRequiresCenterSelection(true);
+        response.setCenters(staffList.stream()
+                .map(staff -> new LoginResponse.CenterOption(staff.getDairyCenter().getId(), staff.getDairyCenter().getName()))
+                .toList());
+        return response;
     }
 
 
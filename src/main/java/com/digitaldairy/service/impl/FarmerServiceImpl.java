@@ -1,20 +1,27 @@
 package com.digitaldairy.service.impl;
 
 /**
- * FarmerServiceImpl: Implements farmer registration and login.
+ * FarmerServiceImpl: Implements farmer registration, login and staff search.
  */
 
 import com.digitaldairy.dto.request.FarmerRegistrationRequest;
 import com.digitaldairy.dto.request.LoginRequest;
 import com.digitaldairy.dto.response.FarmerRegistrationResponse;
+import com.digitaldairy.dto.response.FarmerSearchResponse;
 import com.digitaldairy.dto.response.LoginResponse;
 import com.digitaldairy.exception.TenantNotFoundException;
 import com.digitaldairy.model.DairyCenter;
 import com.digitaldairy.model.Farmer;
 import com.digitaldairy.repository.DairyCenterRepository;
+import com.digitaldairy.repository.FarmerMonthlySummaryRepository;
 import com.digitaldairy.repository.FarmerRepository;
 import com.digitaldairy.security.JwtUtil;
 import com.digitaldairy.service.FarmerService;
+import com.digitaldairy.service.support.CenterMonthVersions;
+import com.digitaldairy.service.support.ChangeSequenceAllocator;
+import com.digitaldairy.service.support.FarmerMonthRecordCache;
+import com.digitaldairy.service.support.FarmerSearchIndex;
+import com.digitaldairy.util.AfterCommit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -23,9 +30,12 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
@@ -37,6 +47,13 @@ public class FarmerServiceImpl implements FarmerService {
     private final DairyCenterRepository dairyCenterRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final FarmerMonthlySummaryRepository summaryRepository;
+    private final FarmerMonthRecordCache farmerMonthRecordCache;
+    private final FarmerSearchIndex farmerSearchIndex;
+    private final ChangeSequenceAllocator changeSequenceAllocator;
+    private final CenterMonthVersions centerMonthVersions;
+
+    private static final int MAX_SEARCH_LIMIT = 50;
 
     @Override
     public FarmerRegistrationResponse registerFarmer(FarmerRegistrationRequest request) {
@@ -71,6 +88,15 @@ public class FarmerServiceImpl implements FarmerService {
         // Save to database
         Farmer savedFarmer = farmerRepository.saveAndFlush(farmer);
 
+        // Existing milk records now resolve to this farmer's name: refresh cached months and ETags
+        // (center lock first, like uploads and rebuilds, so center-month versions are bumped serially)
+        changeSequenceAllocator.lock(dairyCenter.getId());
+        summaryRepository.bumpMemberVersions(dairyCenter.getId(), savedFarmer.getDairyGivenId());
+        centerMonthVersions.bump(dairyCenter.getId(),
+                summaryRepository.findMemberPeriods(dairyCenter.getId(), savedFarmer.getDairyGivenId()));
+        AfterCommit.run(() -> farmerMonthRecordCache.invalidateMember(dairyCenter.getId(), savedFarmer.getDairyGivenId()));
+        AfterCommit.run(() -> farmerSearchIndex.add(dairyCenter.getId(), FarmerSearchIndex.toEntry(savedFarmer)));
+
         log.info("Farmer registered: id={}, phone={}, dairyGivenId={}, dairy='{}'",
                 savedFarmer.getId(), savedFarmer.getPhone(),
                 savedFarmer.getDairyGivenId(), dairyCenter.getName());
@@ -87,7 +113,7 @@ public class FarmerServiceImpl implements FarmerService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)  // Lookup in its own short transaction: no connection held during BCrypt
     public LoginResponse farmerLogin(LoginRequest request) {
         log.info("Farmer login attempt: phone={}, dairyGivenId={}",
                 request.getPhone(), request.getDairyGivenId());
@@ -103,12 +129,9 @@ public class FarmerServiceImpl implements FarmerService {
             throw new BadCredentialsException("Password is required");
         }
 
-        // Find farmer by phone + dairyGivenId across all dairies
+        // Indexed lookup by phone + dairyGivenId (within the hinted dairy, else across all dairies)
         // Then match password
-        Farmer farmer = farmerRepository.findAll().stream()
-                .filter(f -> f.getPhone().equals(request.getPhone()) &&
-                        f.getDairyGivenId().equals(request.getDairyGivenId()))
-                .findFirst()
+        Farmer farmer = findLoginFarmer(request)
                 .orElseThrow(() -> {
                     log.warn("Farmer login failed - not found: phone={}, dairyGivenId={}",
                             request.getPhone(), request.getDairyGivenId());
@@ -133,12 +156,13 @@ public class FarmerServiceImpl implements FarmerService {
                 .build();
 
         String token = jwtUtil.generateAccessToken(userDetails, dairyCenter.getId());
+        String refreshToken = jwtUtil.generateRefreshToken(userDetails, dairyCenter.getId());
 
         log.info("Farmer login successful: phone={}, dairyGivenId={}, farmerId={}, dairy='{}'",
                 request.getPhone(), request.getDairyGivenId(),
                 farmer.getId(), dairyCenter.getName());
 
-        return new LoginResponse(
+        LoginResponse response = new LoginResponse(
                 token,
                 farmer.getPhone(),
                 dairyCenter.getId(),
@@ -146,5 +170,34 @@ public class FarmerServiceImpl implements FarmerService {
                 farmer.getDairyGivenId(),
                 "Login successful"
         );
+        response.setRefreshToken(refreshToken);
+        return response;
+    }
+
+    /**
+     * Without a center hint the same phone + ID may exist at several dairies; the earliest registration wins,
+     * farmers of the other dairies log in with dairyCenterId.
+     */
+    private Optional<Farmer> findLoginFarmer(LoginRequest request) {
+        if (request.getDairyCenterId() != null) {
+            return farmerRepository.findLoginFarmer(request.getPhone(), request.getDairyGivenId(), request.getDairyCenterId());
+        }
+        List<Farmer> candidates = farmerRepository.findLoginCandidates(request.getPhone(), request.getDairyGivenId());
+        if (candidates.size() > 1) {
+            log.info("Farmer login matches {} dairies without dairyCenterId hint: phone={}, dairyGivenId={}",
+                    candidates.size(), request.getPhone(), request.getDairyGivenId());
+        }
+        return candidates.stream().findFirst();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)  // Served from memory; the index loads in its own transaction
+    public List<FarmerSearchResponse> searchFarmers(String query, Long dairyCenterId, int limit) {
+        log.debug("Searching farmers: query='{}', dairyCenterId={}, limit={}", query, dairyCenterId, limit);
+
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        return farmerSearchIndex.search(dairyCenterId, query, cappedLimit).stream()
+                .map(entry -> new FarmerSearchResponse(entry.id(), entry.name(), entry.phone(), entry.dairyGivenId()))
+                .toList();
     }
-}
\ No newline at end of file
+}
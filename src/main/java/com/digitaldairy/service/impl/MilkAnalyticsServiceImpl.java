@@ -0,0 +1,195 @@
+package com.digitaldairy.service.impl;
+
+/**
+ * MilkAnalyticsServiceImpl: Implements milk analytics over the columnar store.
+ * Scans run over primitive columns of a snapshot; no entities or transactions are involved after loading.
+ * Quality analytics partition the scan with fork/join (MilkQualityScanner) and merge histogram sketches.
+ */
+
+import com.digitaldairy.dto.response.CenterAnalyticsResponse;
+import com.digitaldairy.dto.response.QualityAnalyticsResponse;
+import com.digitaldairy.dto.response.VolumeTrendResponse;
+import com.digitaldairy.exception.InvalidRequestException;
+import com.digitaldairy.service.MilkAnalyticsService;
+import com.digitaldairy.service.support.ColumnarMilkStore;
+import com.digitaldairy.service.support.MilkQualityScanner;
+import com.digitaldairy.util.FixedBinHistogram;
+import com.digitaldairy.util.MilkColumns;
+import com.digitaldairy.util.MilkTotals;
+import com.digitaldairy.util.NepaliPeriod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MilkAnalyticsServiceImpl implements MilkAnalyticsService {
+
+    private final ColumnarMilkStore columnarMilkStore;
+    private final MilkQualityScanner milkQualityScanner;
+
+    private static final int MAX_TREND_DAYS = 3660;  // ~10 years of daily points
+    private static final double MIN_BIN_WIDTH = MilkQualityScanner.VALUE_RESOLUTION;
+
+    @Override
+    public CenterAnalyticsResponse getCenterTotals(String fromMonth, String fromYear, String toMonth, String toYear,
+                                                   Long dairyCenterId) {
+        int fromPeriod = NepaliPeriod.parse(fromMonth, fromYear);
+        int toPeriod = NepaliPeriod.parse(toMonth, toYear);
+        if (fromPeriod > toPeriod) {
+            throw new InvalidRequestException("Start period must not be after end period");
+        }
+        log.debug("Computing center totals: from={}, to={}, dairyCenterId={}", fromPeriod, toPeriod, dairyCenterId);
+
+        MilkColumns.View columns = columnarMilkStore.view(dairyCenterId);
+        MilkTotals center = columns.totals(fromPeriod, toPeriod);
+        Map<String, MilkTotals> byFarmer = columns.totalsByMember(fromPeriod, toPeriod);
+
+        List<CenterAnalyticsResponse.FarmerTotals> farmers = new ArrayList<>(byFarmer.size());
+        byFarmer.forEach((memberCode, totals) -> farmers.add(new CenterAnalyticsResponse.FarmerTotals(
+                memberCode,
+                totals.getRecordCount(),
+                totals.getTotalLiters(),
+                totals.getAverageFat(),
+                totals.getAverageSnf(),
+                totals.getTotalAmount()
+        )));
+        farmers.sort(Comparator.comparingDouble(CenterAnalyticsResponse.FarmerTotals::getTotalLiters).reversed());
+
+        return new CenterAnalyticsResponse(
+                dairyCenterId,
+                formatPeriod(fromPeriod),
+                formatPeriod(toPeriod),
+                center.getRecordCount(),
+                center.getTotalLiters(),
+                center.getAverageFat(),
+                center.getAverageSnf(),
+                center.getTotalAmount(),
+                farmers
+        );
+    }
+
+    @Override
+    public VolumeTrendResponse getVolumeTrend(LocalDate fromDate, LocalDate toDate, Long dairyCenterId) {
+        if (fromDate.isAfter(toDate)) {
+            throw new InvalidRequestException("fromDate must not be after toDate");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_TREND_DAYS) {
+            throw new InvalidRequestException("Date range too large (max " + MAX_TREND_DAYS + " days)");
+        }
+        log.debug("Computing volume trend: from={}, to={}, dairyCenterId={}", fromDate, toDate, dairyCenterId);
+
+        double[] daily = columnarMilkStore.view(dairyCenterId).dailyLiters(fromDate, toDate);
+
+        List<VolumeTrendResponse.DailyVolume> days = new ArrayList<>(daily.length);
+        double total = 0.0;
+        for (int i = 0; i < daily.length; i++) {
+            days.add(new VolumeTrendResponse.DailyVolume(fromDate.plusDays(i), daily[i]));
+            total += daily[i];
+        }
+        return new VolumeTrendResponse(dairyCenterId, fromDate, toDate, total, days);
+    }
+
+    @Override
+    public QualityAnalyticsResponse getQuality(String fromMonth, String fromYear, String toMonth, String toYear,
+                                               String memberCode, double binWidth, Long dairyCenterId) {
+        int fromPeriod = NepaliPeriod.parse(fromMonth, fromYear);
+        int toPeriod = NepaliPeriod.parse(toMonth, toYear);
+        if (fromPeriod > toPeriod) {
+            throw new InvalidRequestException("Start period must not be after end period");
+        }
+        if (!(binWidth >= MIN_BIN_WIDTH)) {
+            throw new InvalidRequestException("binWidth must be at least " + MIN_BIN_WIDTH);
+        }
+        log.debug("Computing quality analytics: from={}, to={}, memberCode={}, dairyCenterId={}",
+                fromPeriod, toPeriod, memberCode, dairyCenterId);
+
+        long start = System.currentTimeMillis();
+        MilkColumns.View columns = columnarMilkStore.view(dairyCenterId);
+        int memberId = -1;
+        if (memberCode != null) {
+            memberId = columns.findMemberId(memberCode);
+            if (memberId < 0) {
+                // No records for this farmer: scan nothing, but keep the response shape
+                memberId = Integer.MAX_VALUE;
+            }
+        }
+        MilkQualityScanner.QualityStats stats = milkQualityScanner.scan(columns, memberId, fromPeriod, toPeriod);
+        log.debug("Quality scan done: rows={}, took={}ms", columns.size(), System.currentTimeMillis() - start);
+
+        return new QualityAnalyticsResponse(
+                dairyCenterId,
+                memberCode,
+                formatPeriod(fromPeriod),
+                formatPeriod(toPeriod),
+                stats.getFat().getTotal(),
+                mapDistribution(stats.getFat(), binWidth),
+                mapDistribution(stats.getSnf(), binWidth),
+                mapMonthlyTrend(stats.getMonthly(), fromPeriod)
+        );
+    }
+
+    private QualityAnalyticsResponse.Distribution mapDistribution(FixedBinHistogram histogram, double binWidth) {
+        List<QualityAnalyticsResponse.HistogramBin> bins = histogram.buckets(binWidth).stream()
+                .map(bucket -> new QualityAnalyticsResponse.HistogramBin(
+                        round2(bucket.from()), round2(bucket.to()), bucket.count()))
+                .toList();
+        return new QualityAnalyticsResponse.Distribution(
+                quantile(histogram, 0.10),
+                quantile(histogram, 0.25),
+                quantile(histogram, 0.50),
+                quantile(histogram, 0.75),
+                quantile(histogram, 0.90),
+                bins
+        );
+    }
+
+    private List<QualityAnalyticsResponse.MonthTrend> mapMonthlyTrend(MilkTotals[] monthly, int fromPeriod) {
+        int fromMonth = MilkQualityScanner.monthIndex(fromPeriod);
+        List<QualityAnalyticsResponse.MonthTrend> trend = new ArrayList<>(monthly.length);
+        MilkTotals previous = null;
+        for (int i = 0; i < monthly.length; i++) {
+            MilkTotals totals = monthly[i];
+            boolean comparable = previous != null && previous.getTotalLiters() > 0 && totals.getTotalLiters() > 0;
+            int monthIndex = fromMonth + i;
+            int period = NepaliPeriod.of(monthIndex / 12, monthIndex % 12 + 1);
+
+            trend.add(new QualityAnalyticsResponse.MonthTrend(
+                    formatPeriod(period),
+                    totals.getRecordCount(),
+                    totals.getTotalLiters(),
+                    totals.getAverageFat(),
+                    totals.getAverageSnf(),
+                    comparable ? round2((totals.getTotalLiters() - previous.getTotalLiters())
+                            / previous.getTotalLiters() * 100.0) : null,
+                    comparable ? round2(totals.getAverageFat() - previous.getAverageFat()) : null,
+                    comparable ? round2(totals.getAverageSnf() - previous.getAverageSnf()) : null
+            ));
+            previous = totals;
+        }
+        return trend;
+    }
+
+    private static Double quantile(FixedBinHistogram histogram, double q) {
+        double value = histogram.quantile(q);
+        return Double.isNaN(value) ? null : round2(value);
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static String formatPeriod(int period) {
+        return NepaliPeriod.yearString(period) + "-" + NepaliPeriod.monthString(period);
+    }
+}
@@ -6,25 +6,75 @@ package com.digitaldairy.service.impl;
  */
 
 import com.digitaldairy.dto.response.CsvUploadResponse;
+import com.digitaldairy.dto.response.DailyCollectionResponse;
+import com.digitaldairy.dto.response.FarmerMonthlySummaryResponse;
+import com.digitaldairy.dto.response.LeaderboardResponse;
+import com.digitaldairy.dto.response.MilkAnomalyResponse;
 import com.digitaldairy.dto.response.MilkRecordResponse;
+import com.digitaldairy.dto.response.PaymentStatementResponse;
+import com.digitaldairy.dto.response.SyncResponse;
 import com.digitaldairy.exception.CsvProcessingException;
+import com.digitaldairy.exception.InvalidRequestException;
 import com.digitaldairy.exception.TenantNotFoundException;
+import com.digitaldairy.model.DailyShiftRollup;
 import com.digitaldairy.model.DairyCenter;
+import com.digitaldairy.model.MilkArchive;
 import com.digitaldairy.model.Farmer;
+import com.digitaldairy.model.FarmerMonthlySummary;
+import com.digitaldairy.model.MilkAnomaly;
 import com.digitaldairy.model.MilkRecord;
+import com.digitaldairy.model.MilkShift;
+import com.digitaldairy.model.RateChartMode;
+import com.digitaldairy.repository.DailyShiftRollupRepository;
 import com.digitaldairy.repository.DairyCenterRepository;
+import com.digitaldairy.repository.FarmerMonthlySummaryRepository;
 import com.digitaldairy.repository.FarmerRepository;
+import com.digitaldairy.repository.MilkAnomalyRepository;
 import com.digitaldairy.repository.MilkRecordRepository;
+import com.digitaldairy.repository.MilkRecordRepositoryImpl;
 import com.digitaldairy.service.MilkRecordService;
+import com.digitaldairy.service.support.CenterMonthVersions;
+import com.digitaldairy.service.support.ChangeSequenceAllocator;
+import com.digitaldairy.service.support.ColumnarMilkStore;
+import com.digitaldairy.service.support.FarmerMonthRecordCache;
+import com.digitaldairy.service.support.LeaderboardCache;
+import com.digitaldairy.service.support.MilkAnomalyDetector;
+import com.digitaldairy.service.support.MilkArchiveStore;
+import com.digitaldairy.service.support.MilkRecordXlsxWriter;
+import com.digitaldairy.service.support.MonthlySummaryUpdater;
+import com.digitaldairy.service.support.PaymentStatementEngine;
+import com.digitaldairy.service.support.RateChartEngine;
+import com.digitaldairy.service.support.ShiftRollupUpdater;
+import com.digitaldairy.util.AfterCommit;
+import com.digitaldairy.util.BikramSambat;
+import com.digitaldairy.util.CompiledRateChart;
 import com.digitaldairy.util.CsvParser;
+import com.digitaldairy.util.LeaderboardMetric;
+import com.digitaldairy.util.MilkArchiveRow;
+import com.digitaldairy.util.MilkColumnRow;
+import com.digitaldairy.util.MilkExportRow;
+import com.digitaldairy.util.MilkRecordField;
+import com.digitaldairy.util.MilkTotals;
+import com.digitaldairy.util.MilkValues;
+import com.digitaldairy.util.NepaliPeriod;
+import com.digitaldairy.util.TopK;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -35,9 +85,26 @@ public class MilkRecordServiceImpl implements MilkRecordService {
     private final MilkRecordRepository milkRecordRepository;
     private final FarmerRepository farmerRepository;
     private final DairyCenterRepository dairyCenterRepository;
+    private final FarmerMonthlySummaryRepository summaryRepository;
+    private final MonthlySummaryUpdater monthlySummaryUpdater;
+    private final CenterMonthVersions centerMonthVersions;
+    private final DailyShiftRollupRepository shiftRollupRepository;
+    private final ShiftRollupUpdater shiftRollupUpdater;
+    private final PaymentStatementEngine paymentStatementEngine;
+    private final RateChartEngine rateChartEngine;
+    private final FarmerMonthRecordCache farmerMonthRecordCache;
+    private final ChangeSequenceAllocator changeSequenceAllocator;
+    private final ColumnarMilkStore columnarMilkStore;
+    private final MilkAnomalyDetector milkAnomalyDetector;
+    private final MilkAnomalyRepository milkAnomalyRepository;
+    private final LeaderboardCache leaderboardCache;
+    private final MilkRecordXlsxWriter milkRecordXlsxWriter;
+    private final MilkArchiveStore milkArchiveStore;
     private final CsvParser csvParser;
 
     private static final int BATCH_SIZE = 50;
+    private static final int MAX_SYNC_LIMIT = 1000;
+    private static final int MAX_LEADERBOARD_LIMIT = 100;
 
     @Override
     public CsvUploadResponse uploadCsv(MultipartFile file, Long dairyCenterId) {
@@ -91,35 +158,459 @@ public class MilkRecordServiceImpl implements MilkRecordService {
     @Override
     @Transactional(readOnly = true)
     public List<MilkRecordResponse> getFarmerRecordsByNepaliMonth(
-            String memberCode, String nepaliMonth, String nepaliYear, Long dairyCenterId) {
-        log.debug("Fetching farmer records: memberCode={}, month={}, year={}, dairyCenterId={}",
-                memberCode, nepaliMonth, nepaliYear, dairyCenterId);
+            String memberCode, String nepaliMonth, String nepaliYear, Long dairyCenterId,
+            Set<MilkRecordField> fields) {
+        log.debug("Fetching farmer records: memberCode={}, month={}, year={}, dairyCenterId={}, fields={}",
+                memberCode, nepaliMonth, nepaliYear, dairyCenterId, fields);
+
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        FarmerMonthRecordCache.Key cacheKey = new FarmerMonthRecordCache.Key(dairyCenterId, memberCode, nepaliPeriod);
+        List<MilkRecordResponse> cached = farmerMonthRecordCache.get(cacheKey);
+        if (cached != null) {
+            return cached;  // Full rows; a sparse request is trimmed at serialization
+        }
 
-        List<MilkRecord> records = milkRecordRepository
-                .findByMemberCodeAndDairyCenterIdAndNepaliMonthAndNepaliYear(
-                        memberCode, dairyCenterId, nepaliMonth, nepaliYear);
+        if (fields != null) {
+            // Sparse reads project only the requested columns and are not cached
+            List<Tuple> rows = milkRecordRepository.findProjected(
+                    fields, dairyCenterId, memberCode, nepaliPeriod, null, 0);
+            if (rows.isEmpty()) {
+                return archivedMonthRecords(memberCode, dairyCenterId, nepaliPeriod);
+            }
+            String farmerName = fields.contains(MilkRecordField.FARMER_NAME)
+                    ? lookupFarmerName(memberCode, dairyCenterId) : null;
+            String centerName = lookupCenterName(fields, dairyCenterId);
+            return rows.stream()
+                    .map(row -> mapProjection(row, fields, code -> farmerName, centerName))
+                    .collect(Collectors.toList());
+        }
 
-        return records.stream()
-                .map(this::mapToResponse)
+        long stamp = farmerMonthRecordCache.stamp();
+        List<MilkRecord> records = findFarmerMonthRecords(memberCode, dairyCenterId, nepaliPeriod);
+
+        List<MilkRecordResponse> responses = records.isEmpty()
+                ? archivedMonthRecords(memberCode, dairyCenterId, nepaliPeriod)
+                : records.stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList());
+        return farmerMonthRecordCache.put(cacheKey, responses, stamp);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SyncResponse syncFarmerRecords(String memberCode, long cursor, int limit, Long dairyCenterId,
+                                          Set<MilkRecordField> fields) {
+        log.debug("Syncing farmer records: memberCode={}, cursor={}, limit={}, dairyCenterId={}, fields={}",
+                memberCode, cursor, limit, dairyCenterId, fields);
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_SYNC_LIMIT));
+        if (fields != null) {
+            return syncProjected(memberCode, cursor, pageSize, dairyCenterId, fields);
+        }
+        // Fetch one extra row to know whether another page follows
+        List<MilkRecord> changed = milkRecordRepository
+                .findByDairyCenterIdAndMemberCodeAndChangeSeqGreaterThanOrderByChangeSeqAsc(
+                        dairyCenterId, memberCode, cursor, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = changed.size() > pageSize;
+        if (hasMore) {
+            changed = changed.subList(0, pageSize);
+        }
+        long nextCursor = changed.isEmpty() ? cursor : changed.get(changed.size() - 1).getChangeSeq();
+
+        String farmerName = lookupFarmerName(memberCode, dairyCenterId);
+        List<MilkRecordResponse> records = changed.stream()
+                .map(record -> mapToResponse(record, farmerName))
+                .collect(Collectors.toList());
+
+        return new SyncResponse(records, nextCursor, hasMore);
+    }
+
+    /**
+     * Records of an archived month for one farmer (or the whole center when memberCode is null);
+     * empty when the month is not archived. Full rows: a sparse request is trimmed at serialization.
+     */
+    private List<MilkRecordResponse> archivedMonthRecords(String memberCode, Long dairyCenterId, int nepaliPeriod) {
+        Optional<MilkArchive> archive = milkArchiveStore.find(dairyCenterId, nepaliPeriod);
+        if (archive.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<MilkArchiveRow> rows = milkArchiveStore.read(archive.get(), memberCode, nepaliPeriod);
+
+        Function<String, String> farmerNames;
+        if (memberCode != null) {
+            String farmerName = lookupFarmerName(memberCode, dairyCenterId);
+            farmerNames = code -> farmerName;
+        } else {
+            Map<String, Farmer> farmers = loadFarmersMap(dairyCenterId);
+            farmerNames = code -> Optional.ofNullable(farmers.get(code)).map(Farmer::getName).orElse("Unknown");
+        }
+        String centerName = dairyCenterRepository.findById(dairyCenterId)
+                .map(DairyCenter::getName)
+                .orElse(null);
+
+        return rows.stream()
+                .map(row -> mapArchived(row, farmerNames.apply(row.memberCode()), dairyCenterId, centerName))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * A farmer's records for one BS month: a collection_date range scan, or the period key outside the BS table.
+     */
+    private List<MilkRecord> findFarmerMonthRecords(String memberCode, Long dairyCenterId, int nepaliPeriod) {
+        if (!BikramSambat.supports(nepaliPeriod)) {
+            return milkRecordRepository
+                    .findByMemberCodeAndDairyCenterIdAndNepaliPeriod(memberCode, dairyCenterId, nepaliPeriod);
+        }
+        BikramSambat.DateRange range = BikramSambat.periodRange(nepaliPeriod);
+        return milkRecordRepository.findByMemberCodeAndDairyCenterIdAndCollectionDateBetween(
+                memberCode, dairyCenterId, range.start(), range.end());
+    }
+
+    /**
+     * A center's records for one BS month (see findFarmerMonthRecords).
+     */
+    private List<MilkRecord> findDairyMonthRecords(Long dairyCenterId, int nepaliPeriod) {
+        if (!BikramSambat.supports(nepaliPeriod)) {
+            return milkRecordRepository.findByDairyCenterIdAndNepaliPeriod(dairyCenterId, nepaliPeriod);
+        }
+        BikramSambat.DateRange range = BikramSambat.periodRange(nepaliPeriod);
+        return milkRecordRepository.findByDairyCenterIdAndCollectionDateBetween(
+                dairyCenterId, range.start(), range.end());
+    }
+
+    /**
+     * Sparse variant of delta sync: same paging, but only the requested columns (plus changeSeq).
+     */
+    private SyncResponse syncProjected(String memberCode, long cursor, int pageSize, Long dairyCenterId,
+                                       Set<MilkRecordField> fields) {
+        List<Tuple> rows = milkRecordRepository.findProjected(
+                fields, dairyCenterId, memberCode, null, cursor, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        long nextCursor = rows.isEmpty() ? cursor
+                : rows.get(rows.size() - 1).get(MilkRecordRepositoryImpl.CHANGE_SEQ_ALIAS, Long.class);
+
+        String farmerName = fields.contains(MilkRecordField.FARMER_NAME)
+                ? lookupFarmerName(memberCode, dairyCenterId) : null;
+        String centerName = lookupCenterName(fields, dairyCenterId);
+        List<MilkRecordResponse> records = rows.stream()
+                .map(row -> mapProjection(row, fields, code -> farmerName, centerName))
+                .collect(Collectors.toList());
+
+        return new SyncResponse(records, nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getFarmerMonthETag(String memberCode, String nepaliMonth, String nepaliYear, Long dairyCenterId) {
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        long version = summaryRepository.findDataVersion(dairyCenterId, memberCode, nepaliPeriod).orElse(0L);
+        return String.format("\"%d-v%d\"", nepaliPeriod, version);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getDairyMonthETag(String nepaliMonth, String nepaliYear, Long dairyCenterId) {
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        return String.format("\"%d-c%d\"", nepaliPeriod, centerMonthVersions.version(dairyCenterId, nepaliPeriod));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<MilkRecordResponse> getDairyRecordsByNepaliMonth(
-            String nepaliMonth, String nepaliYear, Long dairyCenterId) {
-        log.debug("Fetching dairy records: month={}, year={}, dairyCenterId={}",
-                nepaliMonth, nepaliYear, dairyCenterId);
+            String nepaliMonth, String nepaliYear, Long dairyCenterId, Set<MilkRecordField> fields) {
+        log.debug("Fetching dairy records: month={}, year={}, dairyCenterId={}, fields={}",
+                nepaliMonth, nepaliYear, dairyCenterId, fields);
+
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        if (fields != null) {
+            List<Tuple> rows = milkRecordRepository.findProjected(
+                    fields, dairyCenterId, null, nepaliPeriod, null, 0);
+            if (rows.isEmpty()) {
+                return archivedMonthRecords(null, dairyCenterId, nepaliPeriod);
+            }
+            Map<String, Farmer> farmers = fields.contains(MilkRecordField.FARMER_NAME)
+                    ? loadFarmersMap(dairyCenterId) : Collections.emptyMap();
+            String centerName = lookupCenterName(fields, dairyCenterId);
+            return rows.stream()
+                    .map(row -> mapProjection(row, fields,
+                            code -> Optional.ofNullable(farmers.get(code)).map(Farmer::getName).orElse("Unknown"),
+                            centerName))
+                    .collect(Collectors.toList());
+        }
 
-        List<MilkRecord> records = milkRecordRepository
-                .findByDairyCenterIdAndNepaliMonthAndNepaliYear(
-                        dairyCenterId, nepaliMonth, nepaliYear);
+        List<MilkRecord> records = findDairyMonthRecords(dairyCenterId, nepaliPeriod);
+        if (records.isEmpty()) {
+            return archivedMonthRecords(null, dairyCenterId, nepaliPeriod);
+        }
 
         return records.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long exportDairyRecordsXlsx(String nepaliMonth, String nepaliYear, Long dairyCenterId, OutputStream out)
+            throws IOException {
+        log.info("Exporting dairy records: month={}, year={}, dairyCenterId={}", nepaliMonth, nepaliYear, dairyCenterId);
+
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        long start = System.currentTimeMillis();
+
+        Map<String, Farmer> farmers = loadFarmersMap(dairyCenterId);
+        String centerName = dairyCenterRepository.findById(dairyCenterId)
+                .map(DairyCenter::getName)
+                .orElse("Dairy center " + dairyCenterId);
+        String sheetName = NepaliPeriod.yearString(nepaliPeriod) + "-" + NepaliPeriod.monthString(nepaliPeriod);
+
+        long exported;
+        try (Stream<MilkExportRow> rows = streamDairyMonthExportRows(dairyCenterId, nepaliPeriod)) {
+            exported = milkRecordXlsxWriter.write(out, sheetName, centerName + " - milk records " + sheetName, rows,
+                    code -> Optional.ofNullable(farmers.get(code)).map(Farmer::getName).orElse("Unknown"));
+        }
+
+        log.info("Exported {} records for {} in {} ms", exported, sheetName, System.currentTimeMillis() - start);
+        return exported;
+    }
+
+    /**
+     * A center's month as export rows ordered by farmer: from its archive file if archived, else a date range
+     * scan (or the period key outside the BS table).
+     */
+    private Stream<MilkExportRow> streamDairyMonthExportRows(Long dairyCenterId, int nepaliPeriod) {
+        Optional<MilkArchive> archive = milkArchiveStore.find(dairyCenterId, nepaliPeriod);
+        if (archive.isPresent()) {
+            return milkArchiveStore.read(archive.get(), null, nepaliPeriod).stream().map(MilkArchiveRow::toExportRow);
+        }
+        if (!BikramSambat.supports(nepaliPeriod)) {
+            return milkRecordRepository.streamExportRowsByPeriod(dairyCenterId, nepaliPeriod);
+        }
+        BikramSambat.DateRange range = BikramSambat.periodRange(nepaliPeriod);
+        return milkRecordRepository.streamExportRows(dairyCenterId, range.start(), range.end());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FarmerMonthlySummaryResponse getFarmerMonthlySummary(
+            String memberCode, String nepaliMonth, String nepaliYear, Long dairyCenterId) {
+        log.debug("Fetching farmer monthly summary: memberCode={}, month={}, year={}, dairyCenterId={}",
+                memberCode, nepaliMonth, nepaliYear, dairyCenterId);
+
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        return summaryRepository
+                .findByDairyCenterIdAndMemberCodeAndNepaliPeriod(dairyCenterId, memberCode, nepaliPeriod)
+                .map(this::mapToSummaryResponse)
+                .orElse(null);
+    }
+
+    @Override
+    public int rebuildMonthlySummaries(String nepaliMonth, String nepaliYear, Long dairyCenterId) {
+        log.info("Rebuilding monthly summaries: month={}, year={}, dairyCenterId={}",
+                nepaliMonth, nepaliYear, dairyCenterId);
+
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        if (milkArchiveStore.find(dairyCenterId, nepaliPeriod).isPresent()) {
+            // Raw rows are gone from milk_records; a rebuild would wipe the month's summaries
+            throw new InvalidRequestException(String.format(
+                    "%s/%s is archived; its summaries cannot be rebuilt", nepaliMonth, nepaliYear));
+        }
+        changeSequenceAllocator.lock(dairyCenterId);  // Not interleaved with an upload of this center
+        int rebuilt = monthlySummaryUpdater.rebuild(dairyCenterId, nepaliPeriod);
+        AfterCommit.run(() -> leaderboardCache.invalidate(dairyCenterId, Set.of(nepaliPeriod)));
+        return rebuilt;
+    }
+
+    @Override
+    public int rebuildShiftRollups(LocalDate collectionDate, Long dairyCenterId) {
+        log.info("Rebuilding shift rollups: date={}, dairyCenterId={}", collectionDate, dairyCenterId);
+
+        if (BikramSambat.supports(collectionDate) && milkArchiveStore.archivedFiscalYears(dairyCenterId)
+                .contains(NepaliPeriod.fiscalYear(BikramSambat.toBs(collectionDate).period()))) {
+            // Raw rows are gone from milk_records; a rebuild would wipe the day's rollups
+            throw new InvalidRequestException(String.format(
+                    "%s is archived; its shift rollups cannot be rebuilt", collectionDate));
+        }
+        changeSequenceAllocator.lock(dairyCenterId);  // Not interleaved with an upload of this center
+        return shiftRollupUpdater.rebuild(dairyCenterId, collectionDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DailyCollectionResponse getDailyCollection(LocalDate collectionDate, Long dairyCenterId) {
+        log.debug("Fetching daily collection: date={}, dairyCenterId={}", collectionDate, dairyCenterId);
+
+        List<DailyShiftRollup> rollups = shiftRollupRepository
+                .findByDairyCenterIdAndCollectionDateOrderByShiftAsc(dairyCenterId, collectionDate);
+
+        List<DailyCollectionResponse.ShiftTotals> shifts = new ArrayList<>(rollups.size());
+        MilkTotals day = new MilkTotals();
+        for (DailyShiftRollup rollup : rollups) {
+            MilkTotals totals = new MilkTotals(rollup.getRecordCount(), rollup.getTotalLiters(),
+                    rollup.getWeightedFat(), rollup.getWeightedSnf(), rollup.getTotalAmount());
+            shifts.add(mapToShiftTotals(rollup.getShift().name(), totals));
+            day.merge(totals);
+        }
+
+        return new DailyCollectionResponse(collectionDate, dairyCenterId, shifts, mapToShiftTotals(null, day));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LeaderboardResponse getLeaderboard(String fromMonth, String fromYear, String toMonth, String toYear,
+                                              String metric, int limit, double minLiters, Long dairyCenterId) {
+        int fromPeriod = NepaliPeriod.parse(fromMonth, fromYear);
+        int toPeriod = NepaliPeriod.parse(toMonth, toYear);
+        if (fromPeriod > toPeriod) {
+            throw new InvalidRequestException("Start period must not be after end period");
+        }
+        LeaderboardMetric rankBy = LeaderboardMetric.parse(metric);
+        int k = Math.max(1, Math.min(limit, MAX_LEADERBOARD_LIMIT));
+        log.debug("Computing leaderboard: from={}, to={}, metric={}, k={}, dairyCenterId={}",
+                fromPeriod, toPeriod, rankBy, k, dairyCenterId);
+
+        List<LeaderboardMetric.MemberTotals> totals = loadLeaderboardTotals(dairyCenterId, fromPeriod, toPeriod);
+        List<LeaderboardMetric.MemberTotals> eligible = minLiters > 0
+                ? totals.stream().filter(m -> m.totals().getTotalLiters() >= minLiters).toList()
+                : totals;
+        List<LeaderboardMetric.MemberTotals> top = TopK.largest(eligible, k, rankBy.comparator());
+
+        Map<String, Farmer> farmers = top.isEmpty() ? Collections.emptyMap() : loadFarmersMap(dairyCenterId);
+        List<LeaderboardResponse.Entry> entries = new ArrayList<>(top.size());
+        for (LeaderboardMetric.MemberTotals member : top) {
+            Farmer farmer = farmers.get(member.memberCode());
+            MilkTotals memberTotals = member.totals();
+            entries.add(new LeaderboardResponse.Entry(
+                    entries.size() + 1,
+                    member.memberCode(),
+                    farmer != null ? farmer.getName() : "Unknown",
+                    memberTotals.getRecordCount(),
+                    memberTotals.getTotalLiters(),
+                    memberTotals.getAverageFat(),
+                    memberTotals.getAverageSnf(),
+                    memberTotals.getTotalAmount()
+            ));
+        }
+
+        return new LeaderboardResponse(
+                dairyCenterId,
+                NepaliPeriod.yearString(fromPeriod) + "-" + NepaliPeriod.monthString(fromPeriod),
+                NepaliPeriod.yearString(toPeriod) + "-" + NepaliPeriod.monthString(toPeriod),
+                rankBy.name(),
+                entries
+        );
+    }
+
+    /**
+     * Per-farmer totals for a period range: cached, else summed from monthly summaries in the database.
+     */
+    private List<LeaderboardMetric.MemberTotals> loadLeaderboardTotals(Long dairyCenterId, int fromPeriod, int toPeriod) {
+        LeaderboardCache.Key key = new LeaderboardCache.Key(dairyCenterId, fromPeriod, toPeriod);
+        List<LeaderboardMetric.MemberTotals> cached = leaderboardCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = leaderboardCache.stamp();
+        List<LeaderboardMetric.MemberTotals> totals = summaryRepository
+                .sumByMemberForPeriodRange(dairyCenterId, fromPeriod, toPeriod).stream()
+                .map(row -> new LeaderboardMetric.MemberTotals(row.getMemberCode(), new MilkTotals(
+                        row.getRecordCount(), row.getTotalLiters(), row.getWeightedFat(),
+                        row.getWeightedSnf(), row.getTotalAmount())))
+                .toList();
+        leaderboardCache.put(key, totals, stamp);
+        return totals;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MilkAnomalyResponse> getAnomalies(LocalDate fromDate, LocalDate toDate, Long dairyCenterId) {
+        log.debug("Fetching anomalies: from={}, to={}, dairyCenterId={}", fromDate, toDate, dairyCenterId);
+
+        return milkAnomalyRepository
+                .findByDairyCenterIdAndCollectionDateBetweenOrderByCollectionDateDescCollectionTimeDesc(
+                        dairyCenterId, fromDate, toDate)
+                .stream()
+                .map(anomaly -> new MilkAnomalyResponse(
+                        anomaly.getId(),
+                        anomaly.getMemberCode(),
+                        anomaly.getCollectionDate(),
+                        anomaly.getCollectionTime(),
+                        anomaly.getShift() != null ? anomaly.getShift().name() : null,
+                        anomaly.getMetric().name(),
+                        anomaly.getObservedValue(),
+                        anomaly.getExpectedValue(),
+                        anomaly.getZScore(),
+                        anomaly.getCreatedAt()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentStatementResponse getPaymentStatements(String nepaliMonth, String nepaliYear, Long dairyCenterId) {
+        log.info("Computing payment statements: month={}, year={}, dairyCenterId={}",
+                nepaliMonth, nepaliYear, dairyCenterId);
+
+        int nepaliPeriod = NepaliPeriod.parse(nepaliMonth, nepaliYear);
+        long start = System.currentTimeMillis();
+
+        List<MilkValues> rows = milkRecordRepository.findValuesByDairyCenterIdAndNepaliPeriod(dairyCenterId, nepaliPeriod);
+        if (rows.isEmpty()) {
+            rows = milkArchiveStore.find(dairyCenterId, nepaliPeriod)
+                    .map(archive -> milkArchiveStore.read(archive, null, nepaliPeriod).stream()
+                            .map(MilkArchiveRow::toValues)
+                            .collect(Collectors.toList()))
+                    .orElse(rows);
+        }
+        Map<String, MilkTotals> byFarmer = paymentStatementEngine.aggregateByFarmer(rows);
+        Map<String, Farmer> farmers = loadFarmersMap(dairyCenterId);
+
+        List<PaymentStatementResponse.FarmerStatement> statements = new ArrayList<>(byFarmer.size());
+        MilkTotals center = new MilkTotals();
+        double totalDeductions = 0.0;
+        for (Map.Entry<String, MilkTotals> entry : new TreeMap<>(byFarmer).entrySet()) {
+            MilkTotals totals = entry.getValue();
+            double gross = PaymentStatementEngine.roundMoney(totals.getTotalAmount());
+            double deductions = paymentStatementEngine.deductionsFor(totals);
+            Farmer farmer = farmers.get(entry.getKey());
+
+            statements.add(new PaymentStatementResponse.FarmerStatement(
+                    entry.getKey(),
+                    farmer != null ? farmer.getName() : "Unknown",
+                    totals.getRecordCount(),
+                    totals.getTotalLiters(),
+                    totals.getAverageFat(),
+                    totals.getAverageSnf(),
+                    gross,
+                    deductions,
+                    PaymentStatementEngine.roundMoney(gross - deductions)
+            ));
+            center.merge(totals);
+            totalDeductions += deductions;
+        }
+
+        double grossAmount = PaymentStatementEngine.roundMoney(center.getTotalAmount());
+        log.info("Payment statements computed: dairyCenterId={}, period={}, records={}, farmers={}, took={}ms",
+                dairyCenterId, nepaliPeriod, rows.size(), statements.size(), System.currentTimeMillis() - start);
+
+        return new PaymentStatementResponse(
+                dairyCenterId,
+                NepaliPeriod.monthString(nepaliPeriod),
+                NepaliPeriod.yearString(nepaliPeriod),
+                statements.size(),
+                center.getTotalLiters(),
+                grossAmount,
+                PaymentStatementEngine.roundMoney(totalDeductions),
+                PaymentStatementEngine.roundMoney(grossAmount - totalDeductions),
+                statements
+        );
+    }
+
     /**
      * Load all farmers for a dairy center into a map for quick lookup.
      */
@@ -140,6 +631,7 @@ public class MilkRecordServiceImpl implements MilkRecordService {
      * No farmer validation - records stored by memberCode.
      * Farmers can register later and see their historical data.
      * Allows multiple records per day (morning/evening shifts).
+     * If the center has a rate chart, each row's Rate/Amount is verified (or recomputed) against it.
      */
     private CsvUploadResponse processBatches(
             List<CsvParser.ParsedMilkRecord> parsedRecords,
@@ -148,6 +640,15 @@ public class MilkRecordServiceImpl implements MilkRecordService {
         int totalRecords = parsedRecords.size();
         int successCount = 0;
         List<CsvUploadResponse.ErrorDetail> errors = new ArrayList<>();
+        List<CsvUploadResponse.RateMismatch> rateMismatches = new ArrayList<>();
+        Set<FarmerMonthRecordCache.Key> touchedKeys = new HashSet<>();
+        List<MilkColumnRow> savedRows = new ArrayList<>(parsedRecords.size());
+        List<CsvUploadResponse.Anomaly> anomalies = new ArrayList<>();
+        List<MilkAnomaly> anomalyRows = new ArrayList<>();
+        MilkAnomalyDetector.Pending anomalyBaseline = new MilkAnomalyDetector.Pending();
+        CompiledRateChart rateChart = rateChartEngine.forCenter(dairyCenter.getId()).orElse(null);
+        milkAnomalyDetector.prepare(dairyCenter.getId());  // Before any rows of this upload are written
+        Set<Integer> archivedFiscalYears = milkArchiveStore.archivedFiscalYears(dairyCenter.getId());
 
         List<MilkRecord> batch = new ArrayList<>(BATCH_SIZE);
 
@@ -160,6 +661,22 @@ public class MilkRecordServiceImpl implements MilkRecordService {
                     continue;
                 }
 
+                // Closed fiscal years live in archive files; late rows for them would never be read
+                int fiscalYear = NepaliPeriod.fiscalYear(parsed.getNepaliPeriod());
+                if (archivedFiscalYears.contains(fiscalYear)) {
+                    errors.add(new CsvUploadResponse.ErrorDetail(parsed.getRowNumber(),
+                            "Fiscal year " + NepaliPeriod.fiscalYearLabel(fiscalYear) + " is archived"));
+                    continue;
+                }
+
+                // Verify analyzer Rate/Amount against the center's rate chart (if any)
+                if (rateChart != null) {
+                    CsvUploadResponse.RateMismatch mismatch = checkRate(parsed, rateChart);
+                    if (mismatch != null) {
+                        rateMismatches.add(mismatch);
+                    }
+                }
+
                 // Create MilkRecord entity - NO VALIDATION
                 // - No farmer check (can register later)
                 // - No duplicate check (morning/evening shifts allowed)
@@ -178,13 +695,19 @@ public class MilkRecordServiceImpl implements MilkRecordService {
                         parsed.getRemarks(),
                         dairyCenter
                 );
+                record.setNepaliPeriod(parsed.getNepaliPeriod());
+                record.setShift(MilkShift.fromCollectionTime(parsed.getCollectionTime()));
+                checkAnomalies(parsed.getRowNumber(), record, anomalyBaseline, anomalies, anomalyRows);
 
                 batch.add(record);
+                touchedKeys.add(new FarmerMonthRecordCache.Key(
+                        dairyCenter.getId(), record.getMemberCode(), record.getNepaliPeriod()));
                 successCount++;
 
                 // Save batch when it reaches BATCH_SIZE
                 if (batch.size() >= BATCH_SIZE) {
-                    milkRecordRepository.saveAll(batch);
+                    saveBatch(batch, dairyCenter.getId());
+                    batch.forEach(saved -> savedRows.add(MilkColumnRow.of(saved)));
                     log.debug("Saved batch of {} records", batch.size());
                     batch.clear();
                 }
@@ -199,25 +722,235 @@ public class MilkRecordServiceImpl implements MilkRecordService {
 
         // Save remaining records in batch
         if (!batch.isEmpty()) {
-            milkRecordRepository.saveAll(batch);
+            saveBatch(batch, dairyCenter.getId());
+            batch.forEach(saved -> savedRows.add(MilkColumnRow.of(saved)));
             log.debug("Saved final batch of {} records", batch.size());
         }
 
         int failedCount = totalRecords - successCount;
 
-        return new CsvUploadResponse(totalRecords, successCount, failedCount, errors);
+        // Drop cached farmer months this upload touched, once the new rows are visible
+        AfterCommit.run(() -> farmerMonthRecordCache.invalidate(touchedKeys));
+        // Leaderboard totals of the touched months are stale now
+        Set<Integer> touchedPeriods = touchedKeys.stream()
+                .map(FarmerMonthRecordCache.Key::nepaliPeriod)
+                .collect(Collectors.toSet());
+        AfterCommit.run(() -> leaderboardCache.invalidate(dairyCenter.getId(), touchedPeriods));
+        // Keep the center's analytics columns and anomaly baselines current without a reload
+        AfterCommit.run(() -> {
+            columnarMilkStore.append(dairyCenter.getId(), savedRows);
+            milkAnomalyDetector.apply(anomalyBaseline);
+        });
+
+        if (!rateMismatches.isEmpty()) {
+            log.warn("Rate chart mismatches: dairyCenterId={}, rows={}", dairyCenter.getId(), rateMismatches.size());
+        }
+        if (!anomalyRows.isEmpty()) {
+            milkAnomalyRepository.saveAll(anomalyRows);
+            log.warn("Milk anomalies flagged: dairyCenterId={}, values={}", dairyCenter.getId(), anomalyRows.size());
+        }
+
+        CsvUploadResponse response = new CsvUploadResponse(totalRecords, successCount, failedCount, errors);
+        response.setRateMismatches(rateMismatches);
+        response.setAnomalies(anomalies);
+        return response;
     }
 
     /**
-     * Map MilkRecord entity to response DTO.
+     * Compare a row's Rate/Amount with the compiled rate chart.
+     * In RECOMPUTE mode, mismatching rows get chart Rate/Amount (rows outside the chart are kept as-is).
+     * @return mismatch detail, or null if the row agrees with the chart
      */
-    private MilkRecordResponse mapToResponse(MilkRecord record) {
-        // Get farmer name from repository
-        String farmerName = farmerRepository.findByDairyGivenIdAndDairyCenterId(
-                        record.getMemberCode(), record.getDairyCenterId())
+    private CsvUploadResponse.RateMismatch checkRate(CsvParser.ParsedMilkRecord parsed, CompiledRateChart chart) {
+        double chartRate = chart.rateFor(parsed.getFatPercentage(), parsed.getSnf());
+        double csvRate = parsed.getRate();
+        double csvAmount = parsed.getAmount();
+
+        if (Double.isNaN(chartRate)) {
+            return new CsvUploadResponse.RateMismatch(parsed.getRowNumber(), parsed.getMemberCode(),
+                    parsed.getFatPercentage(), parsed.getSnf(), csvRate, null, csvAmount, null, false);
+        }
+
+        double expectedAmount = PaymentStatementEngine.roundMoney(parsed.getVolumeLiters() * chartRate);
+        if (Math.abs(csvRate - chartRate) <= chart.getRateTolerance()
+                && Math.abs(csvAmount - expectedAmount) <= chart.getAmountTolerance()) {
+            return null;
+        }
+
+        boolean recompute = chart.getMode() == RateChartMode.RECOMPUTE;
+        if (recompute) {
+            parsed.setRate(chartRate);
+            parsed.setAmount(expectedAmount);
+        }
+        return new CsvUploadResponse.RateMismatch(parsed.getRowNumber(), parsed.getMemberCode(),
+                parsed.getFatPercentage(), parsed.getSnf(), csvRate, chartRate, csvAmount, expectedAmount, recompute);
+    }
+
+    /**
+     * Run the ingest-time anomaly detector on a row; flagged values go to the response and milk_anomalies.
+     */
+    private void checkAnomalies(int rowNumber, MilkRecord record, MilkAnomalyDetector.Pending baseline,
+                                List<CsvUploadResponse.Anomaly> anomalies, List<MilkAnomaly> anomalyRows) {
+        if (record.getVolumeLiters() == null || record.getFatPercentage() == null || record.getSnf() == null) {
+            return;
+        }
+        Long dairyCenterId = record.getDairyCenter().getId();  // dairyCenterId column is read-only until reload
+        List<MilkAnomalyDetector.Hit> hits = milkAnomalyDetector.check(baseline, dairyCenterId,
+                record.getMemberCode(), record.getShift(),
+                record.getVolumeLiters(), record.getFatPercentage(), record.getSnf());
+        for (MilkAnomalyDetector.Hit hit : hits) {
+            anomalies.add(new CsvUploadResponse.Anomaly(rowNumber, record.getMemberCode(), hit.metric().name(),
+                    hit.value(), hit.expected(), hit.deviation()));
+            anomalyRows.add(new MilkAnomaly(dairyCenterId, record.getMemberCode(),
+                    record.getCollectionDate(), record.getCollectionTime(), record.getShift(), hit.metric(),
+                    hit.value(), hit.expected(), hit.deviation()));
+        }
+    }
+
+    /**
+     * Persist one batch and fold it into the derived monthly summaries and shift rollups.
+     */
+    private void saveBatch(List<MilkRecord> batch, Long dairyCenterId) {
+        long nextSeq = changeSequenceAllocator.reserve(dairyCenterId, batch.size());
+        for (MilkRecord record : batch) {
+            record.setChangeSeq(nextSeq++);
+        }
+        milkRecordRepository.saveAll(batch);
+        monthlySummaryUpdater.apply(dairyCenterId, batch);
+        shiftRollupUpdater.apply(dairyCenterId, batch);
+    }
+
+    /**
+     * Map accumulated totals to a dashboard shift row.
+     */
+    private DailyCollectionResponse.ShiftTotals mapToShiftTotals(String shift, MilkTotals totals) {
+        return new DailyCollectionResponse.ShiftTotals(
+                shift,
+                totals.getRecordCount(),
+                totals.getTotalLiters(),
+                totals.getAverageFat(),
+                totals.getAverageSnf(),
+                totals.getTotalAmount()
+        );
+    }
+
+    /**
+     * Map FarmerMonthlySummary entity to response DTO.
+     */
+    private FarmerMonthlySummaryResponse mapToSummaryResponse(FarmerMonthlySummary summary) {
+        MilkTotals totals = new MilkTotals(summary.getRecordCount(), summary.getTotalLiters(),
+                summary.getWeightedFat(), summary.getWeightedSnf(), summary.getTotalAmount());
+
+        return new FarmerMonthlySummaryResponse(
+                summary.getMemberCode(),
+                NepaliPeriod.monthString(summary.getNepaliPeriod()),
+                NepaliPeriod.yearString(summary.getNepaliPeriod()),
+                totals.getRecordCount(),
+                totals.getTotalLiters(),
+                totals.getAverageFat(),
+                totals.getAverageSnf(),
+                totals.getTotalAmount(),
+                summary.getDairyCenterId(),
+                summary.getUpdatedAt()
+        );
+    }
+
+    /**
+     * Farmer name for a member code, or "Unknown" if the farmer has not registered yet.
+     */
+    private String lookupFarmerName(String memberCode, Long dairyCenterId) {
+        return farmerRepository.findByDairyGivenIdAndDairyCenterId(memberCode, dairyCenterId)
                 .map(Farmer::getName)
                 .orElse("Unknown");
+    }
+
+    /**
+     * Dairy center name, only when the sparse fieldset asks for it.
+     */
+    private String lookupCenterName(Set<MilkRecordField> fields, Long dairyCenterId) {
+        if (!fields.contains(MilkRecordField.DAIRY_CENTER_NAME)) {
+            return null;
+        }
+        return dairyCenterRepository.findById(dairyCenterId)
+                .map(DairyCenter::getName)
+                .orElse(null);
+    }
 
+    /**
+     * Map a sparse projection row to a response DTO; fields outside the selection stay null
+     * (and are dropped at serialization by the milkRecordFields filter).
+     */
+    private MilkRecordResponse mapProjection(Tuple row, Set<MilkRecordField> fields,
+                                             Function<String, String> farmerNames,
+                                             String centerName) {
+        MilkRecordResponse response = new MilkRecordResponse();
+        for (MilkRecordField field : fields) {
+            switch (field) {
+                case ID -> response.setId(row.get(field.getProperty(), Long.class));
+                case COLLECTION_DATE -> response.setCollectionDate(row.get(field.getProperty(), LocalDate.class));
+                case NEPALI_DATE -> response.setNepaliDate(row.get(field.getProperty(), String.class));
+                case NEPALI_MONTH -> response.setNepaliMonth(row.get(field.getProperty(), String.class));
+                case NEPALI_YEAR -> response.setNepaliYear(row.get(field.getProperty(), String.class));
+                case COLLECTION_TIME -> response.setCollectionTime(row.get(field.getProperty(), LocalTime.class));
+                case SHIFT -> {
+                    MilkShift shift = row.get(field.getProperty(), MilkShift.class);
+                    response.setShift(shift != null ? shift.name() : null);
+                }
+                case MEMBER_CODE -> response.setMemberCode(row.get(field.getProperty(), String.class));
+                case FARMER_NAME -> response.setFarmerName(
+                        farmerNames.apply(row.get(MilkRecordField.MEMBER_CODE.getProperty(), String.class)));
+                case VOLUME_LITERS -> response.setVolumeLiters(row.get(field.getProperty(), Double.class));
+                case FAT_PERCENTAGE -> response.setFatPercentage(row.get(field.getProperty(), Double.class));
+                case SNF -> response.setSnf(row.get(field.getProperty(), Double.class));
+                case RATE -> response.setRate(row.get(field.getProperty(), Double.class));
+                case AMOUNT -> response.setAmount(row.get(field.getProperty(), Double.class));
+                case REMARKS -> response.setRemarks(row.get(field.getProperty(), String.class));
+                case DAIRY_CENTER_ID -> response.setDairyCenterId(row.get(field.getProperty(), Long.class));
+                case DAIRY_CENTER_NAME -> response.setDairyCenterName(centerName);
+                case CREATED_AT -> response.setCreatedAt(row.get(field.getProperty(), LocalDateTime.class));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Map MilkRecord entity to response DTO.
+     */
+    private MilkRecordResponse mapToResponse(MilkRecord record) {
+        return mapToResponse(record, lookupFarmerName(record.getMemberCode(), record.getDairyCenterId()));
+    }
+
+    /**
+     * Map an archived row to the same response DTO as a live record.
+     */
+    private MilkRecordResponse mapArchived(MilkArchiveRow row, String farmerName, Long dairyCenterId,
+                                           String centerName) {
+        return new MilkRecordResponse(
+                row.id(),
+                row.collectionDate(),
+                row.nepaliDate(),
+                row.nepaliPeriod() != null ? NepaliPeriod.monthString(row.nepaliPeriod()) : null,
+                row.nepaliPeriod() != null ? NepaliPeriod.yearString(row.nepaliPeriod()) : null,
+                row.collectionTime(),
+                row.shift() != null ? row.shift().name() : null,
+                row.memberCode(),
+                farmerName,
+                row.volumeLiters(),
+                row.fatPercentage(),
+                row.snf(),
+                row.rate(),
+                row.amount(),
+                row.remarks(),
+                dairyCenterId,
+                centerName,
+                row.createdAt()
+        );
+    }
+
+    /**
+     * Map MilkRecord entity to response DTO with an already resolved farmer name.
+     */
+    private MilkRecordResponse mapToResponse(MilkRecord record, String farmerName) {
         return new MilkRecordResponse(
                 record.getId(),
                 record.getCollectionDate(),
@@ -225,6 +958,7 @@ public class MilkRecordServiceImpl implements MilkRecordService {
                 record.getNepaliMonth(),
                 record.getNepaliYear(),
                 record.getCollectionTime(),
+                record.getShift() != null ? record.getShift().name() : null,
                 record.getMemberCode(),
                 farmerName,
                 record.getVolumeLiters(),
@@ -0,0 +1,99 @@
+package com.digitaldairy.service.impl;
+
+/**
+ * RateChartServiceImpl: Implements rate chart management.
+ *
+ * Business Logic:
+ * - Validates the anchor grid by compiling it before saving (bad grids never reach ingestion)
+ * - One chart per dairy center; saving replaces all points
+ * - Drops the center's compiled chart from RateChartEngine after commit
+ */
+
+import com.digitaldairy.dto.request.RateChartRequest;
+import com.digitaldairy.dto.response.RateChartResponse;
+import com.digitaldairy.exception.TenantNotFoundException;
+import com.digitaldairy.model.RateChart;
+import com.digitaldairy.model.RateChartMode;
+import com.digitaldairy.model.RateChartPoint;
+import com.digitaldairy.repository.DairyCenterRepository;
+import com.digitaldairy.repository.RateChartRepository;
+import com.digitaldairy.service.RateChartService;
+import com.digitaldairy.service.support.RateChartEngine;
+import com.digitaldairy.util.AfterCommit;
+import com.digitaldairy.util.CompiledRateChart;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class RateChartServiceImpl implements RateChartService {
+
+    private final RateChartRepository rateChartRepository;
+    private final DairyCenterRepository dairyCenterRepository;
+    private final RateChartEngine rateChartEngine;
+
+    @Override
+    public RateChartResponse saveRateChart(RateChartRequest request) {
+        Long dairyCenterId = request.getDairyCenterId();
+        log.info("Saving rate chart: dairyCenterId={}, points={}, mode={}",
+                dairyCenterId, request.getPoints().size(), request.getMode());
+
+        if (!dairyCenterRepository.existsById(dairyCenterId)) {
+            throw new TenantNotFoundException(dairyCenterId);
+        }
+
+        RateChart chart = rateChartRepository.findByDairyCenterId(dairyCenterId)
+                .orElseGet(() -> new RateChart(dairyCenterId));
+
+        List<RateChartPoint> points = request.getPoints().stream()
+                .map(p -> new RateChartPoint(p.getFatPercentage(), p.getSnf(), p.getRate()))
+                .collect(Collectors.toList());
+        chart.getPoints().clear();
+        chart.getPoints().addAll(points);
+        chart.setMode(request.getMode() != null ? request.getMode() : RateChartMode.VERIFY);
+        if (request.getRateTolerance() != null) {
+            chart.setRateTolerance(request.getRateTolerance());
+        }
+        if (request.getAmountTolerance() != null) {
+            chart.setAmountTolerance(request.getAmountTolerance());
+        }
+
+        // Fail fast on incomplete grids (throws InvalidRequestException → 400)
+        CompiledRateChart.compile(chart);
+
+        RateChart saved = rateChartRepository.saveAndFlush(chart);
+        AfterCommit.run(() -> rateChartEngine.invalidate(dairyCenterId));
+
+        log.info("Rate chart saved: id={}, dairyCenterId={}", saved.getId(), dairyCenterId);
+        return mapToResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RateChartResponse getRateChart(Long dairyCenterId) {
+        log.debug("Fetching rate chart: dairyCenterId={}", dairyCenterId);
+
+        return rateChartRepository.findByDairyCenterId(dairyCenterId)
+                .map(this::mapToResponse)
+                .orElse(null);
+    }
+
+    private RateChartResponse mapToResponse(RateChart chart) {
+        return new RateChartResponse(
+                chart.getId(),
+                chart.getDairyCenterId(),
+                chart.getMode().name(),
+                chart.getRateTolerance(),
+                chart.getAmountTolerance(),
+                List.copyOf(chart.getPoints()),
+                chart.getUpdatedAt()
+        );
+    }
+}
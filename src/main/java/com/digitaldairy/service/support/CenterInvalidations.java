@@ -0,0 +1,46 @@
+package com.digitaldairy.service.support;
+
+/**
+ * CenterInvalidations: When each dairy center's cached data was last invalidated, for the replica
+ * staleness check of cache fills (see ReplicaRoutingConfig.maxStalenessMillis). Per center, so an upload at one
+ * center doesn't stop the others' caches from filling while replicas catch up.
+ * Entries older than the staleness window are pruned on each invalidation. Not thread-safe; callers synchronize.
+ */
+
+import com.digitaldairy.config.ReplicaRoutingConfig;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class CenterInvalidations {
+
+    private final long maxStalenessMillis;
+    private final Map<Long, Long> invalidatedAtMillis = new HashMap<>();
+
+    CenterInvalidations(long maxStalenessMillis) {
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    static CenterInvalidations forReplicas(ObjectProvider<ReplicaRoutingConfig> replicaRouting) {
+        ReplicaRoutingConfig config = replicaRouting.getIfAvailable();
+        return new CenterInvalidations(config != null ? config.maxStalenessMillis() : 0);
+    }
+
+    void invalidated(Long dairyCenterId) {
+        invalidatedAtMillis.values().removeIf(this::settledSince);
+        invalidatedAtMillis.put(dairyCenterId, System.currentTimeMillis());
+    }
+
+    /**
+     * Whether data of the center loaded now may be cached (no replica read can predate its last invalidation).
+     */
+    boolean settled(Long dairyCenterId) {
+        Long at = invalidatedAtMillis.get(dairyCenterId);
+        return at == null || settledSince(at);
+    }
+
+    private boolean settledSince(long invalidatedAtMillis) {
+        return System.currentTimeMillis() - invalidatedAtMillis >= maxStalenessMillis;
+    }
+}
@@ -0,0 +1,51 @@
+package com.digitaldairy.service.support;
+
+/**
+ * CenterMonthVersions: Bumps the per-(center, month) change counters behind the center-month ETag.
+ * Call inside the writing transaction, holding the center's sync-sequence lock (ChangeSequenceAllocator),
+ * so the counter commits with the change and a month's first insert never races another writer.
+ */
+
+import com.digitaldairy.model.CenterMonthVersion;
+import com.digitaldairy.repository.CenterMonthVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class CenterMonthVersions {
+
+    private final CenterMonthVersionRepository centerMonthVersionRepository;
+
+    /**
+     * Increment the counters of the given months, starting new months at 1.
+     */
+    public void bump(Long dairyCenterId, Collection<Integer> nepaliPeriods) {
+        if (nepaliPeriods.isEmpty()) {
+            return;
+        }
+        Set<Integer> missing = new HashSet<>(nepaliPeriods);
+        missing.removeAll(centerMonthVersionRepository.findExistingPeriods(dairyCenterId, missing));
+        if (missing.size() < nepaliPeriods.size()) {
+            centerMonthVersionRepository.bump(dairyCenterId, nepaliPeriods);
+        }
+        if (!missing.isEmpty()) {
+            List<CenterMonthVersion> created = missing.stream()
+                    .map(period -> new CenterMonthVersion(dairyCenterId, period))
+                    .toList();
+            centerMonthVersionRepository.saveAll(created);
+        }
+    }
+
+    /**
+     * Current counter of a month (0 if nothing was written since counters were introduced).
+     */
+    public long version(Long dairyCenterId, int nepaliPeriod) {
+        return centerMonthVersionRepository.findVersion(dairyCenterId, nepaliPeriod).orElse(0L);
+    }
+}
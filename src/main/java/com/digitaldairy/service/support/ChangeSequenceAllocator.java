@@ -0,0 +1,65 @@
+package com.digitaldairy.service.support;
+
+/**
+ * ChangeSequenceAllocator: Hands out monotonically increasing change_seq blocks per dairy center.
+ * Must run inside the writing transaction: the sequence row stays locked until commit, which
+ * serializes uploads of one center and keeps commit order equal to sequence order.
+ * A center's row is created on its first reserve in a separate transaction; when two first
+ * uploads race, the loser's insert hits the primary key and both then lock the winner's row.
+ */
+
+import com.digitaldairy.model.SyncSequence;
+import com.digitaldairy.repository.SyncSequenceRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class ChangeSequenceAllocator {
+
+    private final SyncSequenceRepository syncSequenceRepository;
+    private final TransactionTemplate createTransaction;
+
+    public ChangeSequenceAllocator(SyncSequenceRepository syncSequenceRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.syncSequenceRepository = syncSequenceRepository;
+        // Own transaction, so a duplicate-key failure doesn't mark the caller's upload rollback-only
+        this.createTransaction = new TransactionTemplate(transactionManager);
+        this.createTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserve count sequence numbers for a center.
+     * @return first reserved number (block is first .. first + count - 1)
+     */
+    public long reserve(Long dairyCenterId, int count) {
+        SyncSequence sequence = lock(dairyCenterId);
+        long first = sequence.getLastSeq() + 1;
+        sequence.setLastSeq(sequence.getLastSeq() + count);
+        return first;
+    }
+
+    /**
+     * Lock a center's sequence row until the transaction ends, without reserving numbers.
+     * Derived-table rebuilds take it first, so they never interleave with an upload of the same center.
+     */
+    public SyncSequence lock(Long dairyCenterId) {
+        SyncSequence sequence = syncSequenceRepository.findForUpdate(dairyCenterId).orElse(null);
+        if (sequence == null) {
+            createIfAbsent(dairyCenterId);
+            sequence = syncSequenceRepository.findForUpdate(dairyCenterId)
+                    .orElseThrow(() -> new IllegalStateException("Sync sequence missing for center " + dairyCenterId));
+        }
+        return sequence;
+    }
+
+    private void createIfAbsent(Long dairyCenterId) {
+        try {
+            createTransaction.executeWithoutResult(status -> syncSequenceRepository.insert(dairyCenterId));
+        } catch (DataIntegrityViolationException e) {
+            // Another upload created it first; its committed row is what we lock next
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.digitaldairy.service.support;
+
+/**
+ * ColumnarMilkStore: Per-center in-memory columnar copies of milk_records for analytics (see MilkColumns).
+ * A center is loaded lazily on its first analytics query (one streamed projection, no entities) and then
+ * kept current by ingestion, which appends committed rows instead of reloading.
+ *
+ * Appends and loads are serialized per center. The change_seq order (commit order per center) decides
+ * which appended rows the initial load already contained, so no row is counted twice or missed.
+ * Memory is bounded by app.analytics.columnar.max-rows: once the loaded centers hold more rows, the least
+ * recently queried centers are dropped (they reload on their next query). The center just loaded or
+ * appended to is never dropped, so a single center larger than the budget still works.
+ * Disabled via app.analytics.columnar.enabled=false: each query then builds transient columns.
+ * Metrics: analytics.columnar.rows / analytics.columnar.centers / analytics.columnar.evictions.
+ */
+
+import com.digitaldairy.config.ReplicaRouting;
+import com.digitaldairy.repository.MilkRecordRepository;
+import com.digitaldairy.util.MilkColumnRow;
+import com.digitaldairy.util.MilkColumns;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class ColumnarMilkStore {
+
+    private final MilkRecordRepository milkRecordRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long maxRows;
+    private final Counter evictions;
+
+    private final Map<Long, CenterColumns> centers = new ConcurrentHashMap<>();
+
+    public ColumnarMilkStore(MilkRecordRepository milkRecordRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.analytics.columnar.enabled:true}") boolean enabled,
+                             @Value("${app.analytics.columnar.max-rows:2000000}") long maxRows) {
+        this.milkRecordRepository = milkRecordRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Own connection, so the load can be pinned to the primary even inside a replica-routed request
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxRows = maxRows;
+
+        Gauge.builder("analytics.columnar.rows", this, ColumnarMilkStore::totalRows)
+                .description("Milk records held in columnar analytics memory")
+                .register(meterRegistry);
+        Gauge.builder("analytics.columnar.centers", centers, Map::size)
+                .description("Dairy centers loaded into columnar analytics memory")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("analytics.columnar.evictions")
+                .description("Idle dairy centers dropped from columnar analytics memory to stay within max-rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current snapshot of a center's columns, loading them on first use.
+     */
+    public MilkColumns.View view(Long dairyCenterId) {
+        if (!enabled) {
+            return load(dairyCenterId).view();
+        }
+
+        CenterColumns holder = centers.computeIfAbsent(dairyCenterId, id -> new CenterColumns());
+        holder.lastAccessNanos = System.nanoTime();
+        MilkColumns columns = holder.columns;
+        if (columns != null) {
+            return columns.view();
+        }
+        MilkColumns.View view;
+        synchronized (holder) {
+            if (holder.columns == null) {
+                MilkColumns loaded = load(dairyCenterId);
+                holder.loadedMaxSeq = loaded.getMaxChangeSeq();
+                holder.columns = loaded;
+            }
+            view = holder.columns.view();
+        }
+        evictIdle(dairyCenterId);
+        return view;
+    }
+
+    /**
+     * Append rows of a committed upload. No-op for centers not loaded yet (their load reads the rows).
+     */
+    public void append(Long dairyCenterId, List<MilkColumnRow> rows) {
+        if (!enabled || rows.isEmpty()) {
+            return;
+        }
+        CenterColumns holder = centers.get(dairyCenterId);
+        if (holder == null) {
+            return;
+        }
+        synchronized (holder) {
+            MilkColumns columns = holder.columns;
+            if (columns == null) {
+                return;
+            }
+            int appended = 0;
+            for (MilkColumnRow row : rows) {
+                // Rows committed before the load are already in the columns
+                if (row.changeSeq() == null || row.changeSeq() > holder.loadedMaxSeq) {
+                    columns.append(row);
+                    appended++;
+                }
+            }
+            columns.publish();
+            log.debug("Appended {} rows to columnar store: dairyCenterId={}", appended, dairyCenterId);
+        }
+        evictIdle(dairyCenterId);
+    }
+
+    /**
+     * Drop a center's columns (reloaded on next query).
+     */
+    public void invalidate(Long dairyCenterId) {
+        centers.remove(dairyCenterId);
+    }
+
+    private MilkColumns load(Long dairyCenterId) {
+        long start = System.nanoTime();
+        // Appends after the load assume it saw every committed row, so never load from a lagging replica
+        MilkColumns columns = ReplicaRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+            MilkColumns loading = new MilkColumns();
+            try (Stream<MilkColumnRow> rows = milkRecordRepository.streamColumnRows(dairyCenterId)) {
+                rows.forEach(loading::append);
+            }
+            loading.publish();
+            return loading;
+        }));
+        log.info("Loaded columnar milk store: dairyCenterId={}, rows={}, took={}ms",
+                dairyCenterId, columns.view().size(), (System.nanoTime() - start) / 1_000_000);
+        return columns;
+    }
+
+    /**
+     * Drop least recently queried centers (except the given one) while the loaded rows exceed max-rows.
+     * A dropped center's in-flight append lands in the detached copy; its reload reads the committed rows.
+     */
+    private void evictIdle(Long keepCenterId) {
+        long rows = totalRows();
+        if (rows <= maxRows) {
+            return;
+        }
+        // Snapshot access times so the sort sees stable keys
+        List<IdleCenter> idle = new ArrayList<>();
+        centers.forEach((id, holder) -> {
+            if (!id.equals(keepCenterId) && holder.columns != null) {
+                idle.add(new IdleCenter(id, holder, holder.lastAccessNanos));
+            }
+        });
+        idle.sort(Comparator.comparingLong(IdleCenter::lastAccessNanos));
+        for (IdleCenter center : idle) {
+            if (rows <= maxRows) {
+                break;
+            }
+            if (centers.remove(center.dairyCenterId(), center.holder())) {
+                int dropped = center.holder().columns.view().size();
+                rows -= dropped;
+                evictions.increment();
+                log.info("Evicted idle center from columnar store: dairyCenterId={}, rows={}",
+                        center.dairyCenterId(), dropped);
+            }
+        }
+    }
+
+    private long totalRows() {
+        long rows = 0;
+        for (CenterColumns holder : centers.values()) {
+            MilkColumns columns = holder.columns;
+            if (columns != null) {
+                rows += columns.view().size();
+            }
+        }
+        return rows;
+    }
+
+    private static final class CenterColumns {
+        private volatile MilkColumns columns;
+        private volatile long lastAccessNanos;
+        private long loadedMaxSeq;
+    }
+
+    private record IdleCenter(Long dairyCenterId, CenterColumns holder, long lastAccessNanos) {
+    }
+}
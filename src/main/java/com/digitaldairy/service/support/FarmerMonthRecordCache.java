@@ -0,0 +1,278 @@
+package com.digitaldairy.service.support;
+
+/**
+ * FarmerMonthRecordCache: Two-tier read cache for a farmer's monthly milk records.
+ * Key: (dairyCenterId, memberCode, nepaliPeriod).
+ *
+ * Tiers:
+ * - Heap: bounded LRU of ready-to-return response lists (hot keys right after a shift upload)
+ * - Off-heap: LRU of JSON-serialized responses in direct ByteBuffers, bounded by total bytes;
+ *   entries evicted from the heap tier are demoted here and promoted back on a hit
+ *
+ * Uploads invalidate exactly the keys a batch touched (after commit). A load that started
+ * before an invalidation is not cached (stamp check), so stale rows never get re-inserted.
+ * Metrics: cache.gets / cache.evictions / cache.size tagged cache=farmerMonthRecords.
+ */
+
+import com.digitaldairy.config.ReplicaRoutingConfig;
+import com.digitaldairy.dto.response.MilkRecordResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class FarmerMonthRecordCache {
+
+    private static final String CACHE_NAME = "farmerMonthRecords";
+
+    private final ObjectMapper objectMapper;
+    private final JavaType listType;
+    private final boolean enabled;
+    private final int heapMaxEntries;
+    private final long offHeapMaxBytes;
+
+    private final LinkedHashMap<Key, List<MilkRecordResponse>> heap = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<Key, ByteBuffer> offHeap = new LinkedHashMap<>(256, 0.75f, true);
+    private long offHeapBytes;
+
+    private final AtomicLong invalidationStamp = new AtomicLong();
+    private final CenterInvalidations invalidations;
+    private final AtomicLong heapHits = new AtomicLong();
+    private final AtomicLong offHeapHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong heapEvictions = new AtomicLong();
+    private final AtomicLong offHeapEvictions = new AtomicLong();
+
+    public FarmerMonthRecordCache(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  ObjectProvider<ReplicaRoutingConfig> replicaRouting,
+                                  @Value("${app.cache.farmer-month.enabled:true}") boolean enabled,
+                                  @Value("${app.cache.farmer-month.heap-entries:5000}") int heapMaxEntries,
+                                  @Value("${app.cache.farmer-month.off-heap-bytes:67108864}") long offHeapMaxBytes) {
+        this.objectMapper = objectMapper;
+        this.listType = objectMapper.getTypeFactory().constructCollectionType(List.class, MilkRecordResponse.class);
+        this.enabled = enabled;
+        this.heapMaxEntries = heapMaxEntries;
+        this.offHeapMaxBytes = offHeapMaxBytes;
+        this.invalidations = CenterInvalidations.forReplicas(replicaRouting);
+        registerMetrics(meterRegistry);
+    }
+
+    /**
+     * Cached records for the key, or null on a miss.
+     */
+    public List<MilkRecordResponse> get(Key key) {
+        if (!enabled) {
+            return null;
+        }
+
+        byte[] serialized;
+        synchronized (this) {
+            List<MilkRecordResponse> hot = heap.get(key);
+            if (hot != null) {
+                heapHits.incrementAndGet();
+                return hot;
+            }
+            ByteBuffer buffer = offHeap.remove(key);
+            if (buffer == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            offHeapBytes -= buffer.capacity();
+            serialized = new byte[buffer.capacity()];
+            buffer.duplicate().get(serialized);
+        }
+
+        try {
+            List<MilkRecordResponse> records = List.copyOf(objectMapper.readValue(serialized, listType));
+            offHeapHits.incrementAndGet();
+            Demoted demoted;
+            synchronized (this) {
+                demoted = putHeap(key, records);
+            }
+            demote(demoted);
+            return records;
+        } catch (IOException e) {
+            log.warn("Dropping unreadable off-heap cache entry {}: {}", key, e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Stamp to take before loading from the database; pass it to put().
+     */
+    public long stamp() {
+        return invalidationStamp.get();
+    }
+
+    /**
+     * Cache loaded records unless an invalidation happened since the stamp was taken.
+     * @return the (immutable) list that was cached or should be returned to the caller
+     */
+    public List<MilkRecordResponse> put(Key key, List<MilkRecordResponse> records, long stamp) {
+        List<MilkRecordResponse> immutable = List.copyOf(records);
+        if (!enabled) {
+            return immutable;
+        }
+        Demoted demoted = null;
+        synchronized (this) {
+            // Also skip while a replica read may predate the center's last invalidation (read-replica routing)
+            if (invalidationStamp.get() == stamp && invalidations.settled(key.dairyCenterId())) {
+                demoted = putHeap(key, immutable);
+            }
+        }
+        demote(demoted);
+        return immutable;
+    }
+
+    /**
+     * Drop the given keys from both tiers (called after an upload commits).
+     */
+    public void invalidate(Collection<Key> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            invalidationStamp.incrementAndGet();
+            for (Key key : keys) {
+                invalidations.invalidated(key.dairyCenterId());
+                heap.remove(key);
+                ByteBuffer buffer = offHeap.remove(key);
+                if (buffer != null) {
+                    offHeapBytes -= buffer.capacity();
+                }
+            }
+        }
+        log.debug("Invalidated {} farmer month cache keys", keys.size());
+    }
+
+    /**
+     * Drop every cached month of one member (e.g., the farmer registered and their name changed).
+     */
+    public void invalidateMember(Long dairyCenterId, String memberCode) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            invalidationStamp.incrementAndGet();
+            invalidations.invalidated(dairyCenterId);
+            heap.keySet().removeIf(key -> key.dairyCenterId().equals(dairyCenterId) && key.memberCode().equals(memberCode));
+            Iterator<Map.Entry<Key, ByteBuffer>> it = offHeap.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, ByteBuffer> entry = it.next();
+                if (entry.getKey().dairyCenterId().equals(dairyCenterId) && entry.getKey().memberCode().equals(memberCode)) {
+                    offHeapBytes -= entry.getValue().capacity();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert into the heap tier; returns the entry it pushed out (to be demoted), or null.
+     * Caller holds the lock.
+     */
+    private Demoted putHeap(Key key, List<MilkRecordResponse> records) {
+        heap.put(key, records);
+        if (heap.size() <= heapMaxEntries) {
+            return null;
+        }
+        Iterator<Map.Entry<Key, List<MilkRecordResponse>>> eldest = heap.entrySet().iterator();
+        Map.Entry<Key, List<MilkRecordResponse>> demoted = eldest.next();
+        eldest.remove();
+        heapEvictions.incrementAndGet();
+        return new Demoted(demoted.getKey(), demoted.getValue(), invalidationStamp.get());
+    }
+
+    /**
+     * Serialize an entry pushed out of the heap tier and move it off-heap. Called without the lock,
+     * so JSON encoding never blocks other readers; dropped if an invalidation or a re-insert raced it.
+     */
+    private void demote(Demoted demoted) {
+        if (demoted == null) {
+            return;
+        }
+        byte[] serialized;
+        try {
+            serialized = objectMapper.writeValueAsBytes(demoted.records());
+        } catch (IOException e) {
+            log.warn("Could not serialize cache entry {} for off-heap tier: {}", demoted.key(), e.getMessage());
+            return;
+        }
+        if (serialized.length > offHeapMaxBytes) {
+            offHeapEvictions.incrementAndGet();
+            return;
+        }
+        synchronized (this) {
+            if (invalidationStamp.get() != demoted.stamp() || heap.containsKey(demoted.key())) {
+                return;
+            }
+            putOffHeap(demoted.key(), serialized);
+        }
+    }
+
+    // Caller holds the lock
+    private void putOffHeap(Key key, byte[] serialized) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(serialized.length);
+        buffer.put(serialized).flip();
+        ByteBuffer previous = offHeap.put(key, buffer);
+        if (previous != null) {
+            offHeapBytes -= previous.capacity();
+        }
+        offHeapBytes += buffer.capacity();
+
+        Iterator<Map.Entry<Key, ByteBuffer>> eldest = offHeap.entrySet().iterator();
+        while (offHeapBytes > offHeapMaxBytes && eldest.hasNext()) {
+            offHeapBytes -= eldest.next().getValue().capacity();
+            eldest.remove();
+            offHeapEvictions.incrementAndGet();
+        }
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", heapHits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit", "tier", "heap").register(registry);
+        FunctionCounter.builder("cache.gets", offHeapHits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit", "tier", "offheap").register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "miss", "tier", "all").register(registry);
+        FunctionCounter.builder("cache.evictions", heapEvictions, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "tier", "heap").register(registry);
+        FunctionCounter.builder("cache.evictions", offHeapEvictions, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "tier", "offheap").register(registry);
+        Gauge.builder("cache.size", this, c -> c.heapSize())
+                .tags("cache", CACHE_NAME, "tier", "heap").register(registry);
+        Gauge.builder("cache.size", this, c -> c.offHeapSize())
+                .tags("cache", CACHE_NAME, "tier", "offheap").register(registry);
+        Gauge.builder("cache.offheap.bytes", this, c -> c.offHeapBytes())
+                .tags("cache", CACHE_NAME).baseUnit("bytes").register(registry);
+    }
+
+    private synchronized int heapSize() { return heap.size(); }
+    private synchronized int offHeapSize() { return offHeap.size(); }
+    private synchronized long offHeapBytes() { return offHeapBytes; }
+
+    /**
+     * Cache key: one farmer's records for one Nepali month at one center.
+     */
+    public record Key(Long dairyCenterId, String memberCode, int nepaliPeriod) {}
+
+    private record Demoted(Key key, List<MilkRecordResponse> records, long stamp) {}
+}
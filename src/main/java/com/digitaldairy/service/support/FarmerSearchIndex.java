@@ -0,0 +1,90 @@
+package com.digitaldairy.service.support;
+
+/**
+ * FarmerSearchIndex: Per-center in-memory prefix indexes for staff farmer lookup (see FarmerPrefixIndex).
+ * A center's index is built lazily from its farmer list on the first search; registrations add to it
+ * after commit (copy-on-write), so searches never touch the database afterwards.
+ * Builds and additions are serialized per center, so a registration that commits during a build is not lost.
+ */
+
+import com.digitaldairy.config.ReplicaRouting;
+import com.digitaldairy.model.Farmer;
+import com.digitaldairy.repository.FarmerRepository;
+import com.digitaldairy.util.FarmerPrefixIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class FarmerSearchIndex {
+
+    private final FarmerRepository farmerRepository;
+    private final TransactionTemplate buildTransaction;
+
+    private final Map<Long, CenterIndex> centers = new ConcurrentHashMap<>();
+
+    public FarmerSearchIndex(FarmerRepository farmerRepository, PlatformTransactionManager transactionManager) {
+        this.farmerRepository = farmerRepository;
+        this.buildTransaction = new TransactionTemplate(transactionManager);
+        this.buildTransaction.setReadOnly(true);
+        this.buildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Top matches for a partial name, phone or dairyGivenId.
+     */
+    public List<FarmerPrefixIndex.Entry> search(Long dairyCenterId, String query, int limit) {
+        return indexFor(dairyCenterId).search(query, limit);
+    }
+
+    /**
+     * Add a newly registered farmer (call after the registration commits).
+     * No-op for centers whose index is not built yet; the build will read the farmer.
+     */
+    public void add(Long dairyCenterId, FarmerPrefixIndex.Entry entry) {
+        CenterIndex holder = centers.get(dairyCenterId);
+        if (holder == null) {
+            return;
+        }
+        synchronized (holder) {
+            if (holder.index != null) {
+                holder.index = holder.index.withEntry(entry);
+            }
+        }
+    }
+
+    private FarmerPrefixIndex indexFor(Long dairyCenterId) {
+        CenterIndex holder = centers.computeIfAbsent(dairyCenterId, id -> new CenterIndex());
+        FarmerPrefixIndex index = holder.index;
+        if (index != null) {
+            return index;
+        }
+        synchronized (holder) {
+            if (holder.index == null) {
+                // Built from the primary: a farmer missing on a lagging replica would never be added later
+                List<FarmerPrefixIndex.Entry> farmers = ReplicaRouting.onPrimary(() -> buildTransaction.execute(status ->
+                        farmerRepository.findByDairyCenterId(dairyCenterId).stream()
+                                .map(FarmerSearchIndex::toEntry)
+                                .toList()));
+                holder.index = FarmerPrefixIndex.of(farmers);
+                log.info("Built farmer search index: dairyCenterId={}, farmers={}", dairyCenterId, farmers.size());
+            }
+            return holder.index;
+        }
+    }
+
+    public static FarmerPrefixIndex.Entry toEntry(Farmer farmer) {
+        return new FarmerPrefixIndex.Entry(farmer.getId(), farmer.getName(), farmer.getPhone(), farmer.getDairyGivenId());
+    }
+
+    private static final class CenterIndex {
+        private volatile FarmerPrefixIndex index;
+    }
+}
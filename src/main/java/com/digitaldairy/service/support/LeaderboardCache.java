@@ -0,0 +1,81 @@
+package com.digitaldairy.service.support;
+
+/**
+ * LeaderboardCache: Bounded LRU of per-farmer totals for a (center, period range), the input of leaderboards.
+ * Any metric and k are served from the same cached totals. Uploads invalidate (after commit) every cached
+ * range of the center that contains a period they touched; a load that started before an invalidation
+ * is not cached (stamp check), so stale totals never get re-inserted.
+ */
+
+import com.digitaldairy.config.ReplicaRoutingConfig;
+import com.digitaldairy.util.LeaderboardMetric;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class LeaderboardCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, List<LeaderboardMetric.MemberTotals>> entries =
+            new LinkedHashMap<>(64, 0.75f, true);
+    private long invalidationStamp;
+    private final CenterInvalidations invalidations;
+
+    public LeaderboardCache(@Value("${app.cache.leaderboard.max-entries:500}") int maxEntries,
+                            ObjectProvider<ReplicaRoutingConfig> replicaRouting) {
+        this.maxEntries = maxEntries;
+        this.invalidations = CenterInvalidations.forReplicas(replicaRouting);
+    }
+
+    public synchronized List<LeaderboardMetric.MemberTotals> get(Key key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stamp to take before loading totals; pass it to put().
+     */
+    public synchronized long stamp() {
+        return invalidationStamp;
+    }
+
+    public synchronized void put(Key key, List<LeaderboardMetric.MemberTotals> totals, long stamp) {
+        if (stamp != invalidationStamp || maxEntries <= 0 || !invalidations.settled(key.dairyCenterId())) {
+            return;
+        }
+        entries.put(key, List.copyOf(totals));
+        if (entries.size() > maxEntries) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Drop a center's cached ranges that include any of the given periods.
+     */
+    public synchronized void invalidate(Long dairyCenterId, Collection<Integer> periods) {
+        if (periods.isEmpty()) {
+            return;
+        }
+        invalidationStamp++;
+        invalidations.invalidated(dairyCenterId);
+        entries.keySet().removeIf(key -> key.dairyCenterId().equals(dairyCenterId)
+                && periods.stream().anyMatch(key::covers));
+        log.debug("Invalidated leaderboard ranges: dairyCenterId={}, periods={}", dairyCenterId, periods);
+    }
+
+    /**
+     * Cache key: center and inclusive period range (yyyymm).
+     */
+    public record Key(Long dairyCenterId, int fromPeriod, int toPeriod) {
+        boolean covers(int period) {
+            return period >= fromPeriod && period <= toPeriod;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.digitaldairy.service.support;
+
+/**
+ * MilkAnomalyDetector: Ingest-time outlier check on volume, fat and SNF per (center, farmer, shift).
+ * Keeps an exponentially weighted mean and variance per metric in a primitive-keyed map (64-bit hash
+ * of center/member/shift -> 7 doubles), so each row costs one hash lookup and a few multiplications.
+ *
+ * A value is flagged when it lies more than z-threshold standard deviations from the running mean,
+ * once the key has min-samples observations. Flagged values do not update the baseline, so a run of
+ * adulterated deliveries can't drag the mean toward itself. Normal values are buffered in a Pending
+ * and folded in by apply() after the upload commits, so a rolled-back upload leaves the baseline as is.
+ * State is in memory: a center is primed once per JVM from its columnar analytics copy
+ * (see ColumnarMilkStore) before its first upload, replaying rows in collection order.
+ */
+
+import com.digitaldairy.model.AnomalyMetric;
+import com.digitaldairy.model.MilkShift;
+import com.digitaldairy.util.EwmaStateMap;
+import com.digitaldairy.util.MilkColumns;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class MilkAnomalyDetector {
+
+    // Value block layout per key
+    private static final int COUNT = 0;
+    private static final int VOLUME = 1;   // mean, variance
+    private static final int FAT = 3;
+    private static final int SNF = 5;
+    private static final int STRIDE = 7;
+
+    private static final int STRIPES = 16;
+
+    // Floors on the standard deviation so perfectly steady farmers don't flag on tiny changes
+    private static final double MIN_STD_VOLUME = 0.5;
+    private static final double MIN_STD_FAT = 0.2;
+    private static final double MIN_STD_SNF = 0.2;
+
+    private final ColumnarMilkStore columnarMilkStore;
+    private final boolean enabled;
+    private final double alpha;
+    private final double zThreshold;
+    private final int minSamples;
+
+    private final EwmaStateMap[] stripes = new EwmaStateMap[STRIPES];
+    private final Map<Long, Boolean> primedCenters = new ConcurrentHashMap<>();
+
+    public MilkAnomalyDetector(ColumnarMilkStore columnarMilkStore,
+                               @Value("${app.anomaly.enabled:true}") boolean enabled,
+                               @Value("${app.anomaly.alpha:0.1}") double alpha,
+                               @Value("${app.anomaly.z-threshold:4.0}") double zThreshold,
+                               @Value("${app.anomaly.min-samples:8}") int minSamples) {
+        this.columnarMilkStore = columnarMilkStore;
+        this.enabled = enabled;
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new EwmaStateMap(STRIDE, 1024);
+        }
+    }
+
+    /**
+     * Seed a center's state from its existing records (once per JVM). Call before the upload writes rows.
+     */
+    public void prepare(Long dairyCenterId) {
+        if (!enabled) {
+            return;
+        }
+        primedCenters.computeIfAbsent(dairyCenterId, id -> {
+            MilkColumns.View columns = columnarMilkStore.view(id);
+            int[] memberIds = columns.memberIds();
+            byte[] shifts = columns.shifts();
+            double[] volumes = columns.volumes();
+            double[] fats = columns.fats();
+            double[] snfs = columns.snfs();
+            long[] memberHashes = new long[columns.memberCount()];
+            for (int m = 0; m < memberHashes.length; m++) {
+                memberHashes[m] = hashMember(columns.memberCode(m));
+            }
+            for (long order : collectionOrder(columns)) {
+                int i = (int) (order & Integer.MAX_VALUE);
+                MilkShift shift = shifts[i] == MilkColumns.SHIFT_EVENING ? MilkShift.EVENING : MilkShift.MORNING;
+                observe(key(id, memberHashes[memberIds[i]], shift), volumes[i], fats[i], snfs[i]);
+            }
+            log.debug("Primed anomaly detector: dairyCenterId={}, rows={}", id, columns.size());
+            return Boolean.TRUE;
+        });
+    }
+
+    /**
+     * Check one row against its farmer/shift baseline; a normal row is buffered in pending for apply().
+     * @return flagged metrics (empty for normal rows)
+     */
+    public List<Hit> check(Pending pending, Long dairyCenterId, String memberCode, MilkShift shift,
+                           double volume, double fat, double snf) {
+        if (!enabled) {
+            return Collections.emptyList();
+        }
+        long key = key(dairyCenterId, hashMember(memberCode), shift);
+        List<Hit> hits = detect(key, volume, fat, snf);
+        if (hits.isEmpty()) {
+            pending.add(key, volume, fat, snf);  // Flagged values never reach the baseline
+        }
+        return hits;
+    }
+
+    /**
+     * Fold an upload's normal rows into the baselines. Call once the upload has committed.
+     */
+    public void apply(Pending pending) {
+        for (int i = 0; i < pending.size; i++) {
+            int at = i * 3;
+            observe(pending.keys[i], pending.values[at], pending.values[at + 1], pending.values[at + 2]);
+        }
+    }
+
+    private List<Hit> detect(long key, double volume, double fat, double snf) {
+        EwmaStateMap map = stripes[(int) (key >>> 60) & (STRIPES - 1)];
+        synchronized (map) {
+            int offset = map.find(key);
+            double[] state = map.values();
+            if (offset < 0 || state[offset + COUNT] < minSamples) {
+                return Collections.emptyList();
+            }
+            List<Hit> hits = Collections.emptyList();
+            hits = collect(hits, AnomalyMetric.VOLUME, volume, state, offset + VOLUME, MIN_STD_VOLUME);
+            hits = collect(hits, AnomalyMetric.FAT, fat, state, offset + FAT, MIN_STD_FAT);
+            hits = collect(hits, AnomalyMetric.SNF, snf, state, offset + SNF, MIN_STD_SNF);
+            return hits;
+        }
+    }
+
+    private void observe(long key, double volume, double fat, double snf) {
+        EwmaStateMap map = stripes[(int) (key >>> 60) & (STRIPES - 1)];
+        synchronized (map) {
+            int offset = map.findOrInsert(key);
+            double[] state = map.values();
+            double n = state[offset + COUNT];
+            update(state, offset + VOLUME, volume, n);
+            update(state, offset + FAT, fat, n);
+            update(state, offset + SNF, snf, n);
+            state[offset + COUNT] = n + 1;
+        }
+    }
+
+    /**
+     * Row indexes of a view sorted by collection date, then shift; ties keep load order (collection time).
+     * Each entry packs epoch day, shift and row index into one long so the sort stays primitive.
+     */
+    private static long[] collectionOrder(MilkColumns.View columns) {
+        int[] epochDays = columns.epochDays();
+        byte[] shifts = columns.shifts();
+        long[] order = new long[columns.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = ((long) epochDays[i] << 32) | ((long) shifts[i] << 31) | i;
+        }
+        Arrays.sort(order);
+        return order;
+    }
+
+    private List<Hit> collect(List<Hit> hits, AnomalyMetric metric, double value,
+                              double[] state, int at, double minStd) {
+        double mean = state[at];
+        double std = Math.max(Math.sqrt(state[at + 1]), minStd);
+        double z = (value - mean) / std;
+        if (Math.abs(z) <= zThreshold) {
+            return hits;
+        }
+        if (hits.isEmpty()) {
+            hits = new ArrayList<>(3);
+        }
+        hits.add(new Hit(metric, value, mean, z));
+        return hits;
+    }
+
+    /**
+     * EWMA mean/variance update; the first observation seeds the mean.
+     */
+    private void update(double[] state, int at, double value, double count) {
+        if (count == 0) {
+            state[at] = value;
+            state[at + 1] = 0.0;
+            return;
+        }
+        double diff = value - state[at];
+        double increment = alpha * diff;
+        state[at] += increment;
+        state[at + 1] = (1 - alpha) * (state[at + 1] + diff * increment);
+    }
+
+    private static long hashMember(String memberCode) {
+        // 64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < memberCode.length(); i++) {
+            hash ^= memberCode.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long key(Long dairyCenterId, long memberHash, MilkShift shift) {
+        long key = memberHash ^ (dairyCenterId * 0x9E3779B97F4A7C15L) ^ ((shift.ordinal() + 1) * 0xC2B2AE3D27D4EB4FL);
+        key ^= key >>> 31;
+        key *= 0xBF58476D1CE4E5B9L;
+        key ^= key >>> 29;
+        return key != 0L ? key : 1L;
+    }
+
+    /**
+     * An upload's not-yet-applied normal observations (key + volume/fat/SNF), in row order.
+     * Owned by one upload thread; not thread-safe.
+     */
+    public static final class Pending {
+        private long[] keys = new long[64];
+        private double[] values = new double[64 * 3];
+        private int size;
+
+        private void add(long key, double volume, double fat, double snf) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2 * 3);
+            }
+            int at = size * 3;
+            keys[size] = key;
+            values[at] = volume;
+            values[at + 1] = fat;
+            values[at + 2] = snf;
+            size++;
+        }
+    }
+
+    /**
+     * Flagged metric: observed value, running mean and deviation in standard deviations.
+     */
+    public record Hit(AnomalyMetric metric, double value, double expected, double deviation) {
+    }
+}
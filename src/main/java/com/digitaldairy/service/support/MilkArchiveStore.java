@@ -0,0 +1,129 @@
+package com.digitaldairy.service.support;
+
+/**
+ * MilkArchiveStore: Reads and writes archived fiscal years (one MilkArchiveFile per dairy center and fiscal year)
+ * under app.archive.dir, and answers which periods are archived from the milk_archives registry.
+ * Files are written to a temp file, forced to disk and atomically renamed, so a registered path is always complete.
+ * The last few decoded files are kept in a small LRU, since reads of an archived year tend to come in bursts.
+ */
+
+import com.digitaldairy.model.MilkArchive;
+import com.digitaldairy.repository.MilkArchiveRepository;
+import com.digitaldairy.util.MilkArchiveFile;
+import com.digitaldairy.util.MilkArchiveRow;
+import com.digitaldairy.util.NepaliPeriod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class MilkArchiveStore {
+
+    private final MilkArchiveRepository milkArchiveRepository;
+    private final Path directory;
+    private final int cachedFiles;
+    private final LinkedHashMap<Long, MilkArchiveFile> decoded = new LinkedHashMap<>(8, 0.75f, true);
+
+    public MilkArchiveStore(MilkArchiveRepository milkArchiveRepository,
+                            @Value("${app.archive.dir:./data/archive}") String directory,
+                            @Value("${app.archive.cached-files:4}") int cachedFiles) {
+        this.milkArchiveRepository = milkArchiveRepository;
+        this.directory = Path.of(directory);
+        this.cachedFiles = cachedFiles;
+    }
+
+    /**
+     * Archive holding a center's period, if that period has been archived.
+     */
+    public Optional<MilkArchive> find(Long dairyCenterId, int nepaliPeriod) {
+        return milkArchiveRepository.findFirstByDairyCenterIdAndFromPeriodLessThanEqualAndToPeriodGreaterThanEqual(
+                dairyCenterId, nepaliPeriod, nepaliPeriod);
+    }
+
+    /**
+     * Fiscal years of a center already archived (new rows for these are rejected).
+     */
+    public Set<Integer> archivedFiscalYears(Long dairyCenterId) {
+        return milkArchiveRepository.findByDairyCenterId(dairyCenterId).stream()
+                .map(MilkArchive::getFiscalYear)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Write a center's fiscal year to its archive file (replacing a leftover file from an earlier failed run).
+     * @return Registry row for the file, not yet saved
+     */
+    public MilkArchive write(Long dairyCenterId, int fiscalYear, MilkArchiveFile.Builder rows) throws IOException {
+        Path target = directory.resolve("center-" + dairyCenterId).resolve("fy-" + fiscalYear + ".mlka.gz");
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "fy-" + fiscalYear + "-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 OutputStream out = Channels.newOutputStream(channel)) {
+                rows.writeTo(out);
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new MilkArchive(dairyCenterId, fiscalYear,
+                NepaliPeriod.fiscalYearStart(fiscalYear), NepaliPeriod.fiscalYearEnd(fiscalYear),
+                target.toString(), (long) rows.size(), Files.size(target));
+    }
+
+    /**
+     * Archived rows of one period, for one farmer or (memberCode null) the whole center, grouped by farmer.
+     */
+    public List<MilkArchiveRow> read(MilkArchive archive, String memberCode, int nepaliPeriod) {
+        return load(archive).select(memberCode, nepaliPeriod, nepaliPeriod);
+    }
+
+    private MilkArchiveFile load(MilkArchive archive) {
+        synchronized (decoded) {
+            MilkArchiveFile file = decoded.get(archive.getId());
+            if (file != null) {
+                return file;
+            }
+        }
+
+        MilkArchiveFile file;
+        long start = System.currentTimeMillis();
+        try (InputStream in = Files.newInputStream(Path.of(archive.getFilePath()))) {
+            file = MilkArchiveFile.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read milk archive " + archive.getFilePath(), e);
+        }
+        log.debug("Milk archive decoded: dairyCenterId={}, fiscalYear={}, rows={}, ms={}",
+                archive.getDairyCenterId(), archive.getFiscalYear(), file.size(), System.currentTimeMillis() - start);
+
+        synchronized (decoded) {
+            if (cachedFiles > 0) {
+                decoded.put(archive.getId(), file);
+                if (decoded.size() > cachedFiles) {
+                    Map.Entry<Long, MilkArchiveFile> eldest = decoded.entrySet().iterator().next();
+                    decoded.remove(eldest.getKey());
+                }
+            }
+        }
+        return file;
+    }
+}
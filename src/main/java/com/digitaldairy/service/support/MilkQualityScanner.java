@@ -0,0 +1,146 @@
+package com.digitaldairy.service.support;
+
+/**
+ * MilkQualityScanner: Parallel fork/join scan of a center's milk columns for quality analytics.
+ * The row range is split recursively; each leaf fills fat/SNF histograms (mergeable sketches) and
+ * per-month totals for its slice, and results are merged on the way back up.
+ * Runs on the common ForkJoinPool; small scans stay on the calling thread.
+ */
+
+import com.digitaldairy.exception.InvalidRequestException;
+import com.digitaldairy.util.FixedBinHistogram;
+import com.digitaldairy.util.MilkColumns;
+import com.digitaldairy.util.MilkTotals;
+import com.digitaldairy.util.NepaliPeriod;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+@Component
+public class MilkQualityScanner {
+
+    // Quality values are tracked at 0.01 resolution over 0..20 (fat% and SNF)
+    public static final double VALUE_MIN = 0.0;
+    public static final double VALUE_MAX = 20.0;
+    public static final double VALUE_RESOLUTION = 0.01;
+
+    public static final int MAX_MONTHS = 240;
+
+    private static final int LEAF_ROWS = 64 * 1024;
+
+    /**
+     * Scan rows of the given member (or all members when memberId is -1) within a period range.
+     */
+    public QualityStats scan(MilkColumns.View columns, int memberId, int fromPeriod, int toPeriod) {
+        int fromMonth = monthIndex(fromPeriod);
+        int months = monthIndex(toPeriod) - fromMonth + 1;
+        if (months <= 0 || months > MAX_MONTHS) {
+            throw new InvalidRequestException("Period range must cover 1 to " + MAX_MONTHS + " months");
+        }
+
+        ScanTask task = new ScanTask(columns, memberId, fromPeriod, toPeriod, fromMonth, months, 0, columns.size());
+        if (columns.size() <= LEAF_ROWS) {
+            return task.compute();
+        }
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Continuous month number for a yyyymm period (so month 12 -> next year's 1 is adjacent).
+     */
+    public static int monthIndex(int period) {
+        return NepaliPeriod.year(period) * 12 + NepaliPeriod.month(period) - 1;
+    }
+
+    /**
+     * Merged scan result: quality sketches and per-month totals (index 0 = fromPeriod).
+     */
+    public static final class QualityStats {
+
+        private final FixedBinHistogram fat = new FixedBinHistogram(VALUE_MIN, VALUE_MAX, VALUE_RESOLUTION);
+        private final FixedBinHistogram snf = new FixedBinHistogram(VALUE_MIN, VALUE_MAX, VALUE_RESOLUTION);
+        private final MilkTotals[] monthly;
+
+        QualityStats(int months) {
+            this.monthly = new MilkTotals[months];
+            for (int i = 0; i < months; i++) {
+                monthly[i] = new MilkTotals();
+            }
+        }
+
+        QualityStats merge(QualityStats other) {
+            fat.merge(other.fat);
+            snf.merge(other.snf);
+            for (int i = 0; i < monthly.length; i++) {
+                monthly[i].merge(other.monthly[i]);
+            }
+            return this;
+        }
+
+        public FixedBinHistogram getFat() { return fat; }
+        public FixedBinHistogram getSnf() { return snf; }
+        public MilkTotals[] getMonthly() { return monthly; }
+    }
+
+    private static final class ScanTask extends RecursiveTask<QualityStats> {
+
+        private final MilkColumns.View columns;
+        private final int memberId;
+        private final int fromPeriod;
+        private final int toPeriod;
+        private final int fromMonth;
+        private final int months;
+        private final int start;
+        private final int end;
+
+        ScanTask(MilkColumns.View columns, int memberId, int fromPeriod, int toPeriod,
+                 int fromMonth, int months, int start, int end) {
+            this.columns = columns;
+            this.memberId = memberId;
+            this.fromPeriod = fromPeriod;
+            this.toPeriod = toPeriod;
+            this.fromMonth = fromMonth;
+            this.months = months;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected QualityStats compute() {
+            if (end - start <= LEAF_ROWS) {
+                return scanLeaf();
+            }
+            int mid = (start + end) >>> 1;
+            ScanTask left = new ScanTask(columns, memberId, fromPeriod, toPeriod, fromMonth, months, start, mid);
+            ScanTask right = new ScanTask(columns, memberId, fromPeriod, toPeriod, fromMonth, months, mid, end);
+            left.fork();
+            QualityStats rightStats = right.compute();
+            return left.join().merge(rightStats);
+        }
+
+        private QualityStats scanLeaf() {
+            QualityStats stats = new QualityStats(months);
+            int[] memberIds = columns.memberIds();
+            int[] periods = columns.periods();
+            double[] volumes = columns.volumes();
+            double[] fats = columns.fats();
+            double[] snfs = columns.snfs();
+            double[] amounts = columns.amounts();
+
+            for (int i = start; i < end; i++) {
+                int period = periods[i];
+                if (period < fromPeriod || period > toPeriod) {
+                    continue;
+                }
+                if (memberId >= 0 && memberIds[i] != memberId) {
+                    continue;
+                }
+                stats.fat.add(fats[i]);
+                stats.snf.add(snfs[i]);
+                stats.monthly[monthIndex(period) - fromMonth].add(volumes[i], fats[i], snfs[i], amounts[i]);
+            }
+            return stats;
+        }
+    }
+}
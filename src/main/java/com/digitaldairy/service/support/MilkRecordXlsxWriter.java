@@ -0,0 +1,194 @@
+package com.digitaldairy.service.support;
+
+/**
+ * MilkRecordXlsxWriter: Streams milk records into an XLSX workbook with per-farmer subtotals and center totals.
+ * Uses POI's SXSSF writer: only a window of rows stays in heap, older rows are flushed to a compressed temp file,
+ * so a 100k-row month costs the same memory as a 100-row one. Rows must arrive grouped by member code.
+ */
+
+import com.digitaldairy.util.MilkExportRow;
+import com.digitaldairy.util.MilkTotals;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class MilkRecordXlsxWriter {
+
+    private static final String[] HEADERS = {
+            "Member Code", "Farmer Name", "Date (AD)", "Nepali Date", "Time", "Shift",
+            "Volume (L)", "Fat %", "SNF", "Rate", "Amount"
+    };
+    private static final int[] COLUMN_WIDTHS = {12, 28, 12, 12, 8, 10, 12, 8, 8, 10, 14};  // characters
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final int windowRows;
+
+    public MilkRecordXlsxWriter(@Value("${app.export.xlsx.window-rows:100}") int windowRows) {
+        this.windowRows = windowRows;
+    }
+
+    /**
+     * Write one sheet of records, a subtotal row after each farmer and a center total row.
+     * @param out Destination (not closed)
+     * @param sheetName Sheet name (e.g., "2082-07")
+     * @param title Title line above the header
+     * @param rows Records grouped by member code
+     * @param farmerNames Member code to farmer name
+     * @return Number of record rows written
+     */
+    public long write(OutputStream out, String sheetName, String title, Stream<MilkExportRow> rows,
+                      Function<String, String> farmerNames) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(windowRows);
+        workbook.setCompressTempFiles(true);
+        try {
+            Styles styles = new Styles(workbook);
+            SXSSFSheet sheet = workbook.createSheet(sheetName);
+            for (int i = 0; i < COLUMN_WIDTHS.length; i++) {
+                sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
+            }
+
+            int rowIndex = 0;
+            Row titleRow = sheet.createRow(rowIndex++);
+            text(titleRow, 0, title, styles.bold);
+
+            Row header = sheet.createRow(rowIndex++);
+            for (int i = 0; i < HEADERS.length; i++) {
+                text(header, i, HEADERS[i], styles.bold);
+            }
+            sheet.createFreezePane(0, rowIndex);
+
+            long written = 0;
+            MilkTotals center = new MilkTotals();
+            MilkTotals farmer = null;
+            String currentMember = null;
+            Iterator<MilkExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                MilkExportRow record = iterator.next();
+                if (!Objects.equals(record.memberCode(), currentMember)) {
+                    if (farmer != null) {
+                        totalsRow(sheet.createRow(rowIndex++), "Subtotal " + currentMember, farmer, styles);
+                    }
+                    currentMember = record.memberCode();
+                    farmer = new MilkTotals();
+                }
+                recordRow(sheet.createRow(rowIndex++), record, farmerNames.apply(record.memberCode()), styles);
+                double liters = value(record.volumeLiters());
+                double fat = value(record.fatPercentage());
+                double snf = value(record.snf());
+                double amount = value(record.amount());
+                farmer.add(liters, fat, snf, amount);
+                center.add(liters, fat, snf, amount);
+                written++;
+            }
+            if (farmer != null) {
+                totalsRow(sheet.createRow(rowIndex++), "Subtotal " + currentMember, farmer, styles);
+            }
+            totalsRow(sheet.createRow(rowIndex), "Center Total", center, styles);
+
+            workbook.write(out);
+            return written;
+        } finally {
+            workbook.dispose();  // Delete the temp file backing flushed rows
+            workbook.close();
+        }
+    }
+
+    private void recordRow(Row row, MilkExportRow record, String farmerName, Styles styles) {
+        text(row, 0, record.memberCode(), null);
+        text(row, 1, farmerName, null);
+        if (record.collectionDate() != null) {
+            Cell date = row.createCell(2);
+            date.setCellValue(record.collectionDate());
+            date.setCellStyle(styles.date);
+        }
+        text(row, 3, record.nepaliDate(), null);
+        text(row, 4, record.collectionTime() != null ? record.collectionTime().format(TIME_FORMAT) : null, null);
+        text(row, 5, record.shift() != null ? record.shift().name() : null, null);
+        number(row, 6, record.volumeLiters(), styles.decimal);
+        number(row, 7, record.fatPercentage(), styles.decimal);
+        number(row, 8, record.snf(), styles.decimal);
+        number(row, 9, record.rate(), styles.decimal);
+        number(row, 10, record.amount(), styles.decimal);
+    }
+
+    /**
+     * Totals row: record count under Shift, volume-weighted fat/SNF averages, no rate.
+     */
+    private void totalsRow(Row row, String label, MilkTotals totals, Styles styles) {
+        text(row, 0, label, styles.bold);
+        text(row, 5, totals.getRecordCount() + " records", styles.bold);
+        number(row, 6, totals.getTotalLiters(), styles.boldDecimal);
+        number(row, 7, totals.getAverageFat(), styles.boldDecimal);
+        number(row, 8, totals.getAverageSnf(), styles.boldDecimal);
+        number(row, 10, totals.getTotalAmount(), styles.boldDecimal);
+    }
+
+    private static void text(Row row, int column, String value, CellStyle style) {
+        if (value == null) {
+            return;
+        }
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+    }
+
+    private static void number(Row row, int column, Double value, CellStyle style) {
+        if (value == null) {
+            return;
+        }
+        Cell cell = row.createCell(column);
+        cell.setCellValue(value);
+        cell.setCellStyle(style);
+    }
+
+    private static double value(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    /**
+     * Cell styles are workbook-wide, so they are created once per export rather than per cell.
+     */
+    private static final class Styles {
+        final CellStyle bold;
+        final CellStyle decimal;
+        final CellStyle boldDecimal;
+        final CellStyle date;
+
+        Styles(SXSSFWorkbook workbook) {
+            Font boldFont = workbook.createFont();
+            boldFont.setBold(true);
+            short decimalFormat = workbook.createDataFormat().getFormat("0.00");
+
+            bold = workbook.createCellStyle();
+            bold.setFont(boldFont);
+
+            decimal = workbook.createCellStyle();
+            decimal.setDataFormat(decimalFormat);
+
+            boldDecimal = workbook.createCellStyle();
+            boldDecimal.setFont(boldFont);
+            boldDecimal.setDataFormat(decimalFormat);
+
+            date = workbook.createCellStyle();
+            date.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        }
+    }
+}
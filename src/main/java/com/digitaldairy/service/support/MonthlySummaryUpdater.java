@@ -0,0 +1,85 @@
+package com.digitaldairy.service.support;
+
+/**
+ * MonthlySummaryUpdater: Keeps farmer_monthly_summaries in step with CSV ingestion.
+ * Each saved batch is first grouped in memory by (memberCode, nepaliPeriod), then applied
+ * as one UPDATE per distinct key (insert when the key is new) - not one statement per row (see TotalsUpsert).
+ * Runs inside the upload transaction, so summaries commit or roll back together with the records.
+ * Every apply and rebuild also bumps the touched months' center-month versions (see CenterMonthVersions).
+ */
+
+import com.digitaldairy.model.FarmerMonthlySummary;
+import com.digitaldairy.model.MilkRecord;
+import com.digitaldairy.repository.FarmerMonthlySummaryRepository;
+import com.digitaldairy.repository.MilkRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MonthlySummaryUpdater {
+
+    private final FarmerMonthlySummaryRepository summaryRepository;
+    private final MilkRecordRepository milkRecordRepository;
+    private final CenterMonthVersions centerMonthVersions;
+
+    /**
+     * Add a freshly saved batch of records to the monthly summaries.
+     */
+    public void apply(Long dairyCenterId, List<MilkRecord> batch) {
+        int[] result = TotalsUpsert.apply(batch,
+                record -> new MemberPeriod(record.getMemberCode(), record.getNepaliPeriod()),
+                (key, delta, now) -> summaryRepository.accumulate(dairyCenterId, key.memberCode(), key.nepaliPeriod(),
+                        delta.getRecordCount(), delta.getTotalLiters(), delta.getWeightedFat(),
+                        delta.getWeightedSnf(), delta.getTotalAmount(), now),
+                (key, delta) -> new FarmerMonthlySummary(dairyCenterId, key.memberCode(), key.nepaliPeriod(),
+                        delta.getRecordCount(), delta.getTotalLiters(), delta.getWeightedFat(),
+                        delta.getWeightedSnf(), delta.getTotalAmount()),
+                summaryRepository::saveAll);
+        Set<Integer> periods = batch.stream().map(MilkRecord::getNepaliPeriod).collect(Collectors.toSet());
+        centerMonthVersions.bump(dairyCenterId, periods);
+
+        log.debug("Monthly summaries updated: dairyCenterId={}, keys={}, inserted={}",
+                dairyCenterId, result[0], result[1]);
+    }
+
+    /**
+     * Recompute a center's summaries for one month from the raw milk records.
+     * Data versions continue from the previous rows so ETags never repeat.
+     * @return number of farmer summaries written
+     */
+    public int rebuild(Long dairyCenterId, int nepaliPeriod) {
+        Map<String, Long> previousVersions = new HashMap<>();
+        for (FarmerMonthlySummary existing : summaryRepository.findByDairyCenterIdAndNepaliPeriod(dairyCenterId, nepaliPeriod)) {
+            previousVersions.put(existing.getMemberCode(), existing.getDataVersion());
+        }
+        summaryRepository.deleteByDairyCenterIdAndNepaliPeriod(dairyCenterId, nepaliPeriod);
+
+        List<FarmerMonthlySummary> rebuilt = new ArrayList<>();
+        for (MilkRecordRepository.MemberTotalsRow row :
+                milkRecordRepository.sumByMemberForPeriod(dairyCenterId, nepaliPeriod)) {
+            FarmerMonthlySummary summary = new FarmerMonthlySummary(dairyCenterId, row.getMemberCode(), nepaliPeriod,
+                    row.getRecordCount(), row.getTotalLiters(), row.getWeightedFat(),
+                    row.getWeightedSnf(), row.getTotalAmount());
+            summary.setDataVersion(previousVersions.getOrDefault(row.getMemberCode(), 0L) + 1);
+            rebuilt.add(summary);
+        }
+        summaryRepository.saveAll(rebuilt);
+        centerMonthVersions.bump(dairyCenterId, List.of(nepaliPeriod));
+
+        log.info("Monthly summaries rebuilt: dairyCenterId={}, period={}, farmers={}",
+                dairyCenterId, nepaliPeriod, rebuilt.size());
+        return rebuilt.size();
+    }
+
+    private record MemberPeriod(String memberCode, Integer nepaliPeriod) {}
+}
@@ -0,0 +1,60 @@
+package com.digitaldairy.service.support;
+
+/**
+ * PaymentStatementEngine: Computes every farmer's payment statement for a center and period.
+ * One pass over the period's records using a parallel stream: each worker accumulates
+ * per-farmer MilkTotals for its partition and partial maps are merged at the end.
+ *
+ * Deductions (configurable, default 0):
+ * - app.statement.deduction-per-liter: fixed amount per liter (e.g., transport)
+ * - app.statement.levy-percent: percentage of gross amount (e.g., cooperative levy)
+ */
+
+import com.digitaldairy.util.MilkTotals;
+import com.digitaldairy.util.MilkValues;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+@Component
+public class PaymentStatementEngine {
+
+    @Value("${app.statement.deduction-per-liter:0}")
+    private double deductionPerLiter;
+
+    @Value("${app.statement.levy-percent:0}")
+    private double levyPercent;
+
+    /**
+     * Aggregate records into per-farmer totals (key: memberCode), partitioned across cores.
+     */
+    public Map<String, MilkTotals> aggregateByFarmer(List<MilkValues> rows) {
+        Collector<MilkValues, MilkTotals, MilkTotals> totalsCollector = Collector.of(
+                MilkTotals::new,
+                (totals, row) -> totals.add(row.volumeLiters(), row.fatPercentage(), row.snf(), row.amount()),
+                MilkTotals::merge
+        );
+
+        return rows.parallelStream()
+                .collect(Collectors.groupingBy(MilkValues::memberCode, totalsCollector));
+    }
+
+    /**
+     * Total deductions for a farmer's period totals (rounded to paisa).
+     */
+    public double deductionsFor(MilkTotals totals) {
+        double deductions = totals.getTotalLiters() * deductionPerLiter
+                + totals.getTotalAmount() * levyPercent / 100.0;
+        return roundMoney(deductions);
+    }
+
+    public static double roundMoney(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
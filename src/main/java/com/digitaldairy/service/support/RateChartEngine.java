@@ -0,0 +1,70 @@
+package com.digitaldairy.service.support;
+
+/**
+ * RateChartEngine: Holds each dairy center's compiled rate chart in memory.
+ * Charts are compiled lazily on first use and dropped when the center saves a new chart,
+ * so CSV ingestion verifies every row against a primitive table without DB round-trips.
+ */
+
+import com.digitaldairy.config.ReplicaRouting;
+import com.digitaldairy.repository.RateChartRepository;
+import com.digitaldairy.util.CompiledRateChart;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class RateChartEngine {
+
+    private final RateChartRepository rateChartRepository;
+    private final TransactionTemplate loadTransaction;
+
+    private final Map<Long, Optional<CompiledRateChart>> compiledCharts = new ConcurrentHashMap<>();
+
+    public RateChartEngine(RateChartRepository rateChartRepository, PlatformTransactionManager transactionManager) {
+        this.rateChartRepository = rateChartRepository;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Compiled chart for a center, or empty if the center has no (valid) chart.
+     */
+    public Optional<CompiledRateChart> forCenter(Long dairyCenterId) {
+        return compiledCharts.computeIfAbsent(dairyCenterId, this::load);
+    }
+
+    /**
+     * Drop a center's compiled chart (call after the chart change commits).
+     */
+    public void invalidate(Long dairyCenterId) {
+        compiledCharts.remove(dairyCenterId);
+    }
+
+    private Optional<CompiledRateChart> load(Long dairyCenterId) {
+        // Compiled charts live until the next invalidation, so read the just-saved chart from the primary
+        return ReplicaRouting.onPrimary(() -> loadTransaction.execute(status -> compile(dairyCenterId)));
+    }
+
+    private Optional<CompiledRateChart> compile(Long dairyCenterId) {
+        return rateChartRepository.findByDairyCenterId(dairyCenterId).flatMap(chart -> {
+            try {
+                CompiledRateChart compiled = CompiledRateChart.compile(chart);
+                log.info("Compiled rate chart for dairy center {}: {} points, mode={}",
+                        dairyCenterId, chart.getPoints().size(), chart.getMode());
+                return Optional.of(compiled);
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid rate chart for dairy center {}: {}", dairyCenterId, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.digitaldairy.service.support;
+
+/**
+ * ShiftRollupUpdater: Keeps daily_shift_rollups in step with CSV ingestion.
+ * Groups each saved batch by (collectionDate, shift) and applies one UPDATE per key
+ * (insert when new), inside the upload transaction (see TotalsUpsert).
+ * rebuild() re-derives a day from milk_records, for days ingested before the rollups existed.
+ */
+
+import com.digitaldairy.model.DailyShiftRollup;
+import com.digitaldairy.model.MilkRecord;
+import com.digitaldairy.model.MilkShift;
+import com.digitaldairy.repository.DailyShiftRollupRepository;
+import com.digitaldairy.repository.MilkRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShiftRollupUpdater {
+
+    private final DailyShiftRollupRepository rollupRepository;
+    private final MilkRecordRepository milkRecordRepository;
+
+    /**
+     * Add a freshly saved batch of records to the daily shift rollups.
+     */
+    public void apply(Long dairyCenterId, List<MilkRecord> batch) {
+        int[] result = TotalsUpsert.apply(batch,
+                record -> new DateShift(record.getCollectionDate(), record.getShift()),
+                (key, delta, now) -> rollupRepository.accumulate(dairyCenterId, key.collectionDate(), key.shift(),
+                        delta.getRecordCount(), delta.getTotalLiters(), delta.getWeightedFat(),
+                        delta.getWeightedSnf(), delta.getTotalAmount(), now),
+                (key, delta) -> new DailyShiftRollup(dairyCenterId, key.collectionDate(), key.shift(),
+                        delta.getRecordCount(), delta.getTotalLiters(), delta.getWeightedFat(),
+                        delta.getWeightedSnf(), delta.getTotalAmount()),
+                rollupRepository::saveAll);
+
+        log.debug("Shift rollups updated: dairyCenterId={}, keys={}, inserted={}",
+                dairyCenterId, result[0], result[1]);
+    }
+
+    /**
+     * Recompute a center's shift rollups for one collection date from the raw milk records.
+     * @return number of shift rollups written
+     */
+    public int rebuild(Long dairyCenterId, LocalDate collectionDate) {
+        rollupRepository.deleteByDairyCenterIdAndCollectionDate(dairyCenterId, collectionDate);
+
+        List<DailyShiftRollup> rebuilt = new ArrayList<>();
+        for (MilkRecordRepository.ShiftTotalsRow row :
+                milkRecordRepository.sumByShiftForDate(dairyCenterId, collectionDate)) {
+            rebuilt.add(new DailyShiftRollup(dairyCenterId, collectionDate, row.getShift(),
+                    row.getRecordCount(), row.getTotalLiters(), row.getWeightedFat(),
+                    row.getWeightedSnf(), row.getTotalAmount()));
+        }
+        rollupRepository.saveAll(rebuilt);
+
+        log.info("Shift rollups rebuilt: dairyCenterId={}, date={}, shifts={}",
+                dairyCenterId, collectionDate, rebuilt.size());
+        return rebuilt.size();
+    }
+
+    private record DateShift(LocalDate collectionDate, MilkShift shift) {}
+}
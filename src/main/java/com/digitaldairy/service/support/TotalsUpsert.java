@@ -0,0 +1,59 @@
+package com.digitaldairy.service.support;
+
+/**
+ * TotalsUpsert: Shared upsert loop of the derived totals tables (monthly summaries, shift rollups).
+ * Groups a saved batch in memory by key, applies one accumulate UPDATE per distinct key and
+ * batch-inserts a new row for every key the UPDATE did not match.
+ */
+
+import com.digitaldairy.model.MilkRecord;
+import com.digitaldairy.util.MilkTotals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+final class TotalsUpsert {
+
+    private TotalsUpsert() {}
+
+    /**
+     * Adds a delta to the existing row of a key.
+     */
+    @FunctionalInterface
+    interface Accumulator<K> {
+        /** @return rows updated (0 when the key has no row yet) */
+        int accumulate(K key, MilkTotals delta, LocalDateTime now);
+    }
+
+    /**
+     * @return {distinct keys, rows inserted}
+     */
+    static <K, E> int[] apply(List<MilkRecord> batch,
+                              Function<MilkRecord, K> keyOf,
+                              Accumulator<K> accumulator,
+                              BiFunction<K, MilkTotals, E> newRow,
+                              Consumer<List<E>> insertAll) {
+        Map<K, MilkTotals> deltas = new HashMap<>();
+        for (MilkRecord record : batch) {
+            deltas.computeIfAbsent(keyOf.apply(record), k -> new MilkTotals()).add(record);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<E> inserts = new ArrayList<>();
+        for (Map.Entry<K, MilkTotals> entry : deltas.entrySet()) {
+            if (accumulator.accumulate(entry.getKey(), entry.getValue(), now) == 0) {
+                inserts.add(newRow.apply(entry.getKey(), entry.getValue()));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            insertAll.accept(inserts);
+        }
+        return new int[]{deltas.size(), inserts.size()};
+    }
+}
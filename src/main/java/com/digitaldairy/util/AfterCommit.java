@@ -0,0 +1,27 @@
+package com.digitaldairy.util;
+
+/**
+ * AfterCommit: Runs an action once the current transaction commits (immediately if none is active).
+ * Used to invalidate in-memory state only after the data it mirrors is visible to other readers.
+ */
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class AfterCommit {
+
+    private AfterCommit() {}
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
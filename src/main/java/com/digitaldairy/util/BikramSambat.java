@@ -0,0 +1,241 @@
+package com.digitaldairy.util;
+
+/**
+ * BikramSambat: Table-driven Bikram Sambat (BS) <-> Gregorian (AD) date conversion.
+ * Month lengths for BS 2000-2090 come from the published Nepali calendar (they are not rule-based),
+ * anchored at 1 Baisakh 2000 BS = 14 April 1943 AD. A cumulative day-offset table built once at class load
+ * makes BS->AD a single array lookup and AD->BS a bounded walk (at most a couple of years and twelve months).
+ * Used to turn a Nepali period (yyyymm) into a collection_date range and to derive Ne_date from Coll_date.
+ */
+
+import java.time.LocalDate;
+
+public final class BikramSambat {
+
+    public static final int MIN_YEAR = 2000;
+    public static final int MAX_YEAR = 2090;
+
+    private static final LocalDate ANCHOR = LocalDate.of(1943, 4, 14);  // 1 Baisakh 2000 BS
+
+    // Days in each month (Baisakh..Chaitra) per BS year, from the Nepali calendar (Panchang)
+    private static final int[][] MONTH_DAYS = {
+            {30, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2000
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2001
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2002
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2003
+            {30, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2004
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2005
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2006
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2007
+            {31, 31, 31, 32, 31, 31, 29, 30, 30, 29, 29, 31},  // 2008
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2009
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2010
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2011
+            {31, 31, 31, 32, 31, 31, 29, 30, 30, 29, 30, 30},  // 2012
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2013
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2014
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2015
+            {31, 31, 31, 32, 31, 31, 29, 30, 30, 29, 30, 30},  // 2016
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2017
+            {31, 32, 31, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2018
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2019
+            {31, 31, 31, 32, 31, 31, 30, 29, 30, 29, 30, 30},  // 2020
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2021
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 30},  // 2022
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2023
+            {31, 31, 31, 32, 31, 31, 30, 29, 30, 29, 30, 30},  // 2024
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2025
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2026
+            {30, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2027
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2028
+            {31, 31, 32, 31, 32, 30, 30, 29, 30, 29, 30, 30},  // 2029
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2030
+            {30, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2031
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2032
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2033
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2034
+            {30, 32, 31, 32, 31, 31, 29, 30, 30, 29, 29, 31},  // 2035
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2036
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2037
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2038
+            {31, 31, 31, 32, 31, 31, 29, 30, 30, 29, 30, 30},  // 2039
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2040
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2041
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2042
+            {31, 31, 31, 32, 31, 31, 29, 30, 30, 29, 30, 30},  // 2043
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2044
+            {31, 32, 31, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2045
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2046
+            {31, 31, 31, 32, 31, 31, 30, 29, 30, 29, 30, 30},  // 2047
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2048
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 30},  // 2049
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2050
+            {31, 31, 31, 32, 31, 31, 30, 29, 30, 29, 30, 30},  // 2051
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2052
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 30},  // 2053
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2054
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2055
+            {31, 31, 32, 31, 32, 30, 30, 29, 30, 29, 30, 30},  // 2056
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2057
+            {30, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2058
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2059
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2060
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2061
+            {30, 32, 31, 32, 31, 31, 29, 30, 29, 30, 29, 31},  // 2062
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2063
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2064
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2065
+            {31, 31, 31, 32, 31, 31, 29, 30, 30, 29, 29, 31},  // 2066
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2067
+            {31, 31, 32, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2068
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2069
+            {31, 31, 31, 32, 31, 31, 29, 30, 30, 29, 30, 30},  // 2070
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2071
+            {31, 32, 31, 32, 31, 30, 30, 29, 30, 29, 30, 30},  // 2072
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 31},  // 2073
+            {31, 31, 31, 32, 31, 31, 30, 29, 30, 29, 30, 30},  // 2074
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2075
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 30},  // 2076
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2077
+            {31, 31, 31, 32, 31, 31, 30, 29, 30, 29, 30, 30},  // 2078
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2079
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 29, 30, 30},  // 2080
+            {31, 32, 31, 32, 31, 30, 30, 30, 29, 30, 29, 31},  // 2081
+            {31, 31, 32, 31, 31, 31, 30, 29, 30, 29, 30, 30},  // 2082
+            {31, 31, 32, 31, 31, 30, 30, 30, 29, 30, 30, 30},  // 2083
+            {31, 31, 32, 31, 31, 30, 30, 30, 29, 30, 30, 30},  // 2084
+            {31, 32, 31, 32, 30, 31, 30, 30, 29, 30, 30, 30},  // 2085
+            {30, 32, 31, 32, 31, 30, 30, 30, 29, 30, 30, 30},  // 2086
+            {31, 31, 32, 31, 31, 31, 30, 30, 29, 30, 30, 30},  // 2087
+            {30, 31, 32, 32, 30, 31, 30, 30, 29, 30, 30, 30},  // 2088
+            {30, 32, 31, 32, 31, 30, 30, 30, 29, 30, 30, 30},  // 2089
+            {30, 32, 31, 32, 31, 30, 30, 30, 29, 30, 30, 30},  // 2090
+    };
+
+    // MONTH_START[i] = days from ANCHOR to the first day of month i (i = (year - MIN_YEAR) * 12 + month - 1)
+    private static final int[] MONTH_START = new int[MONTH_DAYS.length * 12 + 1];
+
+    static {
+        int offset = 0;
+        for (int y = 0; y < MONTH_DAYS.length; y++) {
+            for (int m = 0; m < 12; m++) {
+                MONTH_START[y * 12 + m] = offset;
+                offset += MONTH_DAYS[y][m];
+            }
+        }
+        MONTH_START[MONTH_DAYS.length * 12] = offset;
+    }
+
+    private static final long ANCHOR_EPOCH_DAY = ANCHOR.toEpochDay();
+    private static final long END_EPOCH_DAY = ANCHOR_EPOCH_DAY + MONTH_START[MONTH_START.length - 1];  // exclusive
+
+    private BikramSambat() {}
+
+    /**
+     * A date in Bikram Sambat (month 1 = Baisakh).
+     */
+    public record BsDate(int year, int month, int day) {
+
+        /**
+         * Period key (yyyymm) of this date's month.
+         */
+        public int period() {
+            return NepaliPeriod.of(year, month);
+        }
+
+        /**
+         * Same layout as the analyzer's Ne_date column (dd/MM/yyyy, e.g. 09/07/2082).
+         */
+        public String format() {
+            return String.format("%02d/%02d/%d", day, month, year);
+        }
+    }
+
+    /**
+     * Inclusive Gregorian date range.
+     */
+    public record DateRange(LocalDate start, LocalDate end) {}
+
+    /**
+     * Whether a period (yyyymm) falls inside the conversion table.
+     */
+    public static boolean supports(int period) {
+        int year = NepaliPeriod.year(period);
+        int month = NepaliPeriod.month(period);
+        return year >= MIN_YEAR && year <= MAX_YEAR && month >= 1 && month <= 12;
+    }
+
+    /**
+     * Whether a Gregorian date falls inside the conversion table.
+     */
+    public static boolean supports(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        return epochDay >= ANCHOR_EPOCH_DAY && epochDay < END_EPOCH_DAY;
+    }
+
+    public static int daysInMonth(int year, int month) {
+        checkMonth(year, month);
+        return MONTH_DAYS[year - MIN_YEAR][month - 1];
+    }
+
+    /**
+     * Convert a BS date to Gregorian.
+     * @throws IllegalArgumentException if the date is outside the table or not a valid BS date
+     */
+    public static LocalDate toAd(int year, int month, int day) {
+        checkMonth(year, month);
+        if (day < 1 || day > MONTH_DAYS[year - MIN_YEAR][month - 1]) {
+            throw new IllegalArgumentException("Invalid BS day: " + year + "/" + month + "/" + day);
+        }
+        return LocalDate.ofEpochDay(ANCHOR_EPOCH_DAY + MONTH_START[monthIndex(year, month)] + day - 1);
+    }
+
+    /**
+     * Convert a Gregorian date to BS.
+     * @throws IllegalArgumentException if the date is outside the table
+     */
+    public static BsDate toBs(LocalDate date) {
+        if (!supports(date)) {
+            throw new IllegalArgumentException("Date outside BS " + MIN_YEAR + "-" + MAX_YEAR + " table: " + date);
+        }
+        int offset = (int) (date.toEpochDay() - ANCHOR_EPOCH_DAY);
+
+        // BS years are 365 or 366 days, so this guess is at most one year ahead
+        int y = Math.min(offset / 365, MONTH_DAYS.length - 1);
+        while (MONTH_START[y * 12] > offset) {
+            y--;
+        }
+        int index = y * 12;
+        while (MONTH_START[index + 1] <= offset) {
+            index++;
+        }
+        return new BsDate(MIN_YEAR + index / 12, index % 12 + 1, offset - MONTH_START[index] + 1);
+    }
+
+    /**
+     * Gregorian date range (first to last day) covered by a BS period (yyyymm).
+     * @throws IllegalArgumentException if the period is outside the table
+     */
+    public static DateRange periodRange(int period) {
+        int year = NepaliPeriod.year(period);
+        int month = NepaliPeriod.month(period);
+        checkMonth(year, month);
+        int index = monthIndex(year, month);
+        return new DateRange(
+                LocalDate.ofEpochDay(ANCHOR_EPOCH_DAY + MONTH_START[index]),
+                LocalDate.ofEpochDay(ANCHOR_EPOCH_DAY + MONTH_START[index + 1] - 1));
+    }
+
+    private static int monthIndex(int year, int month) {
+        return (year - MIN_YEAR) * 12 + month - 1;
+    }
+
+    private static void checkMonth(int year, int month) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new IllegalArgumentException("BS year outside " + MIN_YEAR + "-" + MAX_YEAR + " table: " + year);
+        }
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Invalid BS month: " + month);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.digitaldairy.util;
+
+/**
+ * CompiledRateChart: Flat primitive lookup table compiled from a RateChart's anchor grid.
+ * Every fat/SNF pair at 0.1 resolution inside the chart's range is precomputed with bilinear
+ * interpolation, so a lookup during ingestion is two multiplications and an array read.
+ * Analyzer CSVs report fat/SNF with one decimal; finer values round to the nearest 0.1.
+ */
+
+import com.digitaldairy.exception.InvalidRequestException;
+import com.digitaldairy.model.RateChart;
+import com.digitaldairy.model.RateChartMode;
+import com.digitaldairy.model.RateChartPoint;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+public final class CompiledRateChart {
+
+    private static final int STEPS_PER_UNIT = 10;  // 0.1 resolution
+    private static final int MAX_CELLS = 40_000;   // A 0-20 × 0-20 grid at 0.1 resolution
+
+    private final int fatBase;     // Lowest fat, in 0.1 units
+    private final int snfBase;     // Lowest SNF, in 0.1 units
+    private final int fatCells;
+    private final int snfCells;
+    private final double[] rates;  // Row-major [fat][snf]
+    private final RateChartMode mode;
+    private final double rateTolerance;
+    private final double amountTolerance;
+
+    private CompiledRateChart(int fatBase, int snfBase, int fatCells, int snfCells, double[] rates,
+                              RateChartMode mode, double rateTolerance, double amountTolerance) {
+        this.fatBase = fatBase;
+        this.snfBase = snfBase;
+        this.fatCells = fatCells;
+        this.snfCells = snfCells;
+        this.rates = rates;
+        this.mode = mode;
+        this.rateTolerance = rateTolerance;
+        this.amountTolerance = amountTolerance;
+    }
+
+    /**
+     * Compile chart anchors into a dense lookup table.
+     * @throws InvalidRequestException if anchors are empty, do not form a complete fat × SNF grid,
+     *         or span more than MAX_CELLS lookup cells
+     */
+    public static CompiledRateChart compile(RateChart chart) {
+        if (chart.getPoints() == null || chart.getPoints().isEmpty()) {
+            throw new InvalidRequestException("Rate chart has no points");
+        }
+
+        TreeSet<Integer> fatAxisSet = new TreeSet<>();
+        TreeSet<Integer> snfAxisSet = new TreeSet<>();
+        Map<Long, Double> anchors = new HashMap<>();
+        for (RateChartPoint point : chart.getPoints()) {
+            int fat = toUnits(point.getFatPercentage());
+            int snf = toUnits(point.getSnf());
+            if (fat < 0 || snf < 0 || point.getRate() < 0) {
+                throw new InvalidRequestException("Rate chart values must not be negative");
+            }
+            fatAxisSet.add(fat);
+            snfAxisSet.add(snf);
+            if (anchors.put(anchorKey(fat, snf), point.getRate()) != null) {
+                throw new InvalidRequestException(String.format(
+                        "Duplicate rate chart point: fat=%.1f, snf=%.1f", point.getFatPercentage(), point.getSnf()));
+            }
+        }
+
+        int[] fatAxis = fatAxisSet.stream().mapToInt(Integer::intValue).toArray();
+        int[] snfAxis = snfAxisSet.stream().mapToInt(Integer::intValue).toArray();
+        if (anchors.size() != fatAxis.length * snfAxis.length) {
+            throw new InvalidRequestException(String.format(
+                    "Rate chart must be a complete grid: %d fat values × %d SNF values needs %d points, got %d",
+                    fatAxis.length, snfAxis.length, fatAxis.length * snfAxis.length, anchors.size()));
+        }
+
+        int fatBase = fatAxis[0];
+        int snfBase = snfAxis[0];
+        long fatSpan = (long) fatAxis[fatAxis.length - 1] - fatBase + 1;
+        long snfSpan = (long) snfAxis[snfAxis.length - 1] - snfBase + 1;
+        if (fatSpan * snfSpan > MAX_CELLS) {
+            throw new InvalidRequestException(String.format(
+                    "Rate chart range is too large: %d × %d cells at 0.1 resolution, at most %d allowed",
+                    fatSpan, snfSpan, MAX_CELLS));
+        }
+        int fatCells = (int) fatSpan;
+        int snfCells = (int) snfSpan;
+        double[] rates = new double[fatCells * snfCells];
+
+        for (int i = 0; i < fatCells; i++) {
+            int fat = fatBase + i;
+            int a = segmentStart(fatAxis, fat);
+            int b = Math.min(a + 1, fatAxis.length - 1);
+            double tf = b == a ? 0.0 : (double) (fat - fatAxis[a]) / (fatAxis[b] - fatAxis[a]);
+
+            for (int j = 0; j < snfCells; j++) {
+                int snf = snfBase + j;
+                int c = segmentStart(snfAxis, snf);
+                int d = Math.min(c + 1, snfAxis.length - 1);
+                double ts = d == c ? 0.0 : (double) (snf - snfAxis[c]) / (snfAxis[d] - snfAxis[c]);
+
+                double rate = (1 - tf) * (1 - ts) * anchors.get(anchorKey(fatAxis[a], snfAxis[c]))
+                        + tf * (1 - ts) * anchors.get(anchorKey(fatAxis[b], snfAxis[c]))
+                        + (1 - tf) * ts * anchors.get(anchorKey(fatAxis[a], snfAxis[d]))
+                        + tf * ts * anchors.get(anchorKey(fatAxis[b], snfAxis[d]));
+                rates[i * snfCells + j] = Math.round(rate * 100.0) / 100.0;
+            }
+        }
+
+        return new CompiledRateChart(fatBase, snfBase, fatCells, snfCells, rates,
+                chart.getMode(), chart.getRateTolerance(), chart.getAmountTolerance());
+    }
+
+    /**
+     * Chart rate per liter for the given quality, or NaN if outside the chart's range.
+     */
+    public double rateFor(double fatPercentage, double snf) {
+        int i = toUnits(fatPercentage) - fatBase;
+        int j = toUnits(snf) - snfBase;
+        if (i < 0 || i >= fatCells || j < 0 || j >= snfCells) {
+            return Double.NaN;
+        }
+        return rates[i * snfCells + j];
+    }
+
+    public RateChartMode getMode() { return mode; }
+    public double getRateTolerance() { return rateTolerance; }
+    public double getAmountTolerance() { return amountTolerance; }
+
+    private static int toUnits(double value) {
+        return (int) Math.round(value * STEPS_PER_UNIT);
+    }
+
+    private static long anchorKey(int fat, int snf) {
+        return ((long) fat << 32) | (snf & 0xffffffffL);
+    }
+
+    /**
+     * Index of the last axis value <= v (axis is sorted ascending, v within its range).
+     */
+    private static int segmentStart(int[] axis, int v) {
+        int idx = 0;
+        while (idx + 1 < axis.length && axis[idx + 1] <= v) {
+            idx++;
+        }
+        return idx;
+    }
+}
@@ -3,6 +3,9 @@ package com.digitaldairy.util;
 /**
  * CsvParser: Utility class for parsing milk analyzer CSV files.
  * Handles date/time conversions, Nepali date extraction, and data validation.
+ * A missing or malformed Ne_date is derived from Coll_date via BikramSambat. A well-formed Ne_date in a
+ * different month from Coll_date is rejected (row error): it would decide the payment month, and month
+ * reads select by the Coll_date range.
  */
 
 import lombok.extern.slf4j.Slf4j;
@@ -73,14 +76,32 @@ public class CsvParser {
         String collDateStr = getField(csvRecord, "Coll_date", "Coll_Date");
         record.setCollectionDate(parseDate(collDateStr));
 
-        // Parse Nepali date (Ne_date) - format: 09/07/2082
-        String nepaliDateStr = getField(csvRecord, "Ne_date", "ne_date");
+        // Parse Nepali date (Ne_date) - format: 09/07/2082; derived from Coll_date when missing or malformed
+        String nepaliDateStr = getOptionalField(csvRecord, "Ne_date", "ne_date");
+        int nepaliPeriod;
+        try {
+            nepaliPeriod = extractNepaliPeriod(nepaliDateStr);
+        } catch (Exception e) {
+            BikramSambat.BsDate derived = deriveNepaliDate(record.getCollectionDate(), e);
+            log.debug("Row {}: Ne_date '{}' derived from Coll_date as {}",
+                    record.getRowNumber(), nepaliDateStr, derived.format());
+            nepaliDateStr = derived.format();
+            nepaliPeriod = derived.period();
+        }
+        // Coll_date is the month basis (month reads select by its range); never re-bill a row silently
+        if (BikramSambat.supports(record.getCollectionDate())) {
+            BikramSambat.BsDate expected = BikramSambat.toBs(record.getCollectionDate());
+            if (expected.period() != nepaliPeriod) {
+                throw new Exception(String.format("Ne_date %s is not in the month of Coll_date %s (%s)",
+                        nepaliDateStr, record.getCollectionDate(), expected.format()));
+            }
+        }
         record.setNepaliDate(nepaliDateStr);
 
-        // Extract Nepali month and year from nepali date
-        String[] nepaliParts = extractNepaliMonthYear(nepaliDateStr);
-        record.setNepaliMonth(nepaliParts[0]);  // Month
-        record.setNepaliYear(nepaliParts[1]);   // Year
+        // Nepali month and year from nepali date (normalized to yyyymm period key)
+        record.setNepaliPeriod(nepaliPeriod);
+        record.setNepaliMonth(NepaliPeriod.monthString(nepaliPeriod));  // Month, always two digits
+        record.setNepaliYear(NepaliPeriod.yearString(nepaliPeriod));    // Year
 
         // Parse collection time (Coll_time)
         String timeStr = getField(csvRecord, "Coll_time", "coll_time");
@@ -110,12 +131,7 @@ public class CsvParser {
         record.setAmount(parseAmount(amountStr));
 
         // Parse remarks (Remark) - optional
-        try {
-            String remarksStr = getField(csvRecord, "Remark", "remark", "Remarks");
-            record.setRemarks(remarksStr);
-        } catch (Exception e) {
-            record.setRemarks(null);  // Remarks are optional
-        }
+        record.setRemarks(getOptionalField(csvRecord, "Remark", "remark", "Remarks"));
 
         return record;
     }
@@ -160,8 +176,16 @@ public class CsvParser {
     }
 
     /**
-     * Parse collection date from string (yyyy-MM-dd format).
+     * Get an optional field, or null when no column has a value.
      */
+    private String getOptionalField(CSVRecord record, String... possibleNames) {
+        try {
+            return getField(record, possibleNames);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Parse date from string (Coll_date - supports multiple formats).
      */
@@ -226,10 +250,11 @@ public class CsvParser {
     }
 
     /**
-     * Extract Nepali month and year from Nepali date string.
-     * Format: 09/07/2082 → month=07, year=2082
+     * Extract Nepali period key (yyyymm) from Nepali date string.
+     * Format: 09/07/2082 → 208207 ("9/7/2082" gives the same key)
+     * The day must exist in that BS month (checked against the calendar table when the year is covered).
      */
-    private String[] extractNepaliMonthYear(String nepaliDate) throws Exception {
+    private int extractNepaliPeriod(String nepaliDate) throws Exception {
         if (nepaliDate == null || nepaliDate.trim().isEmpty()) {
             throw new Exception("Nepali date is empty");
         }
@@ -239,10 +264,30 @@ public class CsvParser {
             throw new Exception("Invalid Nepali date format: " + nepaliDate);
         }
 
-        String month = parts[1];  // Middle part is month
-        String year = parts[2];   // Last part is year
+        try {
+            int period = NepaliPeriod.parse(parts[1], parts[2]);  // Middle part is month, last part is year
+            int day = Integer.parseInt(parts[0].trim());
+            int maxDay = BikramSambat.supports(period)
+                    ? BikramSambat.daysInMonth(NepaliPeriod.year(period), NepaliPeriod.month(period))
+                    : 32;
+            if (day < 1 || day > maxDay) {
+                throw new IllegalArgumentException("day out of range");
+            }
+            return period;
+        } catch (IllegalArgumentException e) {
+            throw new Exception("Invalid Nepali date: " + nepaliDate);
+        }
+    }
 
-        return new String[]{month, year};
+    /**
+     * Derive the BS date from the collection date, for rows whose Ne_date is missing or malformed.
+     * @throws Exception with the original Ne_date error if Coll_date is outside the BS table
+     */
+    private BikramSambat.BsDate deriveNepaliDate(LocalDate collectionDate, Exception nepaliDateError) throws Exception {
+        if (!BikramSambat.supports(collectionDate)) {
+            throw nepaliDateError;
+        }
+        return BikramSambat.toBs(collectionDate);
     }
 
     /**
@@ -254,6 +299,7 @@ public class CsvParser {
         private String nepaliDate;
         private String nepaliMonth;
         private String nepaliYear;
+        private int nepaliPeriod;
         private LocalTime collectionTime;
         private String memberCode;
         private Double volumeLiters;
@@ -280,6 +326,9 @@ public class CsvParser {
         public String getNepaliYear() { return nepaliYear; }
         public void setNepaliYear(String nepaliYear) { this.nepaliYear = nepaliYear; }
 
+        public int getNepaliPeriod() { return nepaliPeriod; }
+        public void setNepaliPeriod(int nepaliPeriod) { this.nepaliPeriod = nepaliPeriod; }
+
         public LocalTime getCollectionTime() { return collectionTime; }
         public void setCollectionTime(LocalTime collectionTime) { this.collectionTime = collectionTime; }
 
@@ -0,0 +1,101 @@
+package com.digitaldairy.util;
+
+/**
+ * EwmaStateMap: Open-addressing hash map from a 64-bit key to a fixed-size block of doubles.
+ * Keys and values live in two primitive arrays (no boxing, no per-entry objects), so per-row
+ * lookups during ingestion stay cheap. Key 0 is reserved as the empty marker.
+ * Not thread-safe; callers synchronize.
+ */
+public class EwmaStateMap {
+
+    private static final double MAX_LOAD = 0.6;
+
+    private final int stride;
+    private long[] keys;
+    private double[] values;
+    private int size;
+
+    public EwmaStateMap(int stride, int expectedEntries) {
+        this.stride = stride;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedEntries / MAX_LOAD)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new double[capacity * stride];
+    }
+
+    /**
+     * Offset of the key's value block in values(), or -1 if absent.
+     */
+    public int find(long key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return i * stride;
+            }
+            if (k == 0L) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Offset of the key's value block, inserting a zeroed block if absent.
+     * Offsets are invalidated by later inserts (the table may grow).
+     */
+    public int findOrInsert(long key) {
+        if (key == 0L) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        if (size + 1 > keys.length * MAX_LOAD) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return i * stride;
+            }
+            if (k == 0L) {
+                keys[i] = key;
+                size++;
+                return i * stride;
+            }
+        }
+    }
+
+    /**
+     * Backing value array; a key's block is values()[offset .. offset + stride).
+     */
+    public double[] values() {
+        return values;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new double[keys.length * stride];
+        int mask = keys.length - 1;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            long key = oldKeys[slot];
+            if (key == 0L) {
+                continue;
+            }
+            int i = mix(key) & mask;
+            while (keys[i] != 0L) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            System.arraycopy(oldValues, slot * stride, values, i * stride, stride);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
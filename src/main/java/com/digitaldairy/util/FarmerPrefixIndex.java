@@ -0,0 +1,224 @@
+package com.digitaldairy.util;
+
+/**
+ * FarmerPrefixIndex: Immutable prefix index over one center's farmers (name words, full name, phone, dairyGivenId).
+ * Terms are normalized (lower case, phone digits only) and kept in one sorted String[] with a parallel
+ * int[] of entry positions, so a lookup is a binary search plus a short forward scan - no LIKE queries.
+ * Updates are copy-on-write: withEntry()/withoutEntry() return a new index, readers keep using the one they hold.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class FarmerPrefixIndex {
+
+    public static final FarmerPrefixIndex EMPTY = new FarmerPrefixIndex(new Entry[0], new String[0], new int[0]);
+
+    private final Entry[] entries;
+    private final String[] terms;   // sorted
+    private final int[] postings;   // entry position per term
+
+    private FarmerPrefixIndex(Entry[] entries, String[] terms, int[] postings) {
+        this.entries = entries;
+        this.terms = terms;
+        this.postings = postings;
+    }
+
+    /**
+     * Build an index from scratch.
+     */
+    public static FarmerPrefixIndex of(List<Entry> farmers) {
+        Entry[] entries = farmers.toArray(new Entry[0]);
+        List<TermRef> refs = new ArrayList<>(entries.length * 4);
+        for (int i = 0; i < entries.length; i++) {
+            for (String term : termsOf(entries[i])) {
+                refs.add(new TermRef(term, i));
+            }
+        }
+        refs.sort(Comparator.comparing(TermRef::term));
+
+        String[] terms = new String[refs.size()];
+        int[] postings = new int[refs.size()];
+        for (int i = 0; i < refs.size(); i++) {
+            terms[i] = refs.get(i).term();
+            postings[i] = refs.get(i).entry();
+        }
+        return new FarmerPrefixIndex(entries, terms, postings);
+    }
+
+    /**
+     * Copy of this index with one more farmer (merged into the sorted term array in one pass).
+     * Returns this index unchanged if the farmer id is already present.
+     */
+    public FarmerPrefixIndex withEntry(Entry entry) {
+        for (Entry existing : entries) {
+            if (existing.id().equals(entry.id())) {
+                return this;
+            }
+        }
+        int position = entries.length;
+        Entry[] newEntries = Arrays.copyOf(entries, position + 1);
+        newEntries[position] = entry;
+
+        String[] added = termsOf(entry).toArray(new String[0]);
+        Arrays.sort(added);
+        String[] newTerms = new String[terms.length + added.length];
+        int[] newPostings = new int[newTerms.length];
+        int i = 0, j = 0, k = 0;
+        while (i < terms.length || j < added.length) {
+            if (j >= added.length || (i < terms.length && terms[i].compareTo(added[j]) <= 0)) {
+                newTerms[k] = terms[i];
+                newPostings[k++] = postings[i++];
+            } else {
+                newTerms[k] = added[j++];
+                newPostings[k++] = position;
+            }
+        }
+        return new FarmerPrefixIndex(newEntries, newTerms, newPostings);
+    }
+
+    /**
+     * Copy of this index without the farmer (its terms dropped, later positions shifted down in one pass).
+     * Returns this index unchanged if the farmer id is not present.
+     */
+    public FarmerPrefixIndex withoutEntry(Long id) {
+        int position = -1;
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].id().equals(id)) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            return this;
+        }
+        Entry[] newEntries = new Entry[entries.length - 1];
+        System.arraycopy(entries, 0, newEntries, 0, position);
+        System.arraycopy(entries, position + 1, newEntries, position, newEntries.length - position);
+
+        int removed = 0;
+        for (int posting : postings) {
+            if (posting == position) {
+                removed++;
+            }
+        }
+        String[] newTerms = new String[terms.length - removed];
+        int[] newPostings = new int[newTerms.length];
+        int k = 0;
+        for (int i = 0; i < terms.length; i++) {
+            if (postings[i] != position) {
+                newTerms[k] = terms[i];
+                newPostings[k++] = postings[i] > position ? postings[i] - 1 : postings[i];
+            }
+        }
+        return new FarmerPrefixIndex(newEntries, newTerms, newPostings);
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Farmers with any term starting with the query. Exact term matches come first, then by name.
+     */
+    public List<Entry> search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Terms equal to the query sort first among those it prefixes; take all of them uncapped
+        int exactEnd = lowerBound(prefix + '\0');
+        Set<Integer> exact = new LinkedHashSet<>();
+        for (int i = lowerBound(prefix); i < exactEnd; i++) {
+            exact.add(postings[i]);
+        }
+
+        Set<Integer> partial = new LinkedHashSet<>();
+        int scanCap = limit * 8;  // Bound the scan for very short prefixes
+        for (int i = exactEnd; i < terms.length && terms[i].startsWith(prefix) && partial.size() < scanCap; i++) {
+            if (!exact.contains(postings[i])) {
+                partial.add(postings[i]);
+            }
+        }
+
+        List<Entry> matches = new ArrayList<>(Math.min(limit, exact.size() + partial.size()));
+        addSorted(matches, exact, limit);
+        addSorted(matches, partial, limit);
+        return matches;
+    }
+
+    private void addSorted(List<Entry> matches, Set<Integer> positions, int limit) {
+        positions.stream()
+                .map(position -> entries[position])
+                .sorted(Comparator.comparing(Entry::name, String.CASE_INSENSITIVE_ORDER))
+                .limit(Math.max(0, limit - matches.size()))
+                .forEach(matches::add);
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0, high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Set<String> termsOf(Entry entry) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (entry.name() != null) {
+            String name = normalize(entry.name());
+            if (!name.isEmpty()) {
+                terms.add(name);
+            }
+            for (String word : name.split(" ")) {
+                if (!word.isEmpty()) {
+                    terms.add(word);
+                }
+            }
+        }
+        if (entry.phone() != null) {
+            String digits = entry.phone().replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                terms.add(digits);
+            }
+        }
+        if (entry.dairyGivenId() != null) {
+            String id = normalize(entry.dairyGivenId());
+            if (!id.isEmpty()) {
+                terms.add(id);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Lower case, trimmed, inner whitespace collapsed; a phone-like query ("9841 000-001") becomes digits.
+     */
+    private static String normalize(String text) {
+        String trimmed = text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        if (trimmed.matches("[+\\d][\\d\\s()-]*")) {
+            return trimmed.replaceAll("\\D", "");
+        }
+        return trimmed;
+    }
+
+    /**
+     * Indexed farmer (what search results need, no password/token fields).
+     */
+    public record Entry(Long id, String name, String phone, String dairyGivenId) {
+    }
+
+    private record TermRef(String term, int entry) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.digitaldairy.util;
+
+/**
+ * FixedBinHistogram: Mergeable quantile sketch over a fixed value range with fixed-width bins.
+ * Partitions of a scan each fill their own histogram and are merged by adding counts, so
+ * percentiles parallelize exactly (error is bounded by the bin width, e.g. 0.01 fat%).
+ * Values outside the range are clamped into the first/last bin. Bin indexes are computed with a small
+ * epsilon, so decimal values on a bin boundary (4.1 fat% with 0.01 bins) land in their own bin, not the one below.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FixedBinHistogram {
+
+    private static final double BIN_EPSILON = 1e-9;  // In bins; far below analyzer resolution, above double error
+
+    private final double min;
+    private final double binWidth;
+    private final long[] counts;
+    private long total;
+
+    public FixedBinHistogram(double min, double max, double binWidth) {
+        if (!(max > min) || !(binWidth > 0)) {
+            throw new IllegalArgumentException("Invalid histogram range");
+        }
+        this.min = min;
+        this.binWidth = binWidth;
+        this.counts = new long[(int) Math.ceil((max - min) / binWidth - BIN_EPSILON)];
+    }
+
+    public void add(double value) {
+        int bin = (int) Math.floor((value - min) / binWidth + BIN_EPSILON);
+        if (bin < 0) {
+            bin = 0;
+        } else if (bin >= counts.length) {
+            bin = counts.length - 1;
+        }
+        counts[bin]++;
+        total++;
+    }
+
+    /**
+     * Add another histogram with the same layout into this one.
+     */
+    public FixedBinHistogram merge(FixedBinHistogram other) {
+        if (other.counts.length != counts.length || other.min != min || other.binWidth != binWidth) {
+            throw new IllegalArgumentException("Histogram layouts differ");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        return this;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Value at quantile q (0..1), reported as the midpoint of the bin holding it; NaN when empty.
+     */
+    public double quantile(double q) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return min + (i + 0.5) * binWidth;
+            }
+        }
+        return min + (counts.length - 0.5) * binWidth;
+    }
+
+    /**
+     * Re-bin into coarser buckets of the given width (a multiple of the bin width),
+     * covering only the span between the lowest and highest non-empty bins.
+     */
+    public List<Bucket> buckets(double bucketWidth) {
+        List<Bucket> buckets = new ArrayList<>();
+        if (total == 0) {
+            return buckets;
+        }
+        int binsPerBucket = Math.max(1, (int) Math.round(bucketWidth / binWidth));
+        int first = 0;
+        while (counts[first] == 0) {
+            first++;
+        }
+        int last = counts.length - 1;
+        while (counts[last] == 0) {
+            last--;
+        }
+
+        int start = (first / binsPerBucket) * binsPerBucket;
+        for (int bucketStart = start; bucketStart <= last; bucketStart += binsPerBucket) {
+            long count = 0;
+            int bucketEnd = Math.min(bucketStart + binsPerBucket, counts.length);
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                count += counts[i];
+            }
+            buckets.add(new Bucket(min + bucketStart * binWidth, min + bucketEnd * binWidth, count));
+        }
+        return buckets;
+    }
+
+    /**
+     * Histogram bucket [from, to) with its record count.
+     */
+    public record Bucket(double from, double to, long count) {
+    }
+}
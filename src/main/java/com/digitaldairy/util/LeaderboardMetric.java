@@ -0,0 +1,45 @@
+package com.digitaldairy.util;
+
+/**
+ * LeaderboardMetric: Ranking criterion for producer leaderboards.
+ * FAT and SNF rank by volume-weighted average over the period.
+ */
+
+import com.digitaldairy.exception.InvalidRequestException;
+
+import java.util.Comparator;
+
+public enum LeaderboardMetric {
+    VOLUME,
+    FAT,
+    SNF,
+    AMOUNT;
+
+    /**
+     * Ascending comparator on this metric (highest value = "largest"), ties broken by member code.
+     */
+    public Comparator<MemberTotals> comparator() {
+        Comparator<MemberTotals> byMetric = switch (this) {
+            case VOLUME -> Comparator.comparingDouble(m -> m.totals().getTotalLiters());
+            case FAT -> Comparator.comparingDouble(m -> m.totals().getAverageFat());
+            case SNF -> Comparator.comparingDouble(m -> m.totals().getAverageSnf());
+            case AMOUNT -> Comparator.comparingDouble(m -> m.totals().getTotalAmount());
+        };
+        // Reverse member order so that, among equal values, the lower member code ranks higher
+        return byMetric.thenComparing(MemberTotals::memberCode, Comparator.reverseOrder());
+    }
+
+    public static LeaderboardMetric parse(String metric) {
+        try {
+            return valueOf(metric.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown leaderboard metric: " + metric);
+        }
+    }
+
+    /**
+     * A farmer's totals over the leaderboard period.
+     */
+    public record MemberTotals(String memberCode, MilkTotals totals) {
+    }
+}
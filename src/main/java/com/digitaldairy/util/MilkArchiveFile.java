@@ -0,0 +1,333 @@
+package com.digitaldairy.util;
+
+/**
+ * MilkArchiveFile: Gzip-compressed columnar file holding one dairy center's milk records for an archived period range.
+ * Columns are written one after another (all member ids, then all dates, ... then all amounts), so similar values sit
+ * together and compress well; member codes, Nepali dates and remarks are dictionary-encoded, dates are epoch days,
+ * times are seconds of day and missing values use sentinels (NaN for measures).
+ *
+ * Built row by row with a Builder and read back whole; select() then materializes only the matching rows.
+ */
+
+import com.digitaldairy.model.MilkShift;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public final class MilkArchiveFile {
+
+    private static final int MAGIC = 0x4D4C4B41;  // "MLKA"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final int size;
+    private final String[] memberCodes;
+    private final String[] nepaliDates;
+    private final String[] remarks;
+    private final int[] memberIds;
+    private final long[] ids;
+    private final long[] changeSeqs;
+    private final int[] epochDays;
+    private final int[] periods;
+    private final int[] secondsOfDay;
+    private final byte[] shifts;
+    private final double[] volumes;
+    private final double[] fats;
+    private final double[] snfs;
+    private final double[] rates;
+    private final double[] amounts;
+    private final int[] nepaliDateIds;
+    private final int[] remarkIds;
+    private final long[] createdAt;  // epoch seconds (UTC-naive)
+
+    private MilkArchiveFile(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a milk archive file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported milk archive version: " + version);
+        }
+        size = in.readInt();
+        memberCodes = readStrings(in);
+        nepaliDates = readStrings(in);
+        remarks = readStrings(in);
+        memberIds = readInts(in, size);
+        ids = readLongs(in, size);
+        changeSeqs = readLongs(in, size);
+        epochDays = readInts(in, size);
+        periods = readInts(in, size);
+        secondsOfDay = readInts(in, size);
+        shifts = new byte[size];
+        in.readFully(shifts);
+        volumes = readDoubles(in, size);
+        fats = readDoubles(in, size);
+        snfs = readDoubles(in, size);
+        rates = readDoubles(in, size);
+        amounts = readDoubles(in, size);
+        nepaliDateIds = readInts(in, size);
+        remarkIds = readInts(in, size);
+        createdAt = readLongs(in, size);
+    }
+
+    /**
+     * Decode a whole archive file.
+     * @param in Compressed stream (not closed)
+     */
+    public static MilkArchiveFile read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE));
+        return new MilkArchiveFile(data);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rows of one farmer (or all farmers when memberCode is null) within a period range, in file order.
+     */
+    public List<MilkArchiveRow> select(String memberCode, int fromPeriod, int toPeriod) {
+        int memberId = -1;
+        if (memberCode != null) {
+            memberId = Arrays.asList(memberCodes).indexOf(memberCode);
+            if (memberId < 0) {
+                return List.of();
+            }
+        }
+        List<MilkArchiveRow> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if ((memberId < 0 || memberIds[i] == memberId) && periods[i] >= fromPeriod && periods[i] <= toPeriod) {
+                rows.add(row(i));
+            }
+        }
+        return rows;
+    }
+
+    private MilkArchiveRow row(int i) {
+        return new MilkArchiveRow(
+                ids[i] != NULL_LONG ? ids[i] : null,
+                memberCodes[memberIds[i]],
+                epochDays[i] != NULL_INT ? LocalDate.ofEpochDay(epochDays[i]) : null,
+                nepaliDateIds[i] >= 0 ? nepaliDates[nepaliDateIds[i]] : null,
+                periods[i] != NULL_INT ? periods[i] : null,
+                secondsOfDay[i] != NULL_INT ? LocalTime.ofSecondOfDay(secondsOfDay[i]) : null,
+                shifts[i] >= 0 ? MilkShift.values()[shifts[i]] : null,
+                changeSeqs[i] != NULL_LONG ? changeSeqs[i] : null,
+                boxed(volumes[i]),
+                boxed(fats[i]),
+                boxed(snfs[i]),
+                boxed(rates[i]),
+                boxed(amounts[i]),
+                remarkIds[i] >= 0 ? remarks[remarkIds[i]] : null,
+                createdAt[i] != NULL_LONG ? LocalDateTime.ofEpochSecond(createdAt[i], 0, ZoneOffset.UTC) : null);
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * Accumulates rows in growable primitive columns, then writes them as one archive file.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int size;
+        private final Dictionary memberCodes = new Dictionary();
+        private final Dictionary nepaliDates = new Dictionary();
+        private final Dictionary remarks = new Dictionary();
+        private int[] memberIds = new int[INITIAL_CAPACITY];
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private long[] changeSeqs = new long[INITIAL_CAPACITY];
+        private int[] epochDays = new int[INITIAL_CAPACITY];
+        private int[] periods = new int[INITIAL_CAPACITY];
+        private int[] secondsOfDay = new int[INITIAL_CAPACITY];
+        private byte[] shifts = new byte[INITIAL_CAPACITY];
+        private double[] volumes = new double[INITIAL_CAPACITY];
+        private double[] fats = new double[INITIAL_CAPACITY];
+        private double[] snfs = new double[INITIAL_CAPACITY];
+        private double[] rates = new double[INITIAL_CAPACITY];
+        private double[] amounts = new double[INITIAL_CAPACITY];
+        private int[] nepaliDateIds = new int[INITIAL_CAPACITY];
+        private int[] remarkIds = new int[INITIAL_CAPACITY];
+        private long[] createdAt = new long[INITIAL_CAPACITY];
+
+        public void add(MilkArchiveRow row) {
+            if (size == ids.length) {
+                grow();
+            }
+            memberIds[size] = memberCodes.id(row.memberCode());
+            ids[size] = row.id() != null ? row.id() : NULL_LONG;
+            changeSeqs[size] = row.changeSeq() != null ? row.changeSeq() : NULL_LONG;
+            epochDays[size] = row.collectionDate() != null ? (int) row.collectionDate().toEpochDay() : NULL_INT;
+            periods[size] = row.nepaliPeriod() != null ? row.nepaliPeriod() : NULL_INT;
+            secondsOfDay[size] = row.collectionTime() != null ? row.collectionTime().toSecondOfDay() : NULL_INT;
+            shifts[size] = row.shift() != null ? (byte) row.shift().ordinal() : -1;
+            volumes[size] = unboxed(row.volumeLiters());
+            fats[size] = unboxed(row.fatPercentage());
+            snfs[size] = unboxed(row.snf());
+            rates[size] = unboxed(row.rate());
+            amounts[size] = unboxed(row.amount());
+            nepaliDateIds[size] = nepaliDates.id(row.nepaliDate());
+            remarkIds[size] = remarks.id(row.remarks());
+            createdAt[size] = row.createdAt() != null ? row.createdAt().toEpochSecond(ZoneOffset.UTC) : NULL_LONG;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Write the archive, gzip-compressed.
+         * @param out Destination (flushed, not closed)
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(size);
+            writeStrings(data, memberCodes);
+            writeStrings(data, nepaliDates);
+            writeStrings(data, remarks);
+            writeInts(data, memberIds, size);
+            writeLongs(data, ids, size);
+            writeLongs(data, changeSeqs, size);
+            writeInts(data, epochDays, size);
+            writeInts(data, periods, size);
+            writeInts(data, secondsOfDay, size);
+            data.write(shifts, 0, size);
+            writeDoubles(data, volumes, size);
+            writeDoubles(data, fats, size);
+            writeDoubles(data, snfs, size);
+            writeDoubles(data, rates, size);
+            writeDoubles(data, amounts, size);
+            writeInts(data, nepaliDateIds, size);
+            writeInts(data, remarkIds, size);
+            writeLongs(data, createdAt, size);
+            data.flush();
+            gzip.finish();
+            out.flush();
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            changeSeqs = Arrays.copyOf(changeSeqs, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            periods = Arrays.copyOf(periods, capacity);
+            secondsOfDay = Arrays.copyOf(secondsOfDay, capacity);
+            shifts = Arrays.copyOf(shifts, capacity);
+            volumes = Arrays.copyOf(volumes, capacity);
+            fats = Arrays.copyOf(fats, capacity);
+            snfs = Arrays.copyOf(snfs, capacity);
+            rates = Arrays.copyOf(rates, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            nepaliDateIds = Arrays.copyOf(nepaliDateIds, capacity);
+            remarkIds = Arrays.copyOf(remarkIds, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+        }
+
+        private static double unboxed(Double value) {
+            return value != null ? value : Double.NaN;
+        }
+    }
+
+    /**
+     * String dictionary in first-seen order; null maps to -1.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int id(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, Dictionary dictionary) throws IOException {
+        out.writeInt(dictionary.values.size());
+        for (String value : dictionary.values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values, int size) throws IOException {
+        for (int i = 0; i < size; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int size) throws IOException {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values, int size) throws IOException {
+        for (int i = 0; i < size; i++) {
+            out.writeLong(values[i]);
+        }
+    }
+
+    private static long[] readLongs(DataInputStream in, int size) throws IOException {
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values, int size) throws IOException {
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(values[i]);
+        }
+    }
+
+    private static double[] readDoubles(DataInputStream in, int size) throws IOException {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,27 @@
+package com.digitaldairy.util;
+
+/**
+ * MilkArchiveRow: Every stored column of a milk record, as written to and read back from archive files.
+ * Loaded with a JPQL constructor expression when a fiscal year is archived (no entity hydration).
+ */
+
+import com.digitaldairy.model.MilkShift;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+public record MilkArchiveRow(Long id, String memberCode, LocalDate collectionDate, String nepaliDate,
+                             Integer nepaliPeriod, LocalTime collectionTime, MilkShift shift, Long changeSeq,
+                             Double volumeLiters, Double fatPercentage, Double snf, Double rate, Double amount,
+                             String remarks, LocalDateTime createdAt) {
+
+    public MilkValues toValues() {
+        return new MilkValues(memberCode, volumeLiters, fatPercentage, snf, amount);
+    }
+
+    public MilkExportRow toExportRow() {
+        return new MilkExportRow(memberCode, collectionDate, nepaliDate, collectionTime, shift,
+                volumeLiters, fatPercentage, snf, rate, amount);
+    }
+}
@@ -0,0 +1,22 @@
+package com.digitaldairy.util;
+
+/**
+ * MilkColumnRow: Flat projection of the milk record columns kept by the columnar analytics store.
+ * Loaded with a JPQL constructor expression (no entity hydration) or built from freshly saved records.
+ */
+
+import com.digitaldairy.model.MilkRecord;
+import com.digitaldairy.model.MilkShift;
+
+import java.time.LocalDate;
+
+public record MilkColumnRow(String memberCode, LocalDate collectionDate, Integer nepaliPeriod, MilkShift shift,
+                            Long changeSeq, Double volumeLiters, Double fatPercentage, Double snf,
+                            Double rate, Double amount) {
+
+    public static MilkColumnRow of(MilkRecord record) {
+        return new MilkColumnRow(record.getMemberCode(), record.getCollectionDate(), record.getNepaliPeriod(),
+                record.getShift(), record.getChangeSeq(), record.getVolumeLiters(), record.getFatPercentage(),
+                record.getSnf(), record.getRate(), record.getAmount());
+    }
+}
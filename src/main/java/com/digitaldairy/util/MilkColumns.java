@@ -0,0 +1,247 @@
+package com.digitaldairy.util;
+
+/**
+ * MilkColumns: Append-only columnar copy of one dairy center's milk records.
+ * Each measure is a primitive array (volume, fat, SNF, rate, amount); member codes are dictionary-encoded
+ * to int ids and dates stored as epoch days, so aggregates are tight loops over primitives.
+ *
+ * Not thread-safe for writers (the owning store serializes appends). Readers use view(): a View captures
+ * the arrays and row count at that moment, and rows below that count are never rewritten, so a View
+ * stays consistent while later appends continue (growth copies into new arrays).
+ */
+
+import com.digitaldairy.model.MilkShift;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class MilkColumns {
+
+    public static final byte SHIFT_MORNING = 0;
+    public static final byte SHIFT_EVENING = 1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size;
+    private int[] memberIds = new int[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private int[] periods = new int[INITIAL_CAPACITY];
+    private byte[] shifts = new byte[INITIAL_CAPACITY];
+    private double[] volumes = new double[INITIAL_CAPACITY];
+    private double[] fats = new double[INITIAL_CAPACITY];
+    private double[] snfs = new double[INITIAL_CAPACITY];
+    private double[] rates = new double[INITIAL_CAPACITY];
+    private double[] amounts = new double[INITIAL_CAPACITY];
+
+    private final Map<String, Integer> memberDictionary = new HashMap<>();
+    private String[] memberCodes = new String[64];
+    private int memberCount;
+
+    private long maxChangeSeq;
+    private volatile View view = new View(this);
+
+    /**
+     * Append one row. Call publish() after a group of appends to make them visible to readers.
+     */
+    public void append(MilkColumnRow row) {
+        if (size == volumes.length) {
+            grow();
+        }
+        memberIds[size] = memberId(row.memberCode());
+        epochDays[size] = row.collectionDate() != null ? (int) row.collectionDate().toEpochDay() : 0;
+        periods[size] = row.nepaliPeriod() != null ? row.nepaliPeriod() : 0;
+        shifts[size] = row.shift() == MilkShift.EVENING ? SHIFT_EVENING : SHIFT_MORNING;
+        volumes[size] = valueOf(row.volumeLiters());
+        fats[size] = valueOf(row.fatPercentage());
+        snfs[size] = valueOf(row.snf());
+        rates[size] = valueOf(row.rate());
+        amounts[size] = valueOf(row.amount());
+        size++;
+        if (row.changeSeq() != null && row.changeSeq() > maxChangeSeq) {
+            maxChangeSeq = row.changeSeq();
+        }
+    }
+
+    /**
+     * Publish rows appended so far to new views.
+     */
+    public void publish() {
+        view = new View(this);
+    }
+
+    public View view() {
+        return view;
+    }
+
+    /**
+     * Highest change_seq appended; rows at or below it are already present.
+     */
+    public long getMaxChangeSeq() {
+        return maxChangeSeq;
+    }
+
+    private int memberId(String memberCode) {
+        Integer id = memberDictionary.get(memberCode);
+        if (id != null) {
+            return id;
+        }
+        if (memberCount == memberCodes.length) {
+            memberCodes = Arrays.copyOf(memberCodes, memberCount * 2);
+        }
+        memberCodes[memberCount] = memberCode;
+        memberDictionary.put(memberCode, memberCount);
+        return memberCount++;
+    }
+
+    private void grow() {
+        int capacity = volumes.length * 2;
+        memberIds = Arrays.copyOf(memberIds, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        periods = Arrays.copyOf(periods, capacity);
+        shifts = Arrays.copyOf(shifts, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+        fats = Arrays.copyOf(fats, capacity);
+        snfs = Arrays.copyOf(snfs, capacity);
+        rates = Arrays.copyOf(rates, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    /**
+     * Immutable snapshot of the columns (first size() rows) with aggregate helpers.
+     */
+    public static final class View {
+
+        private final int size;
+        private final int[] memberIds;
+        private final int[] epochDays;
+        private final int[] periods;
+        private final byte[] shifts;
+        private final double[] volumes;
+        private final double[] fats;
+        private final double[] snfs;
+        private final double[] rates;
+        private final double[] amounts;
+        private final String[] memberCodes;
+        private final int memberCount;
+
+        private View(MilkColumns columns) {
+            this.size = columns.size;
+            this.memberIds = columns.memberIds;
+            this.epochDays = columns.epochDays;
+            this.periods = columns.periods;
+            this.shifts = columns.shifts;
+            this.volumes = columns.volumes;
+            this.fats = columns.fats;
+            this.snfs = columns.snfs;
+            this.rates = columns.rates;
+            this.amounts = columns.amounts;
+            this.memberCodes = columns.memberCodes;
+            this.memberCount = columns.memberCount;
+        }
+
+        public int size() { return size; }
+        public int memberCount() { return memberCount; }
+        public String memberCode(int memberId) { return memberCodes[memberId]; }
+
+        /**
+         * Dictionary id of a member code in this snapshot, or -1 if it has no records.
+         */
+        public int findMemberId(String memberCode) {
+            for (int m = 0; m < memberCount; m++) {
+                if (memberCodes[m].equals(memberCode)) {
+                    return m;
+                }
+            }
+            return -1;
+        }
+
+        // Raw columns for partitioned scans (valid indexes: 0 .. size()-1)
+        public int[] memberIds() { return memberIds; }
+        public int[] epochDays() { return epochDays; }
+        public int[] periods() { return periods; }
+        public byte[] shifts() { return shifts; }
+        public double[] volumes() { return volumes; }
+        public double[] fats() { return fats; }
+        public double[] snfs() { return snfs; }
+        public double[] rates() { return rates; }
+        public double[] amounts() { return amounts; }
+
+        /**
+         * Center totals for a period range (yyyymm, inclusive).
+         */
+        public MilkTotals totals(int fromPeriod, int toPeriod) {
+            long count = 0;
+            double liters = 0, weightedFat = 0, weightedSnf = 0, amount = 0;
+            for (int i = 0; i < size; i++) {
+                int period = periods[i];
+                if (period < fromPeriod || period > toPeriod) {
+                    continue;
+                }
+                double v = volumes[i];
+                count++;
+                liters += v;
+                weightedFat += fats[i] * v;
+                weightedSnf += snfs[i] * v;
+                amount += amounts[i];
+            }
+            return new MilkTotals(count, liters, weightedFat, weightedSnf, amount);
+        }
+
+        /**
+         * Per-farmer totals for a period range, accumulated in arrays indexed by member id.
+         * @return member code -> totals (only farmers with records in range), in dictionary order
+         */
+        public Map<String, MilkTotals> totalsByMember(int fromPeriod, int toPeriod) {
+            long[] count = new long[memberCount];
+            double[] liters = new double[memberCount];
+            double[] weightedFat = new double[memberCount];
+            double[] weightedSnf = new double[memberCount];
+            double[] amount = new double[memberCount];
+            for (int i = 0; i < size; i++) {
+                int period = periods[i];
+                if (period < fromPeriod || period > toPeriod) {
+                    continue;
+                }
+                int m = memberIds[i];
+                double v = volumes[i];
+                count[m]++;
+                liters[m] += v;
+                weightedFat[m] += fats[i] * v;
+                weightedSnf[m] += snfs[i] * v;
+                amount[m] += amounts[i];
+            }
+
+            Map<String, MilkTotals> result = new LinkedHashMap<>();
+            for (int m = 0; m < memberCount; m++) {
+                if (count[m] > 0) {
+                    result.put(memberCodes[m],
+                            new MilkTotals(count[m], liters[m], weightedFat[m], weightedSnf[m], amount[m]));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Liters collected per day from fromDate to toDate (inclusive); index 0 is fromDate.
+         */
+        public double[] dailyLiters(LocalDate fromDate, LocalDate toDate) {
+            int from = (int) fromDate.toEpochDay();
+            int days = (int) (toDate.toEpochDay() - from) + 1;
+            double[] daily = new double[Math.max(days, 0)];
+            for (int i = 0; i < size; i++) {
+                int day = epochDays[i] - from;
+                if (day >= 0 && day < days) {
+                    daily[day] += volumes[i];
+                }
+            }
+            return daily;
+        }
+    }
+}
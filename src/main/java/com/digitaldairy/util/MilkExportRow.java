@@ -0,0 +1,16 @@
+package com.digitaldairy.util;
+
+/**
+ * MilkExportRow: Flat projection of the milk record columns written to spreadsheet exports.
+ * Loaded with a JPQL constructor expression and streamed, so exports never hydrate MilkRecord entities.
+ */
+
+import com.digitaldairy.model.MilkShift;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record MilkExportRow(String memberCode, LocalDate collectionDate, String nepaliDate, LocalTime collectionTime,
+                            MilkShift shift, Double volumeLiters, Double fatPercentage, Double snf,
+                            Double rate, Double amount) {
+}
@@ -0,0 +1,102 @@
+package com.digitaldairy.util;
+
+/**
+ * MilkRecordField: Selectable fields of MilkRecordResponse for sparse fieldsets (?fields=collectionDate,shift,...).
+ * Each field maps its JSON property to the MilkRecord attribute it is read from, so a request can narrow
+ * both the SQL projection and the serialized output. farmerName/dairyCenterName are looked up, not selected.
+ */
+
+import com.digitaldairy.exception.InvalidRequestException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum MilkRecordField {
+
+    ID("id", "id"),
+    COLLECTION_DATE("collectionDate", "collectionDate"),
+    NEPALI_DATE("nepaliDate", "nepaliDate"),
+    NEPALI_MONTH("nepaliMonth", "nepaliMonth"),
+    NEPALI_YEAR("nepaliYear", "nepaliYear"),
+    COLLECTION_TIME("collectionTime", "collectionTime"),
+    SHIFT("shift", "shift"),
+    MEMBER_CODE("memberCode", "memberCode"),
+    FARMER_NAME("farmerName", null),
+    VOLUME_LITERS("volumeLiters", "volumeLiters"),
+    FAT_PERCENTAGE("fatPercentage", "fatPercentage"),
+    SNF("snf", "snf"),
+    RATE("rate", "rate"),
+    AMOUNT("amount", "amount"),
+    REMARKS("remarks", "remarks"),
+    DAIRY_CENTER_ID("dairyCenterId", "dairyCenterId"),
+    DAIRY_CENTER_NAME("dairyCenterName", null),
+    CREATED_AT("createdAt", "createdAt");
+
+    /** Jackson filter id declared on MilkRecordResponse. */
+    public static final String FILTER_ID = "milkRecordFields";
+
+    /** Request attribute carrying the selected fields from controller to response advice. */
+    public static final String REQUEST_ATTRIBUTE = MilkRecordField.class.getName() + ".SELECTED";
+
+    private final String property;
+    private final String attribute;
+
+    MilkRecordField(String property, String attribute) {
+        this.property = property;
+        this.attribute = attribute;
+    }
+
+    /** JSON property name in MilkRecordResponse. */
+    public String getProperty() {
+        return property;
+    }
+
+    /** MilkRecord attribute to select, or null for looked-up fields. */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Parse a comma-separated fields parameter.
+     * @return selected fields, or null when the parameter is absent (meaning all fields)
+     * @throws InvalidRequestException on an unknown field name
+     */
+    public static Set<MilkRecordField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        EnumSet<MilkRecordField> selected = EnumSet.noneOf(MilkRecordField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fromProperty(trimmed));
+        }
+        if (selected.isEmpty()) {
+            return null;
+        }
+        return Collections.unmodifiableSet(selected);
+    }
+
+    private static MilkRecordField fromProperty(String property) {
+        for (MilkRecordField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException("Unknown milk record field: " + property);
+    }
+
+    /**
+     * Stable bitmask of a selection (for ETags / cache keys).
+     */
+    public static long mask(Set<MilkRecordField> fields) {
+        long mask = 0L;
+        for (MilkRecordField field : fields) {
+            mask |= 1L << field.ordinal();
+        }
+        return mask;
+    }
+}
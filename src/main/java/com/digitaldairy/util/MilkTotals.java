@@ -0,0 +1,70 @@
+package com.digitaldairy.util;
+
+/**
+ * MilkTotals: Mutable accumulator for milk collection totals (count, liters, amount).
+ * Fat and SNF are kept as volume-weighted sums (fat% × liters) so averages stay exact
+ * when totals are merged across batches, shifts or partitions.
+ */
+
+import com.digitaldairy.model.MilkRecord;
+
+public class MilkTotals {
+
+    private long recordCount;
+    private double totalLiters;
+    private double weightedFat;   // Σ fat% × liters
+    private double weightedSnf;   // Σ snf × liters
+    private double totalAmount;
+
+    public MilkTotals() {}
+
+    public MilkTotals(long recordCount, double totalLiters, double weightedFat,
+                      double weightedSnf, double totalAmount) {
+        this.recordCount = recordCount;
+        this.totalLiters = totalLiters;
+        this.weightedFat = weightedFat;
+        this.weightedSnf = weightedSnf;
+        this.totalAmount = totalAmount;
+    }
+
+    public void add(double liters, double fat, double snf, double amount) {
+        recordCount++;
+        totalLiters += liters;
+        weightedFat += fat * liters;
+        weightedSnf += snf * liters;
+        totalAmount += amount;
+    }
+
+    public void add(MilkRecord record) {
+        add(record.getVolumeLiters(), record.getFatPercentage(), record.getSnf(), record.getAmount());
+    }
+
+    public MilkTotals merge(MilkTotals other) {
+        recordCount += other.recordCount;
+        totalLiters += other.totalLiters;
+        weightedFat += other.weightedFat;
+        weightedSnf += other.weightedSnf;
+        totalAmount += other.totalAmount;
+        return this;
+    }
+
+    public long getRecordCount() { return recordCount; }
+    public double getTotalLiters() { return totalLiters; }
+    public double getWeightedFat() { return weightedFat; }
+    public double getWeightedSnf() { return weightedSnf; }
+    public double getTotalAmount() { return totalAmount; }
+
+    /**
+     * Volume-weighted average fat percentage (0 when no volume).
+     */
+    public double getAverageFat() {
+        return totalLiters > 0 ? weightedFat / totalLiters : 0.0;
+    }
+
+    /**
+     * Volume-weighted average SNF (0 when no volume).
+     */
+    public double getAverageSnf() {
+        return totalLiters > 0 ? weightedSnf / totalLiters : 0.0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.digitaldairy.util;
+
+/**
+ * MilkValues: Lightweight read-only projection of a milk record's measured values.
+ * Used for bulk aggregation (JPQL constructor expression) so large scans skip entity
+ * hydration and persistence-context tracking.
+ */
+public record MilkValues(String memberCode, Double volumeLiters, Double fatPercentage, Double snf, Double amount) {
+}
@@ -0,0 +1,94 @@
+package com.digitaldairy.util;
+
+/**
+ * NepaliPeriod: Compact integer key for a Bikram Sambat month, encoded as yyyymm (e.g., 208207).
+ * Normalizes free-form month/year strings from the analyzer CSV ("7" and "07" are the same month),
+ * so month-based queries become integer lookups/range scans instead of varchar comparisons.
+ * Fiscal years run Shrawan to Asar (e.g., FY 2081/82 = 208104..208203) and are keyed by their starting year.
+ */
+
+import com.digitaldairy.exception.InvalidRequestException;
+
+public final class NepaliPeriod {
+
+    public static final int MIN_YEAR = 1000;
+    public static final int MAX_YEAR = 9999;
+    public static final int FISCAL_YEAR_START_MONTH = 4;  // Shrawan
+
+    private NepaliPeriod() {}
+
+    /**
+     * Build period key from numeric year and month.
+     */
+    public static int of(int year, int month) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new InvalidRequestException("Invalid Nepali year: " + year);
+        }
+        if (month < 1 || month > 12) {
+            throw new InvalidRequestException("Invalid Nepali month: " + month);
+        }
+        return year * 100 + month;
+    }
+
+    /**
+     * Parse period key from month/year strings (e.g., "7"/"07" and "2082").
+     * @throws InvalidRequestException if either part is missing or not a valid number
+     */
+    public static int parse(String month, String year) {
+        if (month == null || month.isBlank() || year == null || year.isBlank()) {
+            throw new InvalidRequestException("Nepali month and year are required");
+        }
+        try {
+            return of(Integer.parseInt(year.trim()), Integer.parseInt(month.trim()));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid Nepali month/year: " + month + "/" + year);
+        }
+    }
+
+    public static int year(int period) {
+        return period / 100;
+    }
+
+    public static int month(int period) {
+        return period % 100;
+    }
+
+    /**
+     * Fiscal year (its starting BS year) a period belongs to, e.g. 208203 → 2081, 208204 → 2082.
+     */
+    public static int fiscalYear(int period) {
+        return month(period) >= FISCAL_YEAR_START_MONTH ? year(period) : year(period) - 1;
+    }
+
+    /**
+     * First period of a fiscal year (Shrawan of its starting year).
+     */
+    public static int fiscalYearStart(int fiscalYear) {
+        return of(fiscalYear, FISCAL_YEAR_START_MONTH);
+    }
+
+    /**
+     * Last period of a fiscal year (Asar of the following year).
+     */
+    public static int fiscalYearEnd(int fiscalYear) {
+        return of(fiscalYear + 1, FISCAL_YEAR_START_MONTH - 1);
+    }
+
+    /**
+     * Fiscal year label, e.g. "2081/82".
+     */
+    public static String fiscalYearLabel(int fiscalYear) {
+        return String.format("%d/%02d", fiscalYear, (fiscalYear + 1) % 100);
+    }
+
+    /**
+     * Two-digit month string as stored in nepali_month (e.g., "07").
+     */
+    public static String monthString(int period) {
+        return String.format("%02d", month(period));
+    }
+
+    public static String yearString(int period) {
+        return String.valueOf(year(period));
+    }
+}
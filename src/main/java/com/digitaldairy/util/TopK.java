@@ -0,0 +1,38 @@
+package com.digitaldairy.util;
+
+/**
+ * TopK: Selects the k largest items with a bounded min-heap (O(n log k), k items of extra memory)
+ * instead of sorting the whole input.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class TopK {
+
+    private TopK() {}
+
+    /**
+     * The k largest items by the comparator, largest first.
+     */
+    public static <T> List<T> largest(Iterable<T> items, int k, Comparator<? super T> comparator) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<T> heap = new PriorityQueue<>(k + 1, comparator);
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (comparator.compare(item, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        List<T> result = new ArrayList<>(heap);
+        result.sort(Collections.reverseOrder(comparator));
+        return result;
+    }
+}
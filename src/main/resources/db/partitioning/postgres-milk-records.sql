@@ -0,0 +1,64 @@
+-- Optional PostgreSQL layout for milk_records: range partitions per Nepali fiscal year (Shrawan..Asar,
+-- by nepali_period yyyymm), each hash-partitioned by dairy_center_id.
+-- Not applied automatically (the default H2 profile uses ddl-auto). Run it once, instead of letting Hibernate
+-- create milk_records, then set spring.jpa.hibernate.ddl-auto=validate.
+--
+-- Hot reads (current/previous month) prune to one fiscal-year partition and one center bucket.
+-- MilkArchiveJob still archives closed years to files; afterwards the emptied partition can be detached
+-- and dropped, which is instant and leaves no dead tuples to vacuum:
+--   ALTER TABLE milk_records DETACH PARTITION milk_records_fy2079;
+--   DROP TABLE milk_records_fy2079;
+
+CREATE TABLE milk_records (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    collection_date  DATE             NOT NULL,
+    nepali_date      VARCHAR(255),
+    nepali_month     VARCHAR(255),
+    nepali_year      VARCHAR(255),
+    nepali_period    INTEGER          NOT NULL,  -- partition key; rows must carry a period
+    collection_time  TIME             NOT NULL,
+    shift            VARCHAR(10),
+    member_code      VARCHAR(255)     NOT NULL,
+    volume_liters    DOUBLE PRECISION NOT NULL,
+    fat_percentage   DOUBLE PRECISION NOT NULL,
+    snf              DOUBLE PRECISION NOT NULL,
+    rate             DOUBLE PRECISION NOT NULL,
+    amount           DOUBLE PRECISION NOT NULL,
+    remarks          VARCHAR(500),
+    change_seq       BIGINT,
+    dairy_center_id  BIGINT           NOT NULL REFERENCES dairy_centers (id),
+    created_at       TIMESTAMP,
+    updated_at       TIMESTAMP,
+    PRIMARY KEY (id, nepali_period)  -- a partitioned table's keys must include the partition key
+) PARTITION BY RANGE (nepali_period);
+
+-- Indexes declared on the parent are created on every partition
+CREATE INDEX idx_milk_center_member_date ON milk_records (dairy_center_id, member_code, collection_date);
+CREATE INDEX idx_milk_center_date ON milk_records (dairy_center_id, collection_date);
+CREATE INDEX idx_milk_center_period ON milk_records (dairy_center_id, nepali_period);
+CREATE INDEX idx_milk_center_member_seq ON milk_records (dairy_center_id, member_code, change_seq);
+
+-- One partition per fiscal year: FY 2081/82 = [208104, 208204)
+CREATE TABLE milk_records_fy2080 PARTITION OF milk_records
+    FOR VALUES FROM (208004) TO (208104) PARTITION BY HASH (dairy_center_id);
+CREATE TABLE milk_records_fy2081 PARTITION OF milk_records
+    FOR VALUES FROM (208104) TO (208204) PARTITION BY HASH (dairy_center_id);
+CREATE TABLE milk_records_fy2082 PARTITION OF milk_records
+    FOR VALUES FROM (208204) TO (208304) PARTITION BY HASH (dairy_center_id);
+
+-- Four center buckets per fiscal year (use more for many centers)
+CREATE TABLE milk_records_fy2080_c0 PARTITION OF milk_records_fy2080 FOR VALUES WITH (MODULUS 4, REMAINDER 0);
+CREATE TABLE milk_records_fy2080_c1 PARTITION OF milk_records_fy2080 FOR VALUES WITH (MODULUS 4, REMAINDER 1);
+CREATE TABLE milk_records_fy2080_c2 PARTITION OF milk_records_fy2080 FOR VALUES WITH (MODULUS 4, REMAINDER 2);
+CREATE TABLE milk_records_fy2080_c3 PARTITION OF milk_records_fy2080 FOR VALUES WITH (MODULUS 4, REMAINDER 3);
+CREATE TABLE milk_records_fy2081_c0 PARTITION OF milk_records_fy2081 FOR VALUES WITH (MODULUS 4, REMAINDER 0);
+CREATE TABLE milk_records_fy2081_c1 PARTITION OF milk_records_fy2081 FOR VALUES WITH (MODULUS 4, REMAINDER 1);
+CREATE TABLE milk_records_fy2081_c2 PARTITION OF milk_records_fy2081 FOR VALUES WITH (MODULUS 4, REMAINDER 2);
+CREATE TABLE milk_records_fy2081_c3 PARTITION OF milk_records_fy2081 FOR VALUES WITH (MODULUS 4, REMAINDER 3);
+CREATE TABLE milk_records_fy2082_c0 PARTITION OF milk_records_fy2082 FOR VALUES WITH (MODULUS 4, REMAINDER 0);
+CREATE TABLE milk_records_fy2082_c1 PARTITION OF milk_records_fy2082 FOR VALUES WITH (MODULUS 4, REMAINDER 1);
+CREATE TABLE milk_records_fy2082_c2 PARTITION OF milk_records_fy2082 FOR VALUES WITH (MODULUS 4, REMAINDER 2);
+CREATE TABLE milk_records_fy2082_c3 PARTITION OF milk_records_fy2082 FOR VALUES WITH (MODULUS 4, REMAINDER 3);
+
+-- Catch-all for periods without a fiscal-year partition yet (create next year's partition before Shrawan)
+CREATE TABLE milk_records_default PARTITION OF milk_records DEFAULT;
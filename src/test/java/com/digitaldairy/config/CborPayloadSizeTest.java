@@ -0,0 +1,77 @@
+package com.digitaldairy.config;
+
+import com.digitaldairy.dto.response.MilkRecordResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CborPayloadSizeTest {
+
+	private final ObjectMapper jsonMapper = builder().build();
+	private final ObjectMapper cborMapper = new WebConfig().cborHttpMessageConverter(builder()).getObjectMapper();
+
+	// Measured ~0.89 for both: CBOR drops key/value quoting but keeps names and writes doubles as 9 bytes
+	@Test
+	void monthlyPayloadIsSmallerAsCbor() throws Exception {
+		assertSmallerAsCbor(records(60), 0.92);
+	}
+
+	@Test
+	void dairyReportIsSmallerAsCbor() throws Exception {
+		assertSmallerAsCbor(records(30_000), 0.92);
+	}
+
+	@Test
+	void cborRoundTripsTheSameRecords() throws Exception {
+		List<MilkRecordResponse> records = records(60);
+		byte[] cbor = cborMapper.writeValueAsBytes(records);
+
+		MilkRecordResponse[] decoded = cborMapper.readValue(cbor, MilkRecordResponse[].class);
+		assertEquals(records, List.of(decoded));
+	}
+
+	private void assertSmallerAsCbor(List<MilkRecordResponse> records, double maxRatio) throws Exception {
+		int json = jsonMapper.writeValueAsBytes(records).length;
+		int cbor = cborMapper.writeValueAsBytes(records).length;
+		double ratio = (double) cbor / json;
+
+		assertTrue(ratio < maxRatio, records.size() + " rows: CBOR " + cbor + " B vs JSON " + json + " B (ratio " + ratio + ")");
+	}
+
+	/** Boot's builder as the app configures it: JacksonConfig filters, ISO dates. */
+	private static Jackson2ObjectMapperBuilder builder() {
+		Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		new JacksonConfig().defaultFilterCustomizer().customize(builder);
+		return builder;
+	}
+
+	private static List<MilkRecordResponse> records(int count) {
+		String[] names = {"Ram Bahadur Thapa", "Sita Kumari Shrestha", "Hari Prasad Adhikari", "Gita Devi Poudel"};
+		LocalDate start = LocalDate.of(2024, 4, 13);
+		List<MilkRecordResponse> records = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			boolean morning = i % 2 == 0;
+			LocalDate date = start.plusDays((i / 2) % 30);
+			double volume = 2.0 + (i % 40) / 10.0;
+			double rate = 55.0 + (i % 25) / 2.0;
+			records.add(new MilkRecordResponse(
+					(long) i + 1, date, "2081-01-" + String.format("%02d", (i / 2) % 30 + 1), "01", "2081",
+					morning ? LocalTime.of(6, 30) : LocalTime.of(17, 15), morning ? "MORNING" : "EVENING",
+					"M" + (i % 400 + 1), names[i % names.length],
+					volume, 3.5 + (i % 20) / 10.0, 8.0 + (i % 10) / 10.0, rate, Math.round(volume * rate * 100) / 100.0,
+					i % 10 == 0 ? "Late delivery" : null, 7L, "Chitwan Dairy Center", date.atTime(7, 5, 12)));
+		}
+		return records;
+	}
+}
@@ -0,0 +1,137 @@
+package com.digitaldairy.config;
+
+import com.digitaldairy.model.DairyCenter;
+import com.digitaldairy.repository.DairyCenterRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing against the replicas profile: primary testdb, replica-0 a second H2 database (testdb_replica).
+ * The test plays replication by stamping the replica's heartbeat row, and holds it back to make it lag.
+ */
+@DataJpaTest
+@ActiveProfiles("replicas")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReplicaRoutingConfig.class, ReplicaRoutingTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingTest {
+
+	private static final String PRIMARY_DB = "TESTDB";
+	private static final String REPLICA_DB = "TESTDB_REPLICA";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private ReplicaLagMonitor replicaLagMonitor;
+
+	@Autowired
+	private DairyCenterRepository dairyCenterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${app.datasource.replicas.instances[0].url}")
+	private String replicaUrl;
+
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() {
+		replica = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, "sa", ""));
+		replica.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id BIGINT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+		replica.update("DELETE FROM replication_heartbeat");
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionUsesReplicaInSync() {
+		replicaHeartbeat(0);
+
+		assertEquals(REPLICA_DB, readOnlyDatabase());
+	}
+
+	@Test
+	void laggingReplicaIsSkipped() {
+		replicaHeartbeat(60_000);
+
+		assertEquals(PRIMARY_DB, readOnlyDatabase());
+	}
+
+	@Test
+	void replicaWithoutHeartbeatIsSkipped() {
+		replicaLagMonitor.check();
+
+		assertEquals(PRIMARY_DB, readOnlyDatabase());
+	}
+
+	@Test
+	void readAfterWriteInSameSessionUsesPrimary() {
+		replicaHeartbeat(0);
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+				"9841000001", null, List.of(new SimpleGrantedAuthority("ROLE_DAIRY_STAFF"))));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				dairyCenterRepository.save(new DairyCenter("Routing Dairy " + System.nanoTime(), "Nepal", null)));
+
+		assertEquals(PRIMARY_DB, readOnlyDatabase());
+
+		// Another user's session is not sticky
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+				"9841000002", null, List.of(new SimpleGrantedAuthority("ROLE_DAIRY_STAFF"))));
+		assertEquals(REPLICA_DB, readOnlyDatabase());
+	}
+
+	/**
+	 * Deliver the primary's heartbeat to the replica ageMillis late, then run a lag check.
+	 */
+	private void replicaHeartbeat(long ageMillis) {
+		replica.update("DELETE FROM replication_heartbeat");
+		replica.update("INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, ?)",
+				System.currentTimeMillis() - ageMillis);
+		replicaLagMonitor.check();
+	}
+
+	private String readOnlyDatabase() {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		return readOnly.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+	}
+
+	@TestConfiguration
+	static class Metrics {
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.digitaldairy.repository;
+
+import com.digitaldairy.model.DairyCenter;
+import com.digitaldairy.model.Farmer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class FarmerRepositoryTest {
+
+	private static final String PHONE = "9841000001";
+
+	@Autowired
+	private FarmerRepository farmerRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private DairyCenter chitwan;
+	private DairyCenter pokhara;
+	private DairyCenter butwal;
+
+	@BeforeEach
+	void setUp() {
+		chitwan = center("Chitwan Dairy");
+		pokhara = center("Pokhara Dairy");
+		butwal = center("Butwal Dairy");
+
+		// Same phone at three centers (same member number at two of them), plus a different member number
+		farmer("Ram at Pokhara", "F100", pokhara);
+		farmer("Ram at Chitwan", "F100", chitwan);
+		farmer("Ram at Butwal", "F200", butwal);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void hintedLookupPicksTheCenterAccount() {
+		Optional<Farmer> farmer = farmerRepository.findLoginFarmer(PHONE, "F100", chitwan.getId());
+
+		assertTrue(farmer.isPresent());
+		assertEquals("Ram at Chitwan", farmer.get().getName());
+		assertEquals("Chitwan Dairy", farmer.get().getDairyCenter().getName());
+		assertTrue(farmerRepository.findLoginFarmer(PHONE, "F200", chitwan.getId()).isEmpty());
+	}
+
+	@Test
+	void hintedLookupProbesTheUniqueIndex() {
+		String plan = (String) entityManager.createNativeQuery(
+						"EXPLAIN SELECT * FROM farmers WHERE phone = ? AND dairy_given_id = ? AND dairy_center_id = ?")
+				.setParameter(1, PHONE)
+				.setParameter(2, "F100")
+				.setParameter(3, chitwan.getId())
+				.getSingleResult();
+
+		assertTrue(plan.toUpperCase().contains("UK_FARMER_PHONE_GIVEN_ID_CENTER"), plan);
+	}
+
+	@Test
+	void unhintedLookupReturnsEarliestAccountFirst() {
+		List<Farmer> candidates = farmerRepository.findLoginCandidates(PHONE, "F100");
+
+		assertEquals(List.of("Ram at Pokhara", "Ram at Chitwan"), candidates.stream().map(Farmer::getName).toList());
+		assertEquals("Pokhara Dairy", candidates.get(0).getDairyCenter().getName());
+		assertEquals(List.of("Ram at Butwal"),
+				farmerRepository.findLoginCandidates(PHONE, "F200").stream().map(Farmer::getName).toList());
+		assertTrue(farmerRepository.findLoginCandidates("9800000000", "F100").isEmpty());
+	}
+
+	private DairyCenter center(String name) {
+		DairyCenter center = new DairyCenter(name, "Nepal", null);
+		entityManager.persist(center);
+		return center;
+	}
+
+	private void farmer(String name, String dairyGivenId, DairyCenter center) {
+		entityManager.persist(new Farmer(name, PHONE, "hash", dairyGivenId, center));
+	}
+}
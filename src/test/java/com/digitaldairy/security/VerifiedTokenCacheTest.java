@@ -0,0 +1,114 @@
+package com.digitaldairy.security;
+
+import com.digitaldairy.config.JwtConfig;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+
+	private static final SecretKey KEY = Keys.hmacShaKeyFor(
+			"test-secret-test-secret-test-secret-test-secret-test-secret-1234".getBytes(StandardCharsets.UTF_8));
+
+	@Test
+	void liveTokenIsServedFromCache() {
+		VerifiedTokenCache cache = cache(100);
+		VerifiedToken token = token(System.currentTimeMillis() + 60_000);
+		cache.put("k", token);
+
+		assertSame(token, cache.get("k"));
+		assertNull(cache.get("other"));
+	}
+
+	@Test
+	void expiredCachedTokenIsDroppedAndMissed() {
+		VerifiedTokenCache cache = cache(100);
+		cache.put("k", token(System.currentTimeMillis() - 1));
+
+		assertNull(cache.get("k"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void expiredCachedTokenIsStillRejectedByVerify() {
+		VerifiedTokenCache cache = cache(100);
+		JwtUtil jwtUtil = jwtUtil(cache);
+		String jwt = Jwts.builder()
+				.setSubject("9841000001")
+				.setExpiration(new Date(System.currentTimeMillis() - 1_000))
+				.signWith(KEY, SignatureAlgorithm.HS512)
+				.compact();
+		// As if verified shortly before it expired
+		cache.put(VerifiedTokenCache.keyOf(jwt), token(System.currentTimeMillis() - 1_000));
+
+		assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(jwt));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void sizeStaysBoundedAndRecentlyReadTokensSurvive() {
+		VerifiedTokenCache cache = cache(100);
+		VerifiedToken hot = token(System.currentTimeMillis() + 60_000);
+		cache.put("hot", hot);
+		for (int i = 0; i < 99; i++) {
+			cache.put("cold-" + i, token(System.currentTimeMillis() + 60_000));
+		}
+
+		for (int i = 0; i < 1_000; i++) {
+			assertSame(hot, cache.get("hot"));
+			cache.put("new-" + i, token(System.currentTimeMillis() + 60_000));
+			assertTrue(cache.size() <= 100, "size " + cache.size());
+		}
+		assertNull(cache.get("cold-0"));
+	}
+
+	@Test
+	void expiredTokensAreSweptBeforeLiveOnes() {
+		VerifiedTokenCache cache = cache(10);
+		for (int i = 0; i < 5; i++) {
+			cache.put("expired-" + i, token(System.currentTimeMillis() - 1));
+		}
+		for (int i = 0; i < 6; i++) {
+			cache.put("live-" + i, token(System.currentTimeMillis() + 60_000));
+		}
+
+		assertEquals(6, cache.size());
+		for (int i = 0; i < 6; i++) {
+			assertEquals("9841000001", cache.get("live-" + i).subject());
+		}
+	}
+
+	private static VerifiedTokenCache cache(int maxEntries) {
+		return new VerifiedTokenCache(new SimpleMeterRegistry(), maxEntries);
+	}
+
+	private static VerifiedToken token(long expiresAtMillis) {
+		return new VerifiedToken("9841000001", 1L, List.of("ROLE_FARMER"), null, null, expiresAtMillis);
+	}
+
+	private static JwtUtil jwtUtil(VerifiedTokenCache cache) {
+		JwtConfig jwtConfig = mock(JwtConfig.class);
+		when(jwtConfig.jwtSecretKey()).thenReturn(KEY);
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "jwtConfig", jwtConfig);
+		ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCache", cache);
+		return jwtUtil;
+	}
+}
@@ -0,0 +1,107 @@
+package com.digitaldairy.service.impl;
+
+import com.digitaldairy.dto.request.LoginRequest;
+import com.digitaldairy.dto.response.LoginResponse;
+import com.digitaldairy.model.DairyCenter;
+import com.digitaldairy.model.DairyStaff;
+import com.digitaldairy.repository.DairyCenterRepository;
+import com.digitaldairy.repository.DairyStaffRepository;
+import com.digitaldairy.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DairyStaffServiceImplTest {
+
+	private static final String PHONE = "9841000001";
+
+	private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+	private DairyStaffRepository staffRepository;
+	private JwtUtil jwtUtil;
+	private DairyStaffServiceImpl service;
+
+	private DairyStaff atChitwan;
+	private DairyStaff atPokhara;
+
+	@BeforeEach
+	void setUp() {
+		staffRepository = mock(DairyStaffRepository.class);
+		jwtUtil = mock(JwtUtil.class);
+		service = new DairyStaffServiceImpl(staffRepository, mock(DairyCenterRepository.class), passwordEncoder, jwtUtil);
+
+		atChitwan = staff(1L, center(10L, "Chitwan Dairy"), "chitwan-pass");
+		atPokhara = staff(2L, center(20L, "Pokhara Dairy"), "pokhara-pass");
+		when(staffRepository.findLoginCandidates(PHONE)).thenReturn(List.of(atChitwan, atPokhara));
+		when(staffRepository.findLoginStaff(PHONE, 10L)).thenReturn(Optional.of(atChitwan));
+		when(staffRepository.findLoginStaff(PHONE, 20L)).thenReturn(Optional.of(atPokhara));
+		when(jwtUtil.generateAccessToken(any(), any())).thenReturn("access");
+		when(jwtUtil.generateRefreshToken(any(), any())).thenReturn("refresh");
+	}
+
+	@Test
+	void multiCenterLoginWithoutHintListsCentersWithoutToken() {
+		LoginResponse response = service.staffLogin(login("chitwan-pass", null));
+
+		assertTrue(response.isRequiresCenterSelection());
+		assertNull(response.getToken());
+		assertNull(response.getRefreshToken());
+		assertEquals(List.of(10L, 20L), response.getCenters().stream().map(LoginResponse.CenterOption::getDairyId).toList());
+		verify(jwtUtil, never()).generateAccessToken(any(), any());
+	}
+
+	@Test
+	void multiCenterLoginWithoutHintAndOtherCenterPasswordAsksForCenter() {
+		BadCredentialsException error = assertThrows(BadCredentialsException.class,
+				() -> service.staffLogin(login("pokhara-pass", null)));
+
+		assertTrue(error.getMessage().contains("choose a dairy center"));
+	}
+
+	@Test
+	void hintedLoginChecksThatCentersPassword() {
+		LoginResponse response = service.staffLogin(login("pokhara-pass", 20L));
+
+		assertFalse(response.isRequiresCenterSelection());
+		assertEquals("access", response.getToken());
+		assertEquals(20L, response.getDairyId());
+		verify(jwtUtil).generateAccessToken(any(), eq(20L));
+		assertThrows(BadCredentialsException.class, () -> service.staffLogin(login("chitwan-pass", 20L)));
+	}
+
+	private LoginRequest login(String password, Long dairyCenterId) {
+		LoginRequest request = new LoginRequest();
+		request.setPhone(PHONE);
+		request.setPassword(password);
+		request.setDairyCenterId(dairyCenterId);
+		return request;
+	}
+
+	private DairyStaff staff(Long id, DairyCenter center, String password) {
+		DairyStaff staff = new DairyStaff("Staff " + id, PHONE, passwordEncoder.encode(password), center);
+		staff.setId(id);
+		return staff;
+	}
+
+	private static DairyCenter center(Long id, String name) {
+		DairyCenter center = new DairyCenter(name, "Nepal", "01-0000000");
+		center.setId(id);
+		return center;
+	}
+}
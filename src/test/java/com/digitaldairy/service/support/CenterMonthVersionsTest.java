@@ -0,0 +1,96 @@
+package com.digitaldairy.service.support;
+
+import com.digitaldairy.model.DairyCenter;
+import com.digitaldairy.model.MilkRecord;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({MonthlySummaryUpdater.class, CenterMonthVersions.class})
+class CenterMonthVersionsTest {
+
+	private static final int SHRAWAN = 208204;
+	private static final int BHADRA = 208205;
+
+	@Autowired
+	private MonthlySummaryUpdater monthlySummaryUpdater;
+
+	@Autowired
+	private CenterMonthVersions centerMonthVersions;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private DairyCenter chitwan;
+	private DairyCenter pokhara;
+
+	@BeforeEach
+	void setUp() {
+		chitwan = center("Chitwan Dairy");
+		pokhara = center("Pokhara Dairy");
+	}
+
+	@Test
+	void untouchedMonthIsVersionZero() {
+		assertEquals(0, centerMonthVersions.version(chitwan.getId(), SHRAWAN));
+	}
+
+	@Test
+	void everyUploadBumpsTheTouchedMonthsOnce() {
+		monthlySummaryUpdater.apply(chitwan.getId(), List.of(
+				record("F1", SHRAWAN), record("F2", SHRAWAN), record("F1", BHADRA)));
+		assertEquals(1, centerMonthVersions.version(chitwan.getId(), SHRAWAN));
+		assertEquals(1, centerMonthVersions.version(chitwan.getId(), BHADRA));
+
+		monthlySummaryUpdater.apply(chitwan.getId(), List.of(record("F2", SHRAWAN)));
+		assertEquals(2, centerMonthVersions.version(chitwan.getId(), SHRAWAN));
+		assertEquals(1, centerMonthVersions.version(chitwan.getId(), BHADRA));
+		assertEquals(0, centerMonthVersions.version(pokhara.getId(), SHRAWAN));
+	}
+
+	@Test
+	void versionsNeverRepeatWhenFarmerVersionsShuffle() {
+		// F1 then F2 and F2 then F1 leave the same farmer count and version sum; the month version still moves on
+		monthlySummaryUpdater.apply(chitwan.getId(), List.of(record("F1", SHRAWAN), record("F2", SHRAWAN)));
+		monthlySummaryUpdater.apply(chitwan.getId(), List.of(record("F1", SHRAWAN)));
+		long afterF1 = centerMonthVersions.version(chitwan.getId(), SHRAWAN);
+		monthlySummaryUpdater.apply(chitwan.getId(), List.of(record("F2", SHRAWAN)));
+
+		assertEquals(afterF1 + 1, centerMonthVersions.version(chitwan.getId(), SHRAWAN));
+	}
+
+	@Test
+	void rebuildBumpsEvenWhenTheMonthEmpties() {
+		monthlySummaryUpdater.apply(chitwan.getId(), List.of(record("F1", SHRAWAN), record("F2", SHRAWAN)));
+
+		// No milk_records rows back the summaries, so the rebuild drops them all
+		assertEquals(0, monthlySummaryUpdater.rebuild(chitwan.getId(), SHRAWAN));
+		assertEquals(2, centerMonthVersions.version(chitwan.getId(), SHRAWAN));
+
+		monthlySummaryUpdater.apply(chitwan.getId(), List.of(record("F1", SHRAWAN)));
+		assertEquals(3, centerMonthVersions.version(chitwan.getId(), SHRAWAN));
+	}
+
+	private MilkRecord record(String memberCode, int nepaliPeriod) {
+		MilkRecord record = new MilkRecord(LocalDate.of(2025, 8, 1), "2082-04-16", "04", "2082",
+				LocalTime.of(6, 30), memberCode, 5.0, 4.2, 8.5, 60.0, 300.0, null, chitwan);
+		record.setNepaliPeriod(nepaliPeriod);
+		return record;
+	}
+
+	private DairyCenter center(String name) {
+		DairyCenter center = new DairyCenter(name, "Nepal", null);
+		entityManager.persist(center);
+		return center;
+	}
+}
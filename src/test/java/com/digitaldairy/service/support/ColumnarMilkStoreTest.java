@@ -0,0 +1,97 @@
+package com.digitaldairy.service.support;
+
+import com.digitaldairy.model.MilkShift;
+import com.digitaldairy.repository.MilkRecordRepository;
+import com.digitaldairy.util.MilkColumnRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ColumnarMilkStoreTest {
+
+	private static final long MAX_ROWS = 100;
+
+	private MilkRecordRepository milkRecordRepository;
+	private SimpleMeterRegistry meterRegistry;
+	private ColumnarMilkStore store;
+
+	@BeforeEach
+	void setUp() {
+		milkRecordRepository = mock(MilkRecordRepository.class);
+		meterRegistry = new SimpleMeterRegistry();
+		store = new ColumnarMilkStore(milkRecordRepository, mock(PlatformTransactionManager.class), meterRegistry,
+				true, MAX_ROWS);
+		for (long center = 1; center <= 3; center++) {
+			long id = center;
+			when(milkRecordRepository.streamColumnRows(id)).thenAnswer(invocation -> rows(40, 0).stream());
+		}
+	}
+
+	@Test
+	void loadedCentersStayWithinBudget() {
+		store.view(1L);
+		store.view(2L);
+		assertEquals(80.0, rowsGauge());
+
+		store.view(3L);  // 120 rows: the least recently queried center goes
+
+		assertEquals(80.0, rowsGauge());
+		assertEquals(1.0, meterRegistry.get("analytics.columnar.evictions").counter().count());
+		store.view(2L);
+		store.view(3L);
+		verify(milkRecordRepository, times(1)).streamColumnRows(2L);
+		verify(milkRecordRepository, times(1)).streamColumnRows(3L);
+
+		assertEquals(40, store.view(1L).size());  // Reloaded
+		verify(milkRecordRepository, times(2)).streamColumnRows(1L);
+	}
+
+	@Test
+	void recentlyQueriedCenterIsKept() {
+		store.view(1L);
+		store.view(2L);
+		store.view(1L);  // Center 2 is now the idle one
+
+		store.view(3L);
+
+		store.view(1L);
+		verify(milkRecordRepository, times(1)).streamColumnRows(1L);
+		store.view(2L);
+		verify(milkRecordRepository, times(2)).streamColumnRows(2L);
+	}
+
+	@Test
+	void appendBeyondBudgetEvictsOthersButKeepsTheGrowingCenter() {
+		store.view(1L);
+		store.view(2L);
+
+		store.append(2L, rows(70, 1));
+
+		assertEquals(110, store.view(2L).size());
+		assertEquals(110.0, rowsGauge());  // Only center 2 left; a single center may exceed the budget
+		verify(milkRecordRepository, times(1)).streamColumnRows(2L);
+	}
+
+	private double rowsGauge() {
+		return meterRegistry.get("analytics.columnar.rows").gauge().value();
+	}
+
+	private static List<MilkColumnRow> rows(int count, long firstSeq) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new MilkColumnRow("M" + (i % 5), LocalDate.of(2024, 4, 13).plusDays(i / 2), 208101,
+						i % 2 == 0 ? MilkShift.MORNING : MilkShift.EVENING, firstSeq > 0 ? firstSeq + i : null,
+						5.0, 4.0, 8.5, 60.0, 300.0))
+				.toList();
+	}
+}
@@ -0,0 +1,86 @@
+package com.digitaldairy.service.support;
+
+import com.digitaldairy.model.AnomalyMetric;
+import com.digitaldairy.model.MilkShift;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class MilkAnomalyDetectorTest {
+
+	private static final long CENTER = 7L;
+
+	// alpha 0.5, flag beyond 4 standard deviations once a key has 1 sample
+	private final MilkAnomalyDetector detector =
+			new MilkAnomalyDetector(mock(ColumnarMilkStore.class), true, 0.5, 4.0, 1);
+
+	@Test
+	void firstObservationSeedsTheMeanAndLaterOnesMoveItByAlpha() {
+		observe("M1", 10.0);
+		assertEquals(10.0, volumeMean("M1"), 1e-9);
+
+		observe("M1", 12.0);
+		assertEquals(11.0, volumeMean("M1"), 1e-9);  // 10 + 0.5 × (12 - 10)
+
+		// Variance (1 - 0.5) × (0 + 2 × 1) = 1, so a probe at mean + 100 lies 100 deviations out
+		assertEquals(100.0, probe("M1", 111.0).deviation(), 1e-9);
+	}
+
+	@Test
+	void oldObservationsDecayGeometrically() {
+		observe("M1", 10.0);
+		for (int k = 1; k <= 10; k++) {
+			observe("M1", 11.0);
+			assertEquals(11.0 - Math.pow(0.5, k), volumeMean("M1"), 1e-9, "after " + k + " updates");
+		}
+	}
+
+	@Test
+	void flaggedValuesDoNotMoveTheBaseline() {
+		observe("M1", 10.0);
+		observe("M1", 10.0);
+
+		MilkAnomalyDetector.Pending pending = new MilkAnomalyDetector.Pending();
+		List<MilkAnomalyDetector.Hit> hits = detector.check(pending, CENTER, "M1", MilkShift.MORNING, 40.0, 4.0, 8.5);
+		detector.apply(pending);
+
+		assertEquals(1, hits.size());
+		assertEquals(AnomalyMetric.VOLUME, hits.get(0).metric());
+		assertEquals(10.0, volumeMean("M1"), 1e-9);
+	}
+
+	@Test
+	void baselinesArePerFarmerAndShift() {
+		observe("M1", 10.0);
+		observe("M2", 20.0);
+
+		assertEquals(10.0, volumeMean("M1"), 1e-9);
+		assertEquals(20.0, volumeMean("M2"), 1e-9);
+		assertTrue(detector.check(new MilkAnomalyDetector.Pending(), CENTER, "M1", MilkShift.EVENING,
+				1000.0, 4.0, 8.5).isEmpty());  // No evening baseline yet
+	}
+
+	private void observe(String memberCode, double volume) {
+		MilkAnomalyDetector.Pending pending = new MilkAnomalyDetector.Pending();
+		detector.check(pending, CENTER, memberCode, MilkShift.MORNING, volume, 4.0, 8.5);
+		detector.apply(pending);
+	}
+
+	/**
+	 * Running volume mean, read from the hit of a far-off probe (flagged, so it doesn't update the state).
+	 */
+	private double volumeMean(String memberCode) {
+		return probe(memberCode, 1e6).expected();
+	}
+
+	private MilkAnomalyDetector.Hit probe(String memberCode, double volume) {
+		List<MilkAnomalyDetector.Hit> hits = detector.check(new MilkAnomalyDetector.Pending(), CENTER, memberCode,
+				MilkShift.MORNING, volume, 4.0, 8.5);
+		assertEquals(AnomalyMetric.VOLUME, hits.get(0).metric());
+		return hits.get(0);
+	}
+}
@@ -0,0 +1,119 @@
+package com.digitaldairy.service.support;
+
+import com.digitaldairy.exception.InvalidRequestException;
+import com.digitaldairy.model.MilkShift;
+import com.digitaldairy.util.FixedBinHistogram;
+import com.digitaldairy.util.MilkColumnRow;
+import com.digitaldairy.util.MilkColumns;
+import com.digitaldairy.util.MilkTotals;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MilkQualityScannerTest {
+
+	private static final int ROWS = 400_000;  // Several fork/join leaves
+	private static final int[] PERIODS = {208010, 208011, 208012, 208101, 208102, 208103};
+
+	private final MilkQualityScanner scanner = new MilkQualityScanner();
+	private final MilkColumns.View columns = columns();
+
+	@Test
+	void parallelScanMatchesSequentialScan() {
+		assertMatchesSequential(-1, 208010, 208103);
+	}
+
+	@Test
+	void periodRangeAcrossTheYearBoundary() {
+		assertMatchesSequential(-1, 208012, 208101);
+	}
+
+	@Test
+	void singleMember() {
+		assertMatchesSequential(columns.findMemberId("M123"), 208011, 208102);
+	}
+
+	@Test
+	void smallScanOnTheCallingThread() {
+		MilkColumns small = new MilkColumns();
+		small.append(row("M1", 208101, 5.0, 4.1, 8.5));
+		small.append(row("M1", 208102, 3.0, 3.9, 8.1));
+		small.publish();
+
+		MilkQualityScanner.QualityStats stats = scanner.scan(small.view(), -1, 208101, 208102);
+
+		assertEquals(2, stats.getFat().getTotal());
+		assertEquals(1, stats.getMonthly()[0].getRecordCount());
+		assertEquals(3.0, stats.getMonthly()[1].getTotalLiters(), 1e-9);
+	}
+
+	@Test
+	void rejectsEmptyOrTooLongRanges() {
+		assertThrows(InvalidRequestException.class, () -> scanner.scan(columns, -1, 208102, 208101));
+		assertThrows(InvalidRequestException.class, () -> scanner.scan(columns, -1, 206001, 208101));
+	}
+
+	private void assertMatchesSequential(int memberId, int fromPeriod, int toPeriod) {
+		int fromMonth = MilkQualityScanner.monthIndex(fromPeriod);
+		int months = MilkQualityScanner.monthIndex(toPeriod) - fromMonth + 1;
+		FixedBinHistogram fat = histogram();
+		FixedBinHistogram snf = histogram();
+		MilkTotals[] monthly = new MilkTotals[months];
+		for (int m = 0; m < months; m++) {
+			monthly[m] = new MilkTotals();
+		}
+		for (int i = 0; i < columns.size(); i++) {
+			int period = columns.periods()[i];
+			if (period < fromPeriod || period > toPeriod || (memberId >= 0 && columns.memberIds()[i] != memberId)) {
+				continue;
+			}
+			fat.add(columns.fats()[i]);
+			snf.add(columns.snfs()[i]);
+			monthly[MilkQualityScanner.monthIndex(period) - fromMonth]
+					.add(columns.volumes()[i], columns.fats()[i], columns.snfs()[i], columns.amounts()[i]);
+		}
+
+		MilkQualityScanner.QualityStats stats = scanner.scan(columns, memberId, fromPeriod, toPeriod);
+
+		assertEquals(fat.getTotal(), stats.getFat().getTotal());
+		for (double q : new double[] {0.0, 0.1, 0.5, 0.9, 0.99, 1.0}) {
+			assertEquals(fat.quantile(q), stats.getFat().quantile(q), 0.0, "fat q" + q);
+			assertEquals(snf.quantile(q), stats.getSnf().quantile(q), 0.0, "snf q" + q);
+		}
+		assertEquals(months, stats.getMonthly().length);
+		for (int m = 0; m < months; m++) {
+			MilkTotals expected = monthly[m];
+			MilkTotals actual = stats.getMonthly()[m];
+			assertEquals(expected.getRecordCount(), actual.getRecordCount(), "month " + m);
+			assertEquals(expected.getTotalLiters(), actual.getTotalLiters(), 1e-6);
+			assertEquals(expected.getTotalAmount(), actual.getTotalAmount(), 1e-4);
+			assertEquals(expected.getAverageFat(), actual.getAverageFat(), 1e-9);
+			assertEquals(expected.getAverageSnf(), actual.getAverageSnf(), 1e-9);
+		}
+	}
+
+	private static MilkColumns.View columns() {
+		Random random = new Random(7);
+		MilkColumns columns = new MilkColumns();
+		for (int i = 0; i < ROWS; i++) {
+			columns.append(row("M" + random.nextInt(500), PERIODS[random.nextInt(PERIODS.length)],
+					1.0 + random.nextInt(150) / 10.0, 3.0 + random.nextInt(300) / 100.0, 7.5 + random.nextInt(150) / 100.0));
+		}
+		columns.publish();
+		return columns.view();
+	}
+
+	private static MilkColumnRow row(String memberCode, int period, double liters, double fat, double snf) {
+		return new MilkColumnRow(memberCode, LocalDate.of(2024, 1, 1), period, MilkShift.MORNING, null,
+				liters, fat, snf, 60.0, liters * 60.0);
+	}
+
+	private static FixedBinHistogram histogram() {
+		return new FixedBinHistogram(MilkQualityScanner.VALUE_MIN, MilkQualityScanner.VALUE_MAX,
+				MilkQualityScanner.VALUE_RESOLUTION);
+	}
+}
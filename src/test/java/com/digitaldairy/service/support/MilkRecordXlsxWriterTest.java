@@ -0,0 +1,161 @@
+package com.digitaldairy.service.support;
+
+import com.digitaldairy.model.MilkShift;
+import com.digitaldairy.util.MilkExportRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MilkRecordXlsxWriterTest {
+
+	private static final int MEMBERS = 500;
+	private static final int ROWS_PER_MEMBER = 200;  // 100,000 records
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void streamsHundredThousandRowsThroughASmallWindow() throws Exception {
+		MilkRecordXlsxWriter writer = new MilkRecordXlsxWriter(10);
+		Path file = tempDir.resolve("export.xlsx");
+
+		long written;
+		try (OutputStream out = Files.newOutputStream(file)) {
+			written = writer.write(out, "2081-01", "Chitwan Dairy - 2081-01", rows(), code -> "Farmer " + code);
+		}
+
+		assertEquals((long) MEMBERS * ROWS_PER_MEMBER, written);
+
+		SheetSummary sheet = new SheetSummary();
+		readSheet(file, sheet);
+		// Title, header, records, one subtotal per member, center total
+		assertEquals(2 + MEMBERS * ROWS_PER_MEMBER + MEMBERS + 1, sheet.rows);
+		assertEquals(MEMBERS, sheet.subtotals);
+		assertEquals("Chitwan Dairy - 2081-01", sheet.first.get(0).get("A"));
+		assertEquals("Member Code", sheet.first.get(1).get("A"));
+
+		Map<String, String> firstRecord = sheet.first.get(2);
+		assertEquals("M0000", firstRecord.get("A"));
+		assertEquals("Farmer M0000", firstRecord.get("B"));
+		assertEquals("2081-01-01", firstRecord.get("D"));
+		assertEquals("06:30", firstRecord.get("E"));
+		assertEquals("MORNING", firstRecord.get("F"));
+		assertEquals(5.0, Double.parseDouble(firstRecord.get("G")), 1e-9);
+
+		Map<String, String> firstSubtotal = sheet.first.get(2 + ROWS_PER_MEMBER);
+		assertEquals("Subtotal M0000", firstSubtotal.get("A"));
+		assertEquals(ROWS_PER_MEMBER + " records", firstSubtotal.get("F"));
+		assertEquals(ROWS_PER_MEMBER * 5.0, Double.parseDouble(firstSubtotal.get("G")), 1e-6);
+
+		assertEquals("Center Total", sheet.last.get("A"));
+		assertEquals(MEMBERS * ROWS_PER_MEMBER + " records", sheet.last.get("F"));
+		assertEquals(MEMBERS * ROWS_PER_MEMBER * 5.0, Double.parseDouble(sheet.last.get("G")), 1e-3);
+		assertEquals(4.0, Double.parseDouble(sheet.last.get("H")), 1e-9);
+		assertEquals(MEMBERS * ROWS_PER_MEMBER * 300.0, Double.parseDouble(sheet.last.get("K")), 1e-2);
+	}
+
+	@Test
+	void emptyExportHasOnlyTheCenterTotal() throws Exception {
+		Path file = tempDir.resolve("empty.xlsx");
+
+		long written;
+		try (OutputStream out = Files.newOutputStream(file)) {
+			written = new MilkRecordXlsxWriter(10).write(out, "2081-01", "Empty", Stream.empty(), code -> null);
+		}
+
+		SheetSummary sheet = new SheetSummary();
+		readSheet(file, sheet);
+		assertEquals(0, written);
+		assertEquals(3, sheet.rows);
+		assertEquals("Center Total", sheet.last.get("A"));
+		assertEquals("0 records", sheet.last.get("F"));
+	}
+
+	private static Stream<MilkExportRow> rows() {
+		return IntStream.range(0, MEMBERS * ROWS_PER_MEMBER).mapToObj(i -> {
+			int day = (i % ROWS_PER_MEMBER) / 2;
+			boolean morning = i % 2 == 0;
+			return new MilkExportRow(String.format("M%04d", i / ROWS_PER_MEMBER), LocalDate.of(2024, 4, 13).plusDays(day),
+					String.format("2081-01-%02d", day % 30 + 1), morning ? LocalTime.of(6, 30) : LocalTime.of(17, 0),
+					morning ? MilkShift.MORNING : MilkShift.EVENING, 5.0, 4.0, 8.5, 60.0, 300.0);
+		});
+	}
+
+	/**
+	 * Row count, first rows and last row of the sheet, read with StAX so the check itself stays streaming.
+	 */
+	private static final class SheetSummary implements Consumer<Map<String, String>> {
+		private int rows;
+		private int subtotals;
+		private final List<Map<String, String>> first = new ArrayList<>();
+		private Map<String, String> last;
+
+		@Override
+		public void accept(Map<String, String> row) {
+			rows++;
+			String label = row.get("A");
+			if (label != null && label.startsWith("Subtotal ")) {
+				subtotals++;
+			}
+			if (first.size() < 2 + ROWS_PER_MEMBER + 1) {
+				first.add(row);
+			}
+			last = row;
+		}
+	}
+
+	private static void readSheet(Path xlsx, Consumer<Map<String, String>> rows) throws Exception {
+		try (ZipFile zip = new ZipFile(xlsx.toFile());
+			 InputStream sheetXml = zip.getInputStream(zip.getEntry("xl/worksheets/sheet1.xml"))) {
+			parseRows(sheetXml, rows);
+		}
+	}
+
+	private static void parseRows(InputStream sheetXml, Consumer<Map<String, String>> rows) throws Exception {
+		XMLStreamReader xml = XMLInputFactory.newFactory().createXMLStreamReader(sheetXml);
+		Map<String, String> row = null;
+		String column = null;
+		StringBuilder text = new StringBuilder();
+		while (xml.hasNext()) {
+			int event = xml.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				switch (xml.getLocalName()) {
+					case "row" -> row = new LinkedHashMap<>();
+					case "c" -> {
+						column = xml.getAttributeValue(null, "r").replaceAll("\\d", "");
+						text.setLength(0);
+					}
+					default -> { }
+				}
+			} else if (event == XMLStreamConstants.CHARACTERS && column != null) {
+				text.append(xml.getText());
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				if (xml.getLocalName().equals("c")) {
+					row.put(column, text.toString());
+					column = null;
+				} else if (xml.getLocalName().equals("row")) {
+					rows.accept(row);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.digitaldairy.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BikramSambatTest {
+
+	@Test
+	void knownYearStarts() {
+		assertEquals(LocalDate.of(1943, 4, 14), BikramSambat.toAd(2000, 1, 1));
+		assertEquals(LocalDate.of(2023, 4, 14), BikramSambat.toAd(2080, 1, 1));
+		assertEquals(LocalDate.of(2024, 4, 13), BikramSambat.toAd(2081, 1, 1));
+		assertEquals(LocalDate.of(2025, 4, 14), BikramSambat.toAd(2082, 1, 1));
+		assertEquals(new BikramSambat.BsDate(2082, 1, 1), BikramSambat.toBs(LocalDate.of(2025, 4, 14)));
+		assertEquals(new BikramSambat.BsDate(2000, 1, 1), BikramSambat.toBs(LocalDate.of(1943, 4, 14)));
+	}
+
+	@Test
+	void monthAndYearEndsRollOver() {
+		int baisakhDays = BikramSambat.daysInMonth(2082, 1);
+		LocalDate lastOfBaisakh = BikramSambat.toAd(2082, 1, baisakhDays);
+		assertEquals(new BikramSambat.BsDate(2082, 2, 1), BikramSambat.toBs(lastOfBaisakh.plusDays(1)));
+
+		int chaitraDays = BikramSambat.daysInMonth(2081, 12);
+		assertEquals(LocalDate.of(2025, 4, 13), BikramSambat.toAd(2081, 12, chaitraDays));
+		assertEquals(new BikramSambat.BsDate(2081, 12, chaitraDays), BikramSambat.toBs(LocalDate.of(2025, 4, 13)));
+	}
+
+	@Test
+	void periodRangeCoversWholeMonth() {
+		BikramSambat.DateRange range = BikramSambat.periodRange(208201);
+		assertEquals(LocalDate.of(2025, 4, 14), range.start());
+		assertEquals(BikramSambat.toAd(2082, 1, BikramSambat.daysInMonth(2082, 1)), range.end());
+		assertEquals(BikramSambat.periodRange(208202).start(), range.end().plusDays(1));
+	}
+
+	@Test
+	void everyDayOfTheTableRoundTrips() {
+		LocalDate date = LocalDate.of(1943, 4, 14);
+		BikramSambat.BsDate previous = null;
+		while (BikramSambat.supports(date)) {
+			BikramSambat.BsDate bs = BikramSambat.toBs(date);
+			assertEquals(date, BikramSambat.toAd(bs.year(), bs.month(), bs.day()), "round trip of " + date);
+			if (previous != null) {
+				assertEquals(next(previous), bs, "day after " + previous);
+			}
+			previous = bs;
+			date = date.plusDays(1);
+		}
+		assertEquals(BikramSambat.MAX_YEAR, previous.year());
+		assertEquals(12, previous.month());
+		assertEquals(BikramSambat.daysInMonth(BikramSambat.MAX_YEAR, 12), previous.day());
+	}
+
+	@Test
+	void datesOutsideTheTableAreRejected() {
+		LocalDate beforeStart = LocalDate.of(1943, 4, 13);
+		LocalDate afterEnd = BikramSambat.toAd(BikramSambat.MAX_YEAR, 12,
+				BikramSambat.daysInMonth(BikramSambat.MAX_YEAR, 12)).plusDays(1);
+
+		assertFalse(BikramSambat.supports(beforeStart));
+		assertFalse(BikramSambat.supports(afterEnd));
+		assertTrue(BikramSambat.supports(afterEnd.minusDays(1)));
+		assertThrows(IllegalArgumentException.class, () -> BikramSambat.toBs(beforeStart));
+		assertThrows(IllegalArgumentException.class, () -> BikramSambat.toBs(afterEnd));
+		assertThrows(IllegalArgumentException.class, () -> BikramSambat.toAd(1999, 12, 1));
+		assertThrows(IllegalArgumentException.class, () -> BikramSambat.toAd(2091, 1, 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> BikramSambat.toAd(2082, 1, BikramSambat.daysInMonth(2082, 1) + 1));
+		assertThrows(IllegalArgumentException.class, () -> BikramSambat.periodRange(209101));
+	}
+
+	private static BikramSambat.BsDate next(BikramSambat.BsDate date) {
+		if (date.day() < BikramSambat.daysInMonth(date.year(), date.month())) {
+			return new BikramSambat.BsDate(date.year(), date.month(), date.day() + 1);
+		}
+		if (date.month() < 12) {
+			return new BikramSambat.BsDate(date.year(), date.month() + 1, 1);
+		}
+		return new BikramSambat.BsDate(date.year() + 1, 1, 1);
+	}
+}
@@ -0,0 +1,113 @@
+package com.digitaldairy.util;
+
+import com.digitaldairy.exception.InvalidRequestException;
+import com.digitaldairy.model.RateChart;
+import com.digitaldairy.model.RateChartMode;
+import com.digitaldairy.model.RateChartPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledRateChartTest {
+
+	// fat 3.0 / 4.0 / 5.0 × SNF 8.0 / 9.0, deliberately not linear so interpolation is bilinear
+	private static final List<RateChartPoint> GRID = List.of(
+			new RateChartPoint(3.0, 8.0, 50.0), new RateChartPoint(3.0, 9.0, 56.0),
+			new RateChartPoint(4.0, 8.0, 60.0), new RateChartPoint(4.0, 9.0, 70.0),
+			new RateChartPoint(5.0, 8.0, 66.0), new RateChartPoint(5.0, 9.0, 80.0));
+
+	@Test
+	void anchorsKeepTheirRates() {
+		CompiledRateChart compiled = CompiledRateChart.compile(chart(GRID));
+
+		for (RateChartPoint point : GRID) {
+			assertEquals(point.getRate(), compiled.rateFor(point.getFatPercentage(), point.getSnf()), 1e-9);
+		}
+	}
+
+	@Test
+	void interpolatesBilinearlyBetweenAnchors() {
+		CompiledRateChart compiled = CompiledRateChart.compile(chart(GRID));
+
+		assertEquals(59.0, compiled.rateFor(3.5, 8.5), 1e-9);   // Cell center: mean of the four corners
+		assertEquals(55.0, compiled.rateFor(3.5, 8.0), 1e-9);   // Along the fat axis
+		assertEquals(53.0, compiled.rateFor(3.0, 8.5), 1e-9);   // Along the SNF axis
+		assertEquals(58.76, compiled.rateFor(3.7, 8.2), 1e-9);  // Off-center, weights 0.3/0.7 × 0.8/0.2
+		assertEquals(69.0, compiled.rateFor(4.5, 8.5), 1e-9);   // Second fat segment
+	}
+
+	@Test
+	void twoDecimalValuesRoundToTheNearestTenth() {
+		CompiledRateChart compiled = CompiledRateChart.compile(chart(GRID));
+
+		assertEquals(compiled.rateFor(3.5, 8.0), compiled.rateFor(3.46, 8.04), 1e-9);
+		assertEquals(compiled.rateFor(3.7, 8.2), compiled.rateFor(3.74, 8.15), 1e-9);
+		assertEquals(66.0, compiled.rateFor(5.04, 8.0), 1e-9);
+	}
+
+	@Test
+	void outsideTheChartIsNaN() {
+		CompiledRateChart compiled = CompiledRateChart.compile(chart(GRID));
+
+		assertTrue(Double.isNaN(compiled.rateFor(2.9, 8.5)));
+		assertTrue(Double.isNaN(compiled.rateFor(5.06, 8.5)));
+		assertTrue(Double.isNaN(compiled.rateFor(4.0, 7.9)));
+		assertTrue(Double.isNaN(compiled.rateFor(4.0, 9.1)));
+	}
+
+	@Test
+	void keepsModeAndTolerances() {
+		RateChart chart = chart(GRID);
+		chart.setMode(RateChartMode.RECOMPUTE);
+		chart.setRateTolerance(0.05);
+		chart.setAmountTolerance(1.0);
+
+		CompiledRateChart compiled = CompiledRateChart.compile(chart);
+
+		assertEquals(RateChartMode.RECOMPUTE, compiled.getMode());
+		assertEquals(0.05, compiled.getRateTolerance(), 0.0);
+		assertEquals(1.0, compiled.getAmountTolerance(), 0.0);
+	}
+
+	@Test
+	void rejectsIncompleteGrid() {
+		List<RateChartPoint> points = new ArrayList<>(GRID);
+		points.remove(3);
+
+		InvalidRequestException error = assertThrows(InvalidRequestException.class,
+				() -> CompiledRateChart.compile(chart(points)));
+		assertTrue(error.getMessage().contains("complete grid"), error.getMessage());
+	}
+
+	@Test
+	void rejectsDuplicatePoints() {
+		List<RateChartPoint> exact = new ArrayList<>(GRID);
+		exact.add(new RateChartPoint(4.0, 9.0, 71.0));
+		List<RateChartPoint> afterRounding = new ArrayList<>(GRID);
+		afterRounding.add(new RateChartPoint(4.04, 8.96, 71.0));
+
+		assertThrows(InvalidRequestException.class, () -> CompiledRateChart.compile(chart(exact)));
+		assertThrows(InvalidRequestException.class, () -> CompiledRateChart.compile(chart(afterRounding)));
+	}
+
+	@Test
+	void rejectsEmptyNegativeAndOversizedCharts() {
+		assertThrows(InvalidRequestException.class, () -> CompiledRateChart.compile(chart(List.of())));
+		assertThrows(InvalidRequestException.class,
+				() -> CompiledRateChart.compile(chart(List.of(new RateChartPoint(3.0, 8.0, -1.0)))));
+		assertThrows(InvalidRequestException.class, () -> CompiledRateChart.compile(chart(List.of(
+				new RateChartPoint(0.0, 0.0, 1.0), new RateChartPoint(0.0, 25.0, 1.0),
+				new RateChartPoint(25.0, 0.0, 1.0), new RateChartPoint(25.0, 25.0, 1.0)))));
+	}
+
+	private static RateChart chart(List<RateChartPoint> points) {
+		RateChart chart = new RateChart(1L);
+		chart.setPoints(new ArrayList<>(points));
+		return chart;
+	}
+}
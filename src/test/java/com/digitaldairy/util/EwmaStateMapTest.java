@@ -0,0 +1,65 @@
+package com.digitaldairy.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EwmaStateMapTest {
+
+	@Test
+	void insertsZeroedBlocksAndFindsThem() {
+		EwmaStateMap map = new EwmaStateMap(3, 16);
+
+		assertEquals(-1, map.find(42L));
+		int offset = map.findOrInsert(42L);
+		assertEquals(1, map.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0.0, map.values()[offset + i], 0.0);
+		}
+
+		map.values()[offset + 2] = 7.5;
+		assertEquals(offset, map.find(42L));
+		assertEquals(offset, map.findOrInsert(42L));
+		assertEquals(1, map.size());
+		assertEquals(7.5, map.values()[map.find(42L) + 2], 0.0);
+	}
+
+	@Test
+	void keepsEveryBlockAcrossResizes() {
+		EwmaStateMap map = new EwmaStateMap(2, 4);
+		int keys = 10_000;
+		for (long key = 1; key <= keys; key++) {
+			int offset = map.findOrInsert(key * 0x10000L);  // Low bits equal: collision-prone keys
+			map.values()[offset] = key;
+			map.values()[offset + 1] = -key;
+		}
+
+		assertEquals(keys, map.size());
+		for (long key = 1; key <= keys; key++) {
+			int offset = map.find(key * 0x10000L);
+			assertNotEquals(-1, offset);
+			assertEquals(key, map.values()[offset], 0.0);
+			assertEquals(-key, map.values()[offset + 1], 0.0);
+		}
+		assertEquals(-1, map.find(keys + 1L));
+	}
+
+	@Test
+	void negativeKeysWork() {
+		EwmaStateMap map = new EwmaStateMap(1, 16);
+		map.values()[map.findOrInsert(Long.MIN_VALUE)] = 1.0;
+		map.values()[map.findOrInsert(-1L)] = 2.0;
+
+		assertEquals(1.0, map.values()[map.find(Long.MIN_VALUE)], 0.0);
+		assertEquals(2.0, map.values()[map.find(-1L)], 0.0);
+	}
+
+	@Test
+	void rejectsReservedKey() {
+		EwmaStateMap map = new EwmaStateMap(1, 16);
+
+		assertThrows(IllegalArgumentException.class, () -> map.findOrInsert(0L));
+	}
+}
@@ -0,0 +1,103 @@
+package com.digitaldairy.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FarmerPrefixIndexTest {
+
+	private static final FarmerPrefixIndex.Entry RAM = new FarmerPrefixIndex.Entry(1L, "Ram Bahadur Thapa", "9841000001", "F101");
+	private static final FarmerPrefixIndex.Entry RAMESH = new FarmerPrefixIndex.Entry(2L, "Ramesh Karki", "9841000002", "F102");
+	private static final FarmerPrefixIndex.Entry SITA = new FarmerPrefixIndex.Entry(3L, "सीता कुमारी श्रेष्ठ", "9800123456", "A-7");
+	private static final FarmerPrefixIndex.Entry HARI = new FarmerPrefixIndex.Entry(4L, "हरि प्रसाद", null, "F201");
+
+	private final FarmerPrefixIndex index = FarmerPrefixIndex.of(List.of(RAM, RAMESH, SITA, HARI));
+
+	@Test
+	void matchesNameWordPrefixes() {
+		assertEquals(List.of(RAM), index.search("thap", 10));
+		assertEquals(List.of(RAM, RAMESH), index.search("ra", 10));
+		assertEquals(List.of(RAMESH), index.search("kark", 10));
+		assertEquals(List.of(RAM), index.search("ram bah", 10));
+	}
+
+	@Test
+	void exactTermMatchesComeFirst() {
+		FarmerPrefixIndex.Entry abhi = new FarmerPrefixIndex.Entry(10L, "Abhi Ramesh", null, "F1");
+		FarmerPrefixIndex.Entry zed = new FarmerPrefixIndex.Entry(11L, "Zed Rames", null, "F2");
+		FarmerPrefixIndex index = FarmerPrefixIndex.of(List.of(abhi, zed));
+
+		// By name Abhi sorts first, but only Zed has the exact term "rames"
+		assertEquals(List.of(zed, abhi), index.search("rames", 10));
+		assertEquals(List.of(zed), index.search("rames", 1));
+		assertEquals(List.of(abhi, zed), index.search("ram", 10));
+	}
+
+	@Test
+	void ignoresCaseAndExtraWhitespace() {
+		assertEquals(List.of(RAM), index.search("  THAPA ", 10));
+		assertEquals(List.of(RAM), index.search("RaM   BaHaDuR", 10));
+		assertEquals(List.of(SITA), index.search("a-7", 10));
+		assertEquals(List.of(RAM, RAMESH), index.search("f10", 10));
+	}
+
+	@Test
+	void matchesDevanagariNames() {
+		assertEquals(List.of(SITA), index.search("सीता", 10));
+		assertEquals(List.of(SITA), index.search("श्रे", 10));
+		assertEquals(List.of(SITA), index.search("सीता कुमारी", 10));
+		assertEquals(List.of(HARI), index.search("प्र", 10));
+		assertEquals(List.of(), index.search("राम", 10));
+	}
+
+	@Test
+	void matchesPhonesTypedWithSeparators() {
+		assertEquals(List.of(SITA), index.search("980 012-3456", 10));
+		assertEquals(List.of(RAM, RAMESH), index.search("98410", 10));
+		assertEquals(List.of(RAMESH), index.search("+9841000002", 10));
+	}
+
+	@Test
+	void blankQueryOrZeroLimitFindsNothing() {
+		assertEquals(List.of(), index.search("   ", 10));
+		assertEquals(List.of(), index.search("ram", 0));
+	}
+
+	@Test
+	void addedEntryIsSearchableWithoutChangingTheOriginal() {
+		FarmerPrefixIndex.Entry rama = new FarmerPrefixIndex.Entry(5L, "Rama Poudel", "9841000005", "F105");
+
+		FarmerPrefixIndex added = index.withEntry(rama);
+
+		assertEquals(List.of(RAM, rama, RAMESH), added.search("ram", 10));
+		assertEquals(List.of(RAM, RAMESH), index.search("ram", 10));
+		assertSame(added, added.withEntry(rama));
+	}
+
+	@Test
+	void removedEntryIsNoLongerFound() {
+		FarmerPrefixIndex removed = index.withoutEntry(RAM.id());
+
+		assertEquals(3, removed.size());
+		assertEquals(List.of(RAMESH), removed.search("ram", 10));
+		assertEquals(List.of(), removed.search("thapa", 10));
+		assertEquals(List.of(), removed.search("9841000001", 10));
+		// Entries after the removed one keep their terms
+		assertEquals(List.of(SITA), removed.search("सीता", 10));
+		assertEquals(List.of(HARI), removed.search("f201", 10));
+		assertEquals(List.of(RAM, RAMESH), index.search("ram", 10));
+		assertSame(removed, removed.withoutEntry(RAM.id()));
+	}
+
+	@Test
+	void removeThenAddAgain() {
+		FarmerPrefixIndex index = this.index.withoutEntry(SITA.id()).withoutEntry(RAMESH.id()).withEntry(SITA);
+
+		assertEquals(List.of(SITA), index.search("सी", 10));
+		assertEquals(List.of(RAM), index.search("ra", 10));
+		assertEquals(3, index.size());
+	}
+}
@@ -0,0 +1,39 @@
+package com.digitaldairy.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FixedBinHistogramTest {
+
+	@Test
+	void boundaryValuesLandInTheirOwnBin() {
+		// e.g. (4.1 - 0) / 0.01 = 409.99999999999994 in double arithmetic
+		for (double value : new double[]{4.1, 4.6, 8.7, 0.29, 0.0, 10.0}) {
+			FixedBinHistogram histogram = new FixedBinHistogram(0.0, 15.0, 0.01);
+			histogram.add(value);
+			assertEquals(value + 0.005, histogram.quantile(0.5), 1e-9, "value " + value);
+		}
+	}
+
+	@Test
+	void boundaryValuesStartTheirBucket() {
+		FixedBinHistogram histogram = new FixedBinHistogram(0.0, 15.0, 0.01);
+		histogram.add(4.1);
+		histogram.add(4.19);
+
+		List<FixedBinHistogram.Bucket> buckets = histogram.buckets(0.1);
+		assertEquals(1, buckets.size());
+		assertEquals(4.1, buckets.get(0).from(), 1e-9);
+		assertEquals(2, buckets.get(0).count());
+	}
+
+	@Test
+	void valuesAboveTheRangeClampIntoTheLastBin() {
+		FixedBinHistogram histogram = new FixedBinHistogram(0.0, 15.0, 0.01);
+		histogram.add(100.0);
+		assertEquals(14.995, histogram.quantile(1.0), 1e-9);
+	}
+}
@@ -0,0 +1,111 @@
+package com.digitaldairy.util;
+
+import com.digitaldairy.model.MilkShift;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MilkArchiveFileTest {
+
+	@Test
+	void roundTripsEveryColumn() throws IOException {
+		List<MilkArchiveRow> rows = rows(3000);
+
+		MilkArchiveFile file = roundTrip(rows);
+
+		assertEquals(rows.size(), file.size());
+		assertEquals(rows, file.select(null, 208001, 208112));
+	}
+
+	@Test
+	void selectFiltersByMemberAndPeriod() throws IOException {
+		List<MilkArchiveRow> rows = rows(3000);
+		MilkArchiveFile file = roundTrip(rows);
+
+		List<MilkArchiveRow> expected = rows.stream()
+				.filter(row -> row.memberCode().equals("M7"))
+				.filter(row -> row.nepaliPeriod() >= 208004 && row.nepaliPeriod() <= 208006)
+				.toList();
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, file.select("M7", 208004, 208006));
+		assertEquals(List.of(), file.select("M999", 208001, 208112));
+		assertEquals(List.of(), file.select("M7", 208201, 208212));
+	}
+
+	@Test
+	void keepsNullsAndDictionaryEncodedStrings() throws IOException {
+		MilkArchiveRow sparse = new MilkArchiveRow(null, "M1", null, null, 208001, null, null, null,
+				null, null, null, null, null, null, null);
+		MilkArchiveRow devanagari = new MilkArchiveRow(2L, "M2", LocalDate.of(2023, 4, 14), "2080-01-01", 208001,
+				LocalTime.of(6, 0), MilkShift.MORNING, 5L, 4.5, 4.1, 8.4, 60.0, 270.0, "दूध ढिलो आयो", null);
+		MilkArchiveRow repeated = new MilkArchiveRow(3L, "M1", LocalDate.of(2023, 4, 14), "2080-01-01", 208001,
+				LocalTime.of(17, 30), MilkShift.EVENING, 6L, 3.0, null, 8.0, null, 180.0, "दूध ढिलो आयो",
+				LocalDateTime.of(2023, 4, 14, 17, 45, 3));
+
+		MilkArchiveFile file = roundTrip(List.of(sparse, devanagari, repeated));
+
+		assertEquals(List.of(sparse, devanagari, repeated), file.select(null, 208001, 208001));
+		assertEquals(List.of(sparse, repeated), file.select("M1", 208001, 208001));
+	}
+
+	@Test
+	void emptyArchiveRoundTrips() throws IOException {
+		MilkArchiveFile file = roundTrip(List.of());
+
+		assertEquals(0, file.size());
+		assertEquals(List.of(), file.select(null, 0, Integer.MAX_VALUE));
+	}
+
+	@Test
+	void rejectsOtherFiles() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+		}
+
+		assertThrows(IOException.class, () -> MilkArchiveFile.read(new ByteArrayInputStream(out.toByteArray())));
+	}
+
+	private static MilkArchiveFile roundTrip(List<MilkArchiveRow> rows) throws IOException {
+		MilkArchiveFile.Builder builder = new MilkArchiveFile.Builder();
+		rows.forEach(builder::add);
+		assertEquals(rows.size(), builder.size());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		builder.writeTo(out);
+		return MilkArchiveFile.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	/**
+	 * More rows than the builder's initial capacity, 40 members over a year, with a few remarks and gaps.
+	 */
+	private static List<MilkArchiveRow> rows(int count) {
+		String[] remarks = {null, null, null, "Late delivery", "पानी मिसाएको शंका"};
+		LocalDate start = LocalDate.of(2023, 4, 14);
+		List<MilkArchiveRow> rows = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			LocalDate date = start.plusDays(i / 80);
+			int period = 208001 + Math.min(11, i / 250);
+			boolean morning = i % 2 == 0;
+			rows.add(new MilkArchiveRow((long) i + 1, "M" + (i % 40), date,
+					String.format("%d-%02d-%02d", period / 100, period % 100, (i / 80) % 30 + 1), period,
+					morning ? LocalTime.of(6, 15) : LocalTime.of(17, 40), morning ? MilkShift.MORNING : MilkShift.EVENING,
+					(long) i * 2, 2.0 + (i % 30) / 10.0, i % 97 == 0 ? null : 3.5 + (i % 20) / 10.0,
+					8.0 + (i % 10) / 10.0, 60.0 + i % 7, 150.0 + i % 100, remarks[i % remarks.length],
+					date.atTime(7, 0, i % 60)));
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,65 @@
+package com.digitaldairy.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKTest {
+
+	private record Farmer(String code, double liters) {
+	}
+
+	private static final Comparator<Farmer> BY_LITERS = Comparator.comparingDouble(Farmer::liters);
+
+	@Test
+	void returnsLargestFirst() {
+		List<Integer> values = List.of(5, 1, 9, 3, 7, 2, 8);
+
+		assertEquals(List.of(9, 8, 7), TopK.largest(values, 3, Comparator.naturalOrder()));
+	}
+
+	@Test
+	void matchesAFullSort() {
+		List<Integer> values = new Random(42).ints(5_000, 0, 1_000).boxed().toList();
+
+		for (int k : new int[] {1, 10, 100, 4_999}) {
+			List<Integer> expected = values.stream().sorted(Comparator.reverseOrder()).limit(k).toList();
+			assertEquals(expected, TopK.largest(values, k, Comparator.naturalOrder()), "k=" + k);
+		}
+	}
+
+	@Test
+	void kLargerThanInputReturnsEverythingIncludingTies() {
+		List<Farmer> farmers = List.of(new Farmer("M1", 10.0), new Farmer("M2", 12.5),
+				new Farmer("M3", 10.0), new Farmer("M4", 12.5));
+
+		List<Farmer> top = TopK.largest(farmers, 10, BY_LITERS);
+
+		assertEquals(4, top.size());
+		assertEquals(List.of(12.5, 12.5, 10.0, 10.0), top.stream().map(Farmer::liters).toList());
+		assertTrue(top.containsAll(farmers));
+	}
+
+	@Test
+	void tiesAtTheCutKeepKItems() {
+		List<Farmer> farmers = List.of(new Farmer("M1", 8.0), new Farmer("M2", 10.0),
+				new Farmer("M3", 10.0), new Farmer("M4", 10.0));
+
+		List<Farmer> top = TopK.largest(farmers, 2, BY_LITERS);
+
+		assertEquals(List.of(10.0, 10.0), top.stream().map(Farmer::liters).toList());
+	}
+
+	@Test
+	void emptyInputOrNonPositiveK() {
+		assertEquals(List.of(), TopK.largest(List.<Integer>of(), 3, Comparator.naturalOrder()));
+		assertEquals(List.of(), TopK.largest(IntStream.range(0, 10).boxed().toList(), 0, Comparator.naturalOrder()));
+		assertEquals(List.of(), TopK.largest(List.of(1, 2), -1, Comparator.naturalOrder()));
+	}
+}